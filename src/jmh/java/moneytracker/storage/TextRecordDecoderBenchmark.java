@@ -0,0 +1,66 @@
+package moneytracker.storage;
+
+import moneytracker.exception.MoneyTrackerException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares <code>TextRecordDecoder</code> with the split-based <code>TextLedgerFormat.parseTransaction</code>
+ * on one million lines shaped like sample-data/transactions.txt.
+ * Run with <code>gradlew jmh</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TextRecordDecoderBenchmark {
+    private static final int ROW_COUNT = 1_000_000;
+    private static final String[] TEMPLATES = {
+        "I | %d.0 | %s | Too little! | SALARY",
+        "E | %d.0 | %s |  | FOOD",
+        "E | %d.0 | %s |  | RENT",
+        "E | %d.5 | %s | bus and train | TRANSPORT",
+    };
+    private String[] lines;
+
+    /**
+     * Generates the lines of the save file.
+     */
+    @Setup
+    public void setUp() {
+        lines = new String[ROW_COUNT];
+        LocalDate start = LocalDate.of(2020, 6, 1);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            String date = start.plusDays(i % 3650).toString();
+            lines[i] = String.format(TEMPLATES[i % TEMPLATES.length], 100 + i % 5000, date);
+        }
+    }
+
+    /**
+     * Decodes all lines with the original decoder, which splits each line once per field.
+     */
+    @Benchmark
+    public void decodeWithSplit(Blackhole blackhole) throws MoneyTrackerException {
+        for (String line : lines) {
+            blackhole.consume(TextLedgerFormat.parseTransaction(line));
+        }
+    }
+
+    /**
+     * Decodes all lines with <code>TextRecordDecoder</code>.
+     */
+    @Benchmark
+    public void decodeWithSingleScan(Blackhole blackhole) throws MoneyTrackerException {
+        for (String line : lines) {
+            blackhole.consume(TextRecordDecoder.decode(line));
+        }
+    }
+}
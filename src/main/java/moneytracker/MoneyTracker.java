@@ -46,11 +46,17 @@ public class MoneyTracker {
             ui.printError(e.getMessage());
             categories = new CategoryList();
         }
+        transactions = storage.createTransactionList();
         try {
-            transactions = new TransactionList(storage.loadTransactions(transactionsFilePath));
+            storage.loadTransactions(transactionsFilePath, transactions);
+            storage.loadMonthlyRollup(transactions);
+            if (storage.getQuarantinedCount() > 0) {
+                ui.printError(storage.getQuarantinedCount() + " damaged transaction records were skipped and moved to "
+                        + storage.getQuarantineFilePath() + ".");
+            }
         } catch (MoneyTrackerException e) {
             ui.printError(e.getMessage());
-            transactions = new TransactionList();
+            transactions.clearTransactions();
         }
         try {
             budget = new Budget(storage.loadBudget(budgetFilePath));
@@ -62,12 +68,12 @@ public class MoneyTracker {
 
     public void run() {
         ui.printLogo();
-        double exp = Summary.calExpSummary(transactions);
-        double inc = Summary.calIncSummary(transactions);
+        long exp = Summary.calExpSummary(transactions);
+        long inc = Summary.calIncSummary(transactions);
         ui.printSummary(exp, inc);
-        if (budget.getAmount() != 0) {
+        if (budget.getAmountCents() != 0) {
             if (!budget.calPercentage(exp).equals("0")) {
-                ui.printPctOfBudget(budget.calPercentage(exp),budget.getAmount());
+                ui.printPctOfBudget(budget.calPercentage(exp), budget.getAmountCents());
             }
         }
         ui.printDueTransaction(Reminder.reminder(transactions));
@@ -37,7 +37,7 @@ public class AddIncomeCommand extends Command {
     public void execute(TransactionList transactions, Ui ui, Storage storage,
                         CategoryList categories, Budget budget) throws MoneyTrackerException {
         transactions.addTransaction(Parser.createIncome(fullCommand), categories);
-        storage.saveTransactions(transactions);
+        storage.saveAddedTransaction(transactions);
         ui.printAddTransaction(transactions);
     }
 }
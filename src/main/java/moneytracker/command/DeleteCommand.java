@@ -47,8 +47,9 @@ public class DeleteCommand extends Command {
         Transaction transactionToDelete = getTransactionFromList(transactions, index);
         String description = transactionToDelete.toString();
         String type = getTransactionType(transactionToDelete);
-        transactions.removeTransaction(transactions.getSearchResultIndex(index));
-        storage.saveTransactions(transactions);
+        int transactionIndex = transactions.getSearchResultIndex(index);
+        transactions.removeTransactionById(transactions.getSearchResultId(index));
+        storage.saveDeletedTransaction(transactions, transactionIndex);
         ui.printRemoveTransaction(transactions.getSize(), description, type);
         transactions.setIsInitialized(false);
     }
@@ -61,13 +61,17 @@ public class EditCategoryCommand extends Command {
         }
         String currentName = categoryToEdit.getName();
         String currentDescription = categoryToEdit.toString();
-        categoryToEdit.setName(newName.toUpperCase());
+        categories.renameCategory(categoryToEdit, newName.toUpperCase());
         transactions.updateTransactionsCategory(currentName, newName.toUpperCase(), categoryToEdit.getType());
         String type = categoryToEdit.getType().toLowerCase() + " category";
         String newDescription = categoryToEdit.toString();
         ui.printEditItem(currentDescription, newDescription, type);
-        storage.saveCategories(categories);
-        storage.saveTransactions(transactions);
+        if (storage.isSnapshotEnabled()) {
+            storage.saveSnapshot(transactions, categories, budget);
+        } else {
+            storage.saveCategories(categories);
+            storage.saveRenamedCategory(transactions, categoryToEdit.getType(), currentName, newName.toUpperCase());
+        }
         categories.setIsInitialized(false);
     }
 }
\ No newline at end of file
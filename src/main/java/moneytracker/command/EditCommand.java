@@ -7,8 +7,6 @@ import moneytracker.storage.Storage;
 import moneytracker.transaction.CategoryList;
 import moneytracker.transaction.TransactionList;
 import moneytracker.transaction.Transaction;
-import moneytracker.transaction.Income;
-import moneytracker.transaction.Expense;
 import moneytracker.ui.Ui;
 
 import java.util.HashMap;
@@ -52,9 +50,9 @@ public class EditCommand extends Command {
         Transaction transactionToEdit = getTransactionFromList(transactions, index);
         String currentDescription = transactionToEdit.toString();
         String type = getTransactionType(transactionToEdit).toLowerCase();
-        updateTransaction(transactionToEdit, editParams, categories, type);
+        updateTransaction(transactions, transactions.getSearchResultIndex(index), editParams, categories, type);
         String newDescription = transactionToEdit.toString();
-        storage.saveTransactions(transactions);
+        storage.saveEditedTransaction(transactions, transactions.getSearchResultIndex(index));
         ui.printEditItem(currentDescription, newDescription, type);
         transactions.setIsInitialized(false);
     }
@@ -70,19 +68,15 @@ public class EditCommand extends Command {
         return index;
     }
 
-    private void updateTransaction(Transaction transactionToEdit, HashMap<String, String> editParams,
-                                   CategoryList categories, String type) throws MoneyTrackerException {
+    private void updateTransaction(TransactionList transactions, int transactionIndex,
+                                   HashMap<String, String> editParams, CategoryList categories, String type)
+            throws MoneyTrackerException {
         if (editParams.containsKey("category")) {
             String category = editParams.get("category");
             if (!(categories.checkIfCategoryExists(category, type))) {
                 throw new MoneyTrackerException("This category does not exist.");
             }
-            if (getTransactionType(transactionToEdit).equals("INCOME")) {
-                ((Income) transactionToEdit).setIncomeCategory(editParams.get("category"));
-            }
-            if (getTransactionType(transactionToEdit).equals("EXPENSE")) {
-                ((Expense) transactionToEdit).setExpenseCategory(editParams.get("category"));
-            }
+            transactions.updateTransactionCategory(transactionIndex, category);
         }
         if (editParams.containsKey("amount")) {
             double amount;
@@ -94,13 +88,13 @@ public class EditCommand extends Command {
             if (amount < 0) {
                 throw new MoneyTrackerException("Amount should not be a negative number.");
             }
-            transactionToEdit.setAmount(amount);
+            transactions.updateTransactionAmount(transactionIndex, amount);
         }
         if (editParams.containsKey("date")) {
-            transactionToEdit.setDate(editParams.get("date"));
+            transactions.updateTransactionDate(transactionIndex, editParams.get("date"));
         }
         if (editParams.containsKey("description")) {
-            transactionToEdit.setDescription(editParams.get("description"));
+            transactions.updateTransactionDescription(transactionIndex, editParams.get("description"));
         }
     }
 }
\ No newline at end of file
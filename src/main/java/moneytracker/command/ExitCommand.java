@@ -1,6 +1,7 @@
 package moneytracker.command;
 
 import moneytracker.summary.Budget;
+import moneytracker.exception.MoneyTrackerException;
 import moneytracker.storage.Storage;
 import moneytracker.transaction.CategoryList;
 import moneytracker.transaction.TransactionList;
@@ -11,17 +12,20 @@ import moneytracker.ui.Ui;
  */
 public class ExitCommand extends Command {
     /**
-     * Executes the exit command.
+     * Executes the exit command. Changes that are still queued for saving, the monthly totals of the
+     * transactions and transactions kept off the heap are written before exiting.
      *
      * @param transactions List of <code>Transaction</code> objects.
      * @param ui <code>Ui</code> object for displaying user interactions.
      * @param storage <code>Storage</code> object for loading and saving user data.
      * @param categories List of <code>Category</code> objects.
      * @param budget <code>Budget</code> object.
+     * @throws MoneyTrackerException If the queued changes cannot be saved.
      */
     @Override
     public void execute(TransactionList transactions, Ui ui, Storage storage,
-                        CategoryList categories, Budget budget) {
+                        CategoryList categories, Budget budget) throws MoneyTrackerException {
+        storage.close(transactions);
         ui.printGoodbye();
     }
 
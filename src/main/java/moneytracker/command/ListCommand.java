@@ -11,6 +11,7 @@ import moneytracker.transaction.CategoryList;
 import moneytracker.ui.Ui;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -58,7 +59,7 @@ public class ListCommand extends Command {
         }
 
 
-        ArrayList<Transaction> filteredTransaction = transactions.getTransactions();
+        List<Transaction> filteredTransaction = transactions.getTransactions();
         if (transactions.getSize() == 0) {
             throw new MoneyTrackerException("Sorry, there is no transaction in your list.");
         }
@@ -73,20 +74,76 @@ public class ListCommand extends Command {
 
         ///When there are multiple keywords in the list command, we have to check each rule and return matched records
         for (int i = 1; i < rules.length; i++) {
-            filteredTransaction = getFilteredList(filteredTransaction, rules[i].trim());
+            if (i == 1 && rules[i].trim().startsWith("m")) {
+                filteredTransaction = getMonthList(transactions, rules[i].trim());
+            } else if (i == 1 && rules[i].trim().startsWith("c")) {
+                filteredTransaction = getCategoryList(transactions, rules[i].trim());
+            } else {
+                filteredTransaction = getFilteredList(filteredTransaction, rules[i].trim());
+            }
         }
         ui.printMyFilteredTransactions(filteredTransaction);
 
     }
 
 
+    /**
+     * Gets the transactions of the month in a month rule from the month index of the whole list,
+     * instead of checking the month of every transaction.
+     *
+     * @param transactions List of <code>Transaction</code> objects.
+     * @param rule String of month rule provided by the user input.
+     */
+    private ArrayList<Transaction> getMonthList(TransactionList transactions, String rule)
+            throws MoneyTrackerException {
+        String inputMonth = rule.replace("m", "").trim();
+        ArrayList<Transaction> filterByMonthList = new ArrayList<>();
+        for (int index : transactions.getTransactionIndexesInMonth(inputMonth)) {
+            filterByMonthList.add(transactions.getTransaction(index));
+        }
+        return checkMonthList(filterByMonthList, inputMonth);
+    }
+
+    /**
+     * Gets the transactions of the category in a category rule from the category index of the whole list,
+     * instead of checking the category of every transaction.
+     *
+     * @param transactions List of <code>Transaction</code> objects.
+     * @param rule String of category rule provided by the user input.
+     */
+    private ArrayList<Transaction> getCategoryList(TransactionList transactions, String rule)
+            throws MoneyTrackerException {
+        String inputCategory = rule.replace("c", "").trim().toUpperCase();
+        int[] expenseIndexes = transactions.getTransactionIndexesInCategory(inputCategory, "EXPENSE");
+        int[] incomeIndexes = transactions.getTransactionIndexesInCategory(inputCategory, "INCOME");
+        if (expenseIndexes.length < 1 && incomeIndexes.length < 1) {
+            throw new MoneyTrackerException("Sorry, there is no category '" + inputCategory + "' in the list.");
+        }
+        ArrayList<Transaction> filteredByCategory = new ArrayList<>(expenseIndexes.length + incomeIndexes.length);
+        for (int index : expenseIndexes) {
+            filteredByCategory.add(transactions.getTransaction(index));
+        }
+        for (int index : incomeIndexes) {
+            filteredByCategory.add(transactions.getTransaction(index));
+        }
+        return filteredByCategory;
+    }
+
+    private ArrayList<Transaction> checkMonthList(ArrayList<Transaction> filterByMonthList, String inputMonth)
+            throws MoneyTrackerException {
+        if (filterByMonthList.size() < 1) {
+            throw new MoneyTrackerException("Sorry, there is no record for '" +  inputMonth + "'.");
+        }
+        return filterByMonthList;
+    }
+
     /**
      * Gets a list of transactions which satisfies filter requirement.
      *
      * @param transactions List of <code>Transaction</code> objects.
      * @param rule String of rule provided by the user input.
      */
-    protected ArrayList<Transaction>  getFilteredList(ArrayList<Transaction> transactions, String rule)
+    protected ArrayList<Transaction>  getFilteredList(List<Transaction> transactions, String rule)
             throws MoneyTrackerException {
 
         if (rule.equals("te")) {
@@ -125,10 +182,7 @@ public class ListCommand extends Command {
             String inputMonth = rule.replace("m", "").trim();
             ArrayList<Transaction> filterByMonthList = (ArrayList<Transaction>) transactions.stream().filter(record
                 -> record.setMonth().equals(inputMonth)).collect(Collectors.toList());
-            if (filterByMonthList.size() < 1) {
-                throw new MoneyTrackerException("Sorry, there is no record for '" +  inputMonth + "'.");
-            }
-            return filterByMonthList;
+            return checkMonthList(filterByMonthList, inputMonth);
         }
 
         throw new MoneyTrackerException(("Sorry, invalid list command."));
@@ -3,15 +3,24 @@ package moneytracker.command;
 import moneytracker.exception.MoneyTrackerException;
 import moneytracker.parser.Parser;
 import moneytracker.summary.Budget;
+import moneytracker.summary.MonthlyReport;
+import moneytracker.summary.ReportCache;
+import moneytracker.summary.TrendReport;
 import moneytracker.storage.Storage;
 import moneytracker.transaction.CategoryList;
 import moneytracker.transaction.TransactionList;
 import moneytracker.ui.Ui;
 
+import java.time.YearMonth;
+import java.util.function.Supplier;
+
 /**
  * Contains the methods for user to generate summary report.
  */
 public class ReportCommand extends Command {
+    private static final int MAX_CACHED_REPORTS = 32;
+    private static final ReportCache<MonthlyReport> monthlyReports = new ReportCache<>(MAX_CACHED_REPORTS);
+    private static final ReportCache<TrendReport> trendReports = new ReportCache<>(MAX_CACHED_REPORTS);
     private final String fullCommand;
 
     /**
@@ -24,7 +33,10 @@ public class ReportCommand extends Command {
     }
 
     /**
-     * Executes the display report command.
+     * Executes the display report command. The report of a month, or the trend report of the last months, is
+     * computed in a single pass over the transactions it covers before it is displayed, by several threads if
+     * it covers many transactions. Reports are kept until the transactions change, so that a report that is
+     * shown again is not computed again.
      *
      * @param transactions List of <code>Transaction</code> objects.
      * @param ui <code>Ui</code> object for displaying user interactions.
@@ -37,10 +49,18 @@ public class ReportCommand extends Command {
                         CategoryList categories,  Budget budget) throws MoneyTrackerException {
         assert !fullCommand.isBlank() : "fullCommand should not be blank";
         String date = fullCommand.replaceFirst("report", "").trim();
-        if (date.isEmpty()) {
-            ui.printReport(transactions, Parser.getLastSixMon());
+        int parallelThreshold = storage.getReportParallelThreshold();
+        if (date.isEmpty() || date.startsWith("/")) {
+            YearMonth lastMonth = YearMonth.now();
+            int months = Parser.getReportMonths(fullCommand);
+            Supplier<TrendReport> report = () -> TrendReport.of(transactions, lastMonth, months, parallelThreshold);
+            ui.printTrendReport(transactions, trendReports.get(lastMonth + " " + months, transactions.getVersion(),
+                    report));
         } else {
-            ui.printReportByMonth(transactions, Parser.getDate(fullCommand));
+            YearMonth month = Parser.getMonth(fullCommand);
+            Supplier<MonthlyReport> report = () -> MonthlyReport.of(transactions, month, parallelThreshold);
+            ui.printReportByMonth(transactions, monthlyReports.get(month.toString(), transactions.getVersion(),
+                    report));
         }
     }
 }
\ No newline at end of file
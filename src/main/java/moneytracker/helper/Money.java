@@ -0,0 +1,50 @@
+package moneytracker.helper;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Converts amounts of money between dollars and cents. Amounts are kept and added up as a <code>long</code>
+ * number of cents, so that totals are exact, and only converted to <code>double</code> dollars at the edges
+ * where user inputs are parsed and results are returned.
+ */
+public class Money {
+    public static final int CENTS_PER_DOLLAR = 100;
+
+    /**
+     * Converts an amount in dollars to cents, rounding half up to the nearest cent.
+     *
+     * @param amount Amount in dollars.
+     * @return Amount in cents.
+     */
+    public static long toCents(double amount) {
+        long cents = Math.round(amount * CENTS_PER_DOLLAR);
+        if ((double) cents / CENTS_PER_DOLLAR == amount) {
+            return cents;
+        }
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValue();
+    }
+
+    /**
+     * Converts an amount in cents to dollars.
+     *
+     * @param cents Amount in cents.
+     * @return Amount in dollars.
+     */
+    public static double toDollars(long cents) {
+        return (double) cents / CENTS_PER_DOLLAR;
+    }
+
+    /**
+     * Formats an amount in cents with two decimal places, like <code>String.format("%.2f", amount)</code>
+     * does for an amount in dollars.
+     *
+     * @param cents Amount in cents.
+     * @return Formatted amount without currency sign.
+     */
+    public static String format(long cents) {
+        long wholeCents = Math.abs(cents);
+        long fraction = wholeCents % CENTS_PER_DOLLAR;
+        return (cents < 0 ? "-" : "") + wholeCents / CENTS_PER_DOLLAR + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
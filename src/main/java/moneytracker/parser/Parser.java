@@ -18,34 +18,25 @@ import moneytracker.command.BudgetCommand;
 import moneytracker.command.ExitCommand;
 import moneytracker.command.UnknownCommand;
 import moneytracker.exception.MoneyTrackerException;
-import moneytracker.transaction.TransactionList;
-import moneytracker.transaction.Transaction;
+import moneytracker.summary.TrendReport;
 import moneytracker.transaction.Income;
 import moneytracker.transaction.Expense;
 import moneytracker.transaction.Category;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.util.Calendar;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
-import java.util.stream.Collectors;
-import java.util.Map;
-import java.util.List;
-import java.util.ArrayList;
-import java.util.TreeMap;
-import java.util.Comparator;
-import java.util.LinkedHashMap;
 
 
 /**
  * Contains methods that deal with parsing user commands to extract meaningful details from them.
  */
 public class Parser {
+    private static final int MAX_REPORT_MONTHS = 1200;
 
     /**
      * Gets the command word from user's input string.
@@ -340,357 +331,44 @@ public class Parser {
     }
 
     /**
-     * Gets last six months name from system date.
+     * Gets the month of a report from user's full input string.
      *
-     * @return last six months name list.
-     */
-    public static List<String> getLastSixMon() {
-        List<String> months = new ArrayList<>();
-        for (int i = 5; i >= 0; i--) {
-            months.add(LocalDate.now().minusMonths(i).format(DateTimeFormatter.ofPattern("yyyy-MM")));
-        }
-        return months;
-    }
-
-    /**
-     * Gets days of month from user full command string input.
-     *
-     * @param date date month of <code>Transaction</code> objects.
-     * @return days of month
-     */
-    public static int getDaysOfMonth(String date) {
-        int year = Integer.parseInt(date.split("-")[0]) - 1900;
-        int month = Integer.parseInt(date.split("-")[1]) - 1;
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.YEAR, year);
-        calendar.set(Calendar.MONTH, month);
-        return calendar.getActualMaximum(Calendar.DATE);
-    }
-
-    /**
-     * Gets total month income transactions from user's full input string.
-     *
-     * @param transactions transactions List of <code>Transaction</code> objects.
-     * @param date date date month of <code>Transaction</code> objects.
-     * @return total month income of transactions
-     */
-    public static double getTotalIncome(TransactionList transactions, String date) {
-        double totalIncome = 0.00;
-
-        for (int i = 0; i < transactions.getSize(); i++) {
-            Transaction temp = transactions.getTransaction(i);
-            double amount = Double.parseDouble(transactions.getTransaction(i).getAmount());
-            if (temp instanceof Income & transactions.getTransaction(i).setMonth().equals(date)) {
-                totalIncome = totalIncome + amount;
-            }
-        }
-        return round(totalIncome,2);
-    }
-
-    /**
-     * Gets total month expense transactions from user's full input string.
-     *
-     * @param transactions transactions List of <code>Transaction</code> objects.
-     * @param date date date month of <code>Transaction</code> objects.
-     * @return total month expense of transactions
-     */
-    public static double getTotalExpense(TransactionList transactions, String date) {
-        double totalExpense = 0.00;
-
-        for (int i = 0; i < transactions.getSize(); i++) {
-            Transaction temp = transactions.getTransaction(i);
-            double amount = Double.parseDouble(transactions.getTransaction(i).getAmount());
-            if (temp instanceof Expense & transactions.getTransaction(i).setMonth().equals(date)) {
-                totalExpense = totalExpense + amount;
-            }
-        }
-        return round(totalExpense,2);
-    }
-
-    /**
-     * Gets round double to 2 decimal places.
-     *
-     * @param value double
-     * @param places decimal places
-     * @return double
-     */
-    public static double round(double value, int places) {
-        if (places < 0) {
-            throw new IllegalArgumentException();
-        }
-
-        BigDecimal bd = BigDecimal.valueOf(value);
-        bd = bd.setScale(places, RoundingMode.HALF_UP);
-        return bd.doubleValue();
-    }
-
-    /**
-     * Gets highest month income transactions from user's full input string.
-     *
-     * @param transactions transactions List of <code>Transaction</code> objects.
-     * @param date date date month of <code>Transaction</code> objects.
-     * @return highest month income of transactions
-     */
-    public static String getHighestIncome(TransactionList transactions, String date) {
-        double highestIncome = 0.00;
-        String highestIncomes = null;
-
-        for (int i = 0; i < transactions.getSize(); i++) {
-            Transaction temp = transactions.getTransaction(i);
-            double amount = Double.parseDouble(transactions.getTransaction(i).getAmount());
-            if (temp instanceof Income & transactions.getTransaction(i).setMonth().equals(date)) {
-                if (highestIncome < amount) {
-                    highestIncomes = temp.toString();
-                    highestIncome = amount;
-                }
-            }
-        }
-
-        if (highestIncomes == null || highestIncomes.isEmpty()) {
-            return ("  Sorry, Cannot find any Income record in this Month.");
-        } else {
-            return highestIncomes;
-        }
-    }
-
-    /**
-     * Gets highest month expense transactions from user's full input string.
-     *
-     * @param transactions transactions List of <code>Transaction</code> objects.
-     * @param date date date month of <code>Transaction</code> objects.
-     * @return highest month expense of transactions
-     */
-    public static String getHighestExpense(TransactionList transactions, String date) {
-        double highestExpense = 0.00;
-        String highestExpenses = null;
-
-        for (int i = 0; i < transactions.getSize(); i++) {
-            Transaction temp = transactions.getTransaction(i);
-            double amount = Double.parseDouble(transactions.getTransaction(i).getAmount());
-            if (temp instanceof Expense & transactions.getTransaction(i).setMonth().equals(date)) {
-                if (highestExpense < amount) {
-                    highestExpenses = temp.toString();
-                    highestExpense = amount;
-                }
-            }
-        }
-
-        if (highestExpenses == null || highestExpenses.isEmpty()) {
-            return ("  Sorry, Cannot find any Expense record in this Month.");
-        } else {
-            return highestExpenses;
-        }
-    }
-
-    /**
-     * Gets frequent month income category from user's full input string.
-     *
-     * @param transactions transactions List of <code>Transaction</code> objects.
-     * @param date date date month of <code>Transaction</code> objects.
-     *
-     */
-    public static void getInCatFreq(TransactionList transactions, String date) {
-        ArrayList<String> incomeCate = new ArrayList<>();
-
-        for (int i = 0; i < transactions.getSize(); i++) {
-            Transaction temp = transactions.getTransaction(i);
-            if (temp instanceof Income & transactions.getTransaction(i).setMonth().equals(date)) {
-                incomeCate.add(temp.getTypeName(temp.toString()));
-            }
-        }
-
-        if (incomeCate.isEmpty()) {
-            System.out.println("  Sorry, Cannot find any Income Category record in this Month.");
-        } else {
-            printFreqInHelper(getFrequency(incomeCate));
-        }
-    }
-
-    /**
-     * Gets frequent month expense category from user's full input string.
-     *
-     * @param transactions transactions List of <code>Transaction</code> objects.
-     * @param date date date month of <code>Transaction</code> objects.
-     */
-    public static void getExpCatFreq(TransactionList transactions, String date) {
-        ArrayList<String> expCate = new ArrayList<>();
-
-        for (int i = 0; i < transactions.getSize(); i++) {
-            Transaction temp = transactions.getTransaction(i);
-            if (temp instanceof Expense & transactions.getTransaction(i).setMonth().equals(date)) {
-                expCate.add(temp.getTypeName(temp.toString()));
-            }
-        }
-
-        if (expCate.isEmpty()) {
-            System.out.println("  Sorry, Cannot find any Expense Category record in this Month.");
-        } else {
-            printFreqExpHelper(getFrequency(expCate));
-        }
-    }
-
-    /**
-     * Gets list elements frequency with descending order.
-     *
-     * @param list arraylist
-     * @return map object with list elements and frequency.
-     */
-    public static Map<String, Long> getFrequency(ArrayList<String> list) {
-        Map<String, Long> unsortMap = list.stream().collect(Collectors.groupingBy(w -> w, Collectors.counting()));
-        return new TreeMap<>(unsortMap);
-    }
-
-    /**
-     * Help slip frequency string to words.
-     *
-     * @param object income/expense category frequency.
-     */
-    public static void printInHelper(Object object) {
-        String line = object.toString();
-        String newline = line.replace("{","")
-                .replace("}","").replace(",","");
-        for (String word : newline.split(" ")) {
-            word = word.replace("="," $");
-            System.out.println("  [I] " + word);
-        }
-    }
-
-    /**
-     * Help slip frequency string to words.
-     *
-     * @param object income/expense category frequency.
-     */
-    public static void printFreqInHelper(Object object) {
-        String line = object.toString();
-        String newline = line.replace("{","")
-                .replace("}","").replace(",","");
-        for (String word : newline.split(" ")) {
-            word = word.replace("=",": ");
-            System.out.println("  [I] " + word);
-        }
-    }
-
-    /**
-     * Help slip frequency string to words.
-     *
-     * @param object income/expense category frequency.
-     */
-    public static void printExpHelper(Object object) {
-        String line = object.toString();
-        String newline = line.replace("{","")
-                .replace("}","").replace(",","");
-        for (String word : newline.split(" ")) {
-            word = word.replace("="," $");
-            System.out.println("  [E] " + word);
-        }
-    }
-
-    /**
-     * Help slip frequency string to words.
-     *
-     * @param object income/expense category frequency.
+     * @param fullCommand User's full input string.
+     * @return Month of the report.
+     * @throws MoneyTrackerException if date format incorrect.
      */
-    public static void printFreqExpHelper(Object object) {
-        String line = object.toString();
-        String newline = line.replace("{","")
-                .replace("}","").replace(",","");
-        for (String word : newline.split(" ")) {
-            word = word.replace("=",": ");
-            System.out.println("  [E] " + word);
+    public static YearMonth getMonth(String fullCommand) throws MoneyTrackerException {
+        try {
+            return YearMonth.parse(getDate(fullCommand), DateTimeFormatter.ofPattern("uuuu-M"));
+        } catch (DateTimeParseException e) {
+            throw new MoneyTrackerException("Date should be in yyyy-MM format. E.g. 2020-09");
         }
     }
 
     /**
-     * Get income category list elements amount with descending order.
+     * Gets the number of months of a trend report from user's full input string, given as <code>/nMONTHS</code>.
      *
-     * @param transactions transactions List of <code>Transaction</code> objects.
-     * @param date date date month of <code>Transaction</code> objects.
+     * @param fullCommand User's full input string.
+     * @return Number of months, or the default number of months if none is given.
+     * @throws MoneyTrackerException if the number of months is not a positive integer.
      */
-    public static void getInCatAmount(TransactionList transactions, String date) {
-        Map<String, Double> incomeCate = new HashMap<>();
-        double sum = 0;
-
-        for (int i = 0; i < transactions.getSize(); i++) {
-            Transaction temp = transactions.getTransaction(i);
-            double amount = Double.parseDouble(transactions.getTransaction(i).getAmount());
-            if (temp instanceof Income & transactions.getTransaction(i).setMonth().equals(date)) {
-                incomeCate.merge(temp.getTypeName(temp.toString()), sum + amount, Double::sum);
-            }
+    public static int getReportMonths(String fullCommand) throws MoneyTrackerException {
+        String params = fullCommand.replaceFirst("report", "").trim();
+        if (params.isEmpty()) {
+            return TrendReport.DEFAULT_MONTHS;
         }
-        if (incomeCate.isEmpty()) {
-            System.out.println("  Sorry, Cannot find any Income Category record in this Month.");
-        } else {
-            printInHelper(sortHelper(incomeCate));
+        if (!params.startsWith("/n")) {
+            throw new MoneyTrackerException("Number of months should be given as /nMONTHS. E.g. /n12");
         }
-    }
-
-    /**
-     * Get expense list elements amount with descending order.
-     *
-     * @param transactions transactions List of <code>Transaction</code> objects.
-     * @param date date date month of <code>Transaction</code> objects.
-     */
-    public static void getExpCatAmount(TransactionList transactions, String date) {
-        Map<String, Double> expCate = new HashMap<>();
-        double sum = 0;
-
-        for (int i = 0; i < transactions.getSize(); i++) {
-            Transaction temp = transactions.getTransaction(i);
-            double amount = Double.parseDouble(transactions.getTransaction(i).getAmount());
-            if (temp instanceof Expense & transactions.getTransaction(i).setMonth().equals(date)) {
-                expCate.merge(temp.getTypeName(temp.toString()), sum + amount, Double::sum);
+        try {
+            int months = Integer.parseInt(params.substring(2).trim());
+            if (months <= 0 || months > MAX_REPORT_MONTHS) {
+                throw new MoneyTrackerException("Number of months should be between 1 and " + MAX_REPORT_MONTHS
+                        + ".");
             }
+            return months;
+        } catch (NumberFormatException e) {
+            throw new MoneyTrackerException("Number of months should be given as /nMONTHS. E.g. /n12");
         }
-
-        if (expCate.isEmpty()) {
-            System.out.println("  Sorry, Cannot find any Expense Category record in this Month.");
-        } else {
-            printExpHelper(sortHelper(expCate));
-        }
-    }
-
-    /**
-     * Help sort income/expense category Map object.
-     *
-     * @param object unsort income/expense category Map object.
-     * @return sorted object Map
-     */
-    public static Object sortHelper(Map<String, Double> object) {
-        return object.entrySet().stream()
-                .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
-                    (oldValue, newValue) -> oldValue, LinkedHashMap::new));
-    }
-
-    /**
-     * Gets last six months income transactions with descent order.
-     *
-     * @param transactions transactions transactions List of <code>Transaction</code> objects.
-     * @param dates last six months list
-     * @return sorted object list
-     */
-    public static Object getSixMonIncome(TransactionList transactions, List<String> dates) {
-        Map<String, Double> monthInAmount = new HashMap<>();
-
-        for (String date:dates) {
-            monthInAmount.put(date,Parser.getTotalIncome(transactions, date));
-        }
-        return Parser.sortHelper(monthInAmount);
-    }
-
-    /**
-     * Gets last six months expense transactions with descent order.
-     *
-     * @param transactions transactions transactions List of <code>Transaction</code> objects.
-     * @param dates last six months list
-     * @return sorted object list
-     */
-    public static Object getSixMonExpense(TransactionList transactions, List<String> dates) {
-        Map<String, Double> monthExpAmount = new HashMap<>();
-
-        for (String date:dates) {
-            monthExpAmount.put(date,Parser.getTotalExpense(transactions, date));
-        }
-        return Parser.sortHelper(monthExpAmount);
     }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package moneytracker.storage;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replaces save files atomically. The new content is written to a temporary sibling file, flushed to
+ * the disk and then moved over the save file, so that a crash during a save leaves either the old or
+ * the new save file behind, but never a partially written one.
+ */
+public class AtomicFile {
+    public static final String TEMPORARY_SUFFIX = ".tmp";
+
+    /**
+     * Gets the path of the temporary file used to replace a save file.
+     *
+     * @param filePath Path of the save file.
+     * @return Path of the temporary file.
+     */
+    public static Path getTemporaryFilePath(String filePath) {
+        return Paths.get(filePath + TEMPORARY_SUFFIX);
+    }
+
+    /**
+     * Replaces the content of a text save file atomically.
+     *
+     * @param filePath Path of the save file.
+     * @param content New content of the save file.
+     * @throws IOException If the save file cannot be written.
+     */
+    public static void write(String filePath, String content) throws IOException {
+        Path temporaryFile = getTemporaryFilePath(filePath);
+        SaveFileBuffer buffer = new SaveFileBuffer();
+        buffer.writeText(content);
+        buffer.saveTo(temporaryFile.toString());
+        commit(temporaryFile, Paths.get(filePath));
+    }
+
+    /**
+     * Moves a completely written temporary file over a save file. The temporary file must have been
+     * flushed to the disk before, so that the save file never refers to data that is not on the disk.
+     *
+     * @param temporaryFile Path of the temporary file.
+     * @param file Path of the save file.
+     * @throws IOException If the temporary file cannot be moved.
+     */
+    public static void commit(Path temporaryFile, Path file) throws IOException {
+        Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(file.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Flushes the directory entry of a moved file to the disk. Some platforms cannot open directories,
+     * in which case the directory is flushed by the operating system later on.
+     */
+    private static void syncDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened on Windows, where the move itself is durable.
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package moneytracker.storage;
+
+import moneytracker.exception.MoneyTrackerException;
+import moneytracker.helper.Money;
+import moneytracker.transaction.Expense;
+import moneytracker.transaction.Income;
+import moneytracker.transaction.Transaction;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Represents the binary format of the transactions save file. The file starts with a versioned header
+ * holding the generation and a table of category names, followed by fixed-width records with a
+ * length-prefixed description and a CRC32C checksum of the record:
+ * <pre>
+ * header: magic (int), version (short), generation (long), category count (int),
+ *         categories (length-prefixed UTF-8), record count (int)
+ * record: type (byte), amount (long cents from version 3, double dollars before), date in epoch days (int),
+ *         category id (int), description (length-prefixed UTF-8), checksum (int, from version 2)
+ * </pre>
+ */
+public class BinaryLedgerFormat extends LedgerFormat {
+    public static final int MAGIC = 0x4D544C47;
+    public static final short VERSION = 3;
+    private static final short FIRST_CHECKSUM_VERSION = 2;
+    private static final short FIRST_CENTS_VERSION = 3;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_STRING_LENGTH = 1 << 20;
+    private static final int RECORD_FIXED_SIZE = 21;
+    private static final byte INCOME = 'I';
+    private static final byte EXPENSE = 'E';
+
+    /**
+     * Initializes a <code>BinaryLedgerFormat</code> object.
+     *
+     * @param settings Storage settings of the data directory.
+     */
+    public BinaryLedgerFormat(StorageSettings settings) {
+        super(settings);
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".bin";
+    }
+
+    @Override
+    public long read(String filePath, List<Transaction> transactions, RecordQuarantine quarantine,
+                     LoadDictionary dictionary) throws IOException, MoneyTrackerException {
+        if (isMemoryMapped(Files.size(Paths.get(filePath)))) {
+            return readMapped(filePath, transactions, quarantine, dictionary);
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(filePath), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC) {
+                throw new MoneyTrackerException("The transactions save file is not a binary save file.");
+            }
+            short version = readVersion(in.readShort());
+            long generation = in.readLong();
+            String[] categories = readCategories(in);
+            int recordCount = in.readInt();
+            ensureCapacity(transactions, recordCount);
+            readRecords(filePath, in, recordCount, version, categories, transactions, quarantine, dictionary);
+            return generation;
+        } catch (EOFException e) {
+            throw new MoneyTrackerException("The binary save file is incomplete.");
+        }
+    }
+
+    /**
+     * Reads all transactions from a memory mapped save file, decoding each record directly from the mapped bytes.
+     */
+    private long readMapped(String filePath, List<Transaction> transactions, RecordQuarantine quarantine,
+                            LoadDictionary dictionary) throws IOException, MoneyTrackerException {
+        ByteBuffer buffer = map(filePath);
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new MoneyTrackerException("The transactions save file is not a binary save file.");
+            }
+            short version = readVersion(buffer.getShort());
+            long generation = buffer.getLong();
+            String[] categories = readCategories(buffer);
+            int recordCount = buffer.getInt();
+            ensureCapacity(transactions, recordCount);
+            readRecords(filePath, buffer, 0, recordCount, version, categories, transactions, quarantine, dictionary);
+            return generation;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new MoneyTrackerException("The binary save file is incomplete.");
+        }
+    }
+
+    private static short readVersion(short version) throws MoneyTrackerException {
+        if (version < 1 || version > VERSION) {
+            throw new MoneyTrackerException("The binary save file version " + version + " is not supported.");
+        }
+        return version;
+    }
+
+    /**
+     * Reads the records of a save file from a stream. Once a damaged record is found, the rest of the stream is
+     * read into memory, so that the records after it can be found again.
+     */
+    private void readRecords(String filePath, DataInputStream in, int recordCount, short version,
+                             String[] categories, List<Transaction> transactions, RecordQuarantine quarantine,
+                             LoadDictionary dictionary) throws IOException, MoneyTrackerException {
+        int checksumSize = getChecksumSize(version);
+        byte[] record = new byte[RECORD_FIXED_SIZE + checksumSize];
+        for (int i = 0; i < recordCount; i++) {
+            int size = in.readNBytes(record, 0, RECORD_FIXED_SIZE);
+            int descriptionLength = ByteBuffer.wrap(record).getInt(RECORD_FIXED_SIZE - 4);
+            if (size == RECORD_FIXED_SIZE && isValidStringLength(descriptionLength)) {
+                int recordSize = RECORD_FIXED_SIZE + descriptionLength;
+                if (recordSize + checksumSize > record.length) {
+                    record = Arrays.copyOf(record, recordSize + checksumSize);
+                }
+                size += in.readNBytes(record, RECORD_FIXED_SIZE, descriptionLength + checksumSize);
+                int checksum = checksumSize > 0 ? ByteBuffer.wrap(record).getInt(recordSize) : 0;
+                if (size == recordSize + checksumSize && readRecord(filePath, i,
+                        ByteBuffer.wrap(record, 0, recordSize).slice(), version, checksum, categories,
+                        transactions, quarantine, dictionary)) {
+                    continue;
+                }
+            }
+            byte[] remaining = in.readAllBytes();
+            ByteBuffer buffer = ByteBuffer.allocate(size + remaining.length).put(record, 0, size).put(remaining);
+            readRecords(filePath, buffer.flip(), i, recordCount, version, categories, transactions, quarantine,
+                    dictionary);
+            return;
+        }
+    }
+
+    /**
+     * Reads the records of a save file from a buffer, starting at a given record. A damaged record is skipped
+     * together with the bytes up to the next record with a valid checksum, so that a record whose description
+     * length was damaged does not make the records after it unreadable. Records that cannot be found again are
+     * skipped with the rest of the buffer.
+     */
+    private void readRecords(String filePath, ByteBuffer buffer, int firstIndex, int recordCount, short version,
+                             String[] categories, List<Transaction> transactions, RecordQuarantine quarantine,
+                             LoadDictionary dictionary) throws MoneyTrackerException {
+        for (int i = firstIndex; i < recordCount; i++) {
+            int start = buffer.position();
+            if (start == buffer.limit()) {
+                skipRecord(quarantine, filePath, "count " + recordCount,
+                        "only " + i + " of " + recordCount + " records were found");
+                return;
+            }
+            int end = getRecordEnd(buffer, start, version);
+            int checksum = end >= 0 && version >= FIRST_CHECKSUM_VERSION ? buffer.getInt(end) : 0;
+            if (end >= 0 && readRecord(filePath, i, slice(buffer, start, end), version, checksum, categories,
+                    transactions, quarantine, dictionary)) {
+                buffer.position(end + getChecksumSize(version));
+                continue;
+            }
+            int next = findNextRecord(buffer, start + 1, version);
+            skipRecord(quarantine, filePath, encodeRecord(i, slice(buffer, start, next < 0 ? buffer.limit() : next)),
+                    end < 0 ? "invalid record length" : "checksum mismatch");
+            if (next < 0) {
+                return;
+            }
+            buffer.position(next);
+        }
+    }
+
+    /**
+     * Verifies the checksum of a record and decodes it, or skips the record if it cannot be decoded.
+     *
+     * @return Whether the checksum of the record is valid.
+     */
+    private boolean readRecord(String filePath, int index, ByteBuffer record, short version, int checksum,
+                               String[] categories, List<Transaction> transactions, RecordQuarantine quarantine,
+                               LoadDictionary dictionary) throws MoneyTrackerException {
+        if (version >= FIRST_CHECKSUM_VERSION && checksum != computeChecksum(record.duplicate())) {
+            return false;
+        }
+        try {
+            transactions.add(decodeRecord(record.duplicate(), version, categories, dictionary));
+        } catch (MoneyTrackerException e) {
+            skipRecord(quarantine, filePath, encodeRecord(index, record), e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Gets the end of the record that starts at a given position of a buffer, before its checksum.
+     *
+     * @return End of the record, or -1 if its description length is invalid or the record is cut off.
+     */
+    private static int getRecordEnd(ByteBuffer buffer, int start, short version) {
+        if (buffer.limit() - start < RECORD_FIXED_SIZE) {
+            return -1;
+        }
+        int descriptionLength = buffer.getInt(start + RECORD_FIXED_SIZE - 4);
+        int end = start + RECORD_FIXED_SIZE + descriptionLength;
+        if (!isValidStringLength(descriptionLength) || end > buffer.limit() - getChecksumSize(version)) {
+            return -1;
+        }
+        return end;
+    }
+
+    /**
+     * Finds the first position after a damaged record where a record with a valid checksum starts.
+     *
+     * @return Position of the record, or -1 if there is none or the records have no checksums.
+     */
+    private static int findNextRecord(ByteBuffer buffer, int from, short version) {
+        if (version < FIRST_CHECKSUM_VERSION) {
+            return -1;
+        }
+        for (int position = from; position < buffer.limit(); position++) {
+            byte type = buffer.get(position);
+            if (type != INCOME && type != EXPENSE) {
+                continue;
+            }
+            int end = getRecordEnd(buffer, position, version);
+            if (end >= 0 && buffer.getInt(end) == computeChecksum(slice(buffer, position, end))) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int start, int end) {
+        return buffer.duplicate().limit(end).position(start).slice();
+    }
+
+    private static int getChecksumSize(short version) {
+        return version >= FIRST_CHECKSUM_VERSION ? Integer.BYTES : 0;
+    }
+
+    private Transaction decodeRecord(ByteBuffer record, short version, String[] categories,
+                                     LoadDictionary dictionary) throws MoneyTrackerException {
+        byte type = record.get();
+        long amountCents = version >= FIRST_CENTS_VERSION ? record.getLong() : Money.toCents(record.getDouble());
+        LocalDate date = LocalDate.ofEpochDay(record.getInt());
+        int categoryId = record.getInt();
+        byte[] description = new byte[record.getInt()];
+        record.get(description);
+        if (categoryId < 0 || categoryId >= categories.length) {
+            throw new MoneyTrackerException("There is invalid data in the save file.");
+        }
+        String category = categories[categoryId];
+        switch (type) {
+        case INCOME:
+            return new Income(amountCents,
+                    dictionary.getDescription(new String(description, StandardCharsets.UTF_8)), date,
+                    dictionary.getCategory(category, "INCOME"));
+        case EXPENSE:
+            return new Expense(amountCents,
+                    dictionary.getDescription(new String(description, StandardCharsets.UTF_8)), date,
+                    dictionary.getCategory(category, "EXPENSE"));
+        default:
+            throw new MoneyTrackerException("There is invalid data in the save file.");
+        }
+    }
+
+    private static String encodeRecord(int index, ByteBuffer record) {
+        byte[] bytes = new byte[record.remaining()];
+        record.duplicate().get(bytes);
+        return "record " + index + " " + Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static int computeChecksum(ByteBuffer record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public void write(String filePath, List<Transaction> transactions, long generation)
+            throws IOException, MoneyTrackerException {
+        HashMap<String, Integer> categoryIds = new HashMap<>();
+        ArrayList<String> categories = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            String category = getCategory(transaction);
+            if (!categoryIds.containsKey(category)) {
+                categoryIds.put(category, categories.size());
+                categories.add(category);
+            }
+        }
+        try (DataOutputStream out = new DataOutputStream(new SaveFileStream(filePath))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(generation);
+            out.writeInt(categories.size());
+            for (String category : categories) {
+                writeString(out, category);
+            }
+            out.writeInt(transactions.size());
+            ByteBuffer record = ByteBuffer.allocate(RECORD_FIXED_SIZE);
+            for (Transaction transaction : transactions) {
+                byte[] description = transaction.getDescription().getBytes(StandardCharsets.UTF_8);
+                if (RECORD_FIXED_SIZE + description.length > record.capacity()) {
+                    record = ByteBuffer.allocate(Math.max(RECORD_FIXED_SIZE + description.length,
+                            record.capacity() * 2));
+                }
+                record.clear();
+                record.put(transaction instanceof Income ? INCOME : EXPENSE);
+                record.putLong(transaction.getAmountCents());
+                record.putInt((int) transaction.getLocalDate().toEpochDay());
+                record.putInt(categoryIds.get(getCategory(transaction)));
+                record.putInt(description.length);
+                record.put(description);
+                record.flip();
+                out.write(record.array(), 0, record.limit());
+                out.writeInt(computeChecksum(record));
+            }
+        }
+    }
+
+    private String getCategory(Transaction transaction) throws MoneyTrackerException {
+        if (transaction instanceof Income) {
+            return ((Income) transaction).getIncomeCategory();
+        } else if (transaction instanceof Expense) {
+            return ((Expense) transaction).getExpenseCategory();
+        } else {
+            throw new MoneyTrackerException("I have problem saving to the file.");
+        }
+    }
+
+    private static boolean isValidStringLength(int length) {
+        return length >= 0 && length <= MAX_STRING_LENGTH;
+    }
+
+    private static int checkStringLength(int length) throws IOException {
+        if (!isValidStringLength(length)) {
+            throw new IOException("Invalid string length in binary save file: " + length);
+        }
+        return length;
+    }
+
+    private static String[] readCategories(DataInputStream in) throws IOException {
+        String[] categories = new String[in.readInt()];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = readString(in);
+        }
+        return categories;
+    }
+
+    private static String[] readCategories(ByteBuffer buffer) throws IOException {
+        String[] categories = new String[buffer.getInt()];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = readString(buffer);
+        }
+        return categories;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[checkStringLength(in.readInt())];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[checkStringLength(buffer.getInt())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
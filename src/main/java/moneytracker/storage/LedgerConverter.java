@@ -0,0 +1,68 @@
+package moneytracker.storage;
+
+import moneytracker.exception.MoneyTrackerException;
+import moneytracker.transaction.Transaction;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+/**
+ * Converts a transactions save file from one <code>LedgerFormat</code> to another, keeping its generation
+ * so that the journal of the save file still applies to the converted file.
+ */
+public class LedgerConverter {
+    /**
+     * Converts a save file to another format.
+     *
+     * @param sourceFilePath Path of the save file to be converted.
+     * @param sourceFormat Format of the save file to be converted.
+     * @param targetFilePath Path of the converted save file.
+     * @param targetFormat Format of the converted save file.
+     * @return Number of converted transactions.
+     * @throws IOException If a save file cannot be read or written.
+     * @throws MoneyTrackerException If there is invalid data in the save file to be converted.
+     */
+    public static int convert(String sourceFilePath, LedgerFormat sourceFormat, String targetFilePath,
+                              LedgerFormat targetFormat) throws IOException, MoneyTrackerException {
+        ArrayList<Transaction> transactions = new ArrayList<>();
+        long generation = sourceFormat.read(sourceFilePath, transactions);
+        Path temporaryFile = AtomicFile.getTemporaryFilePath(targetFilePath);
+        targetFormat.write(temporaryFile.toString(), transactions, generation);
+        AtomicFile.commit(temporaryFile, Paths.get(targetFilePath));
+        return transactions.size();
+    }
+
+    /**
+     * Gets the <code>LedgerFormat</code> of a save file from its file extension.
+     *
+     * @param filePath Path of the save file.
+     * @return Binary format for ".bin" files, and text format otherwise.
+     */
+    public static LedgerFormat getFormat(String filePath) {
+        StorageSettings settings = new StorageSettings();
+        if (filePath.endsWith(new BinaryLedgerFormat(settings).getFileExtension())) {
+            return new BinaryLedgerFormat(settings);
+        }
+        return new TextLedgerFormat(settings);
+    }
+
+    /**
+     * Converts a save file from the command line, e.g. from data/transactions.txt to data/transactions.bin.
+     *
+     * @param args Path of the save file to be converted and path of the converted save file.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage: LedgerConverter <source file> <target file>");
+            return;
+        }
+        try {
+            int count = convert(args[0], getFormat(args[0]), args[1], getFormat(args[1]));
+            System.out.println("Converted " + count + " transactions from " + args[0] + " to " + args[1] + ".");
+        } catch (IOException | MoneyTrackerException e) {
+            System.out.println("OOPS!! I have problem converting the save file: " + e.getMessage());
+        }
+    }
+}
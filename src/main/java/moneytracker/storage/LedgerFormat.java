@@ -0,0 +1,181 @@
+package moneytracker.storage;
+
+import moneytracker.exception.MoneyTrackerException;
+import moneytracker.transaction.Transaction;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a file format for the transactions save file. This class defines the common behaviours
+ * that can be inherited by subclasses with specific implementation of a file format.
+ */
+public abstract class LedgerFormat {
+    public static final String TEXT = "text";
+    public static final String BINARY = "binary";
+    protected final StorageSettings settings;
+
+    /**
+     * Initializes a <code>LedgerFormat</code> object.
+     *
+     * @param settings Storage settings of the data directory.
+     */
+    protected LedgerFormat(StorageSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Gets the <code>LedgerFormat</code> with the given name.
+     *
+     * @param name Name of the format, either text or binary.
+     * @param settings Storage settings of the data directory.
+     * @return <code>LedgerFormat</code> object.
+     * @throws MoneyTrackerException If there is no format with the given name.
+     */
+    public static LedgerFormat of(String name, StorageSettings settings) throws MoneyTrackerException {
+        switch (name.trim().toLowerCase()) {
+        case TEXT:
+            return new TextLedgerFormat(settings);
+        case BINARY:
+            return new BinaryLedgerFormat(settings);
+        default:
+            throw new MoneyTrackerException("The save file format \"" + name + "\" is invalid.");
+        }
+    }
+
+    /**
+     * Gets the file extension of the format, including the dot.
+     */
+    public abstract String getFileExtension();
+
+    /**
+     * Gets the path of the save file of this format that belongs to a transactions save file.
+     *
+     * @param transactionsFilePath Path of the transactions save file.
+     * @return Path of the save file with the extension of this format.
+     */
+    public String getFilePath(String transactionsFilePath) {
+        Path path = Paths.get(transactionsFilePath);
+        String fileName = path.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        if (extensionIndex > 0) {
+            fileName = fileName.substring(0, extensionIndex);
+        }
+        return path.resolveSibling(fileName + getFileExtension()).toString();
+    }
+
+    /**
+     * Reads all transactions from a save file.
+     *
+     * @param filePath Path of the save file.
+     * @param transactions List that the transactions are added to.
+     * @return Generation of the save file.
+     * @throws IOException If the save file cannot be read.
+     * @throws MoneyTrackerException If there is invalid data in the save file.
+     */
+    public long read(String filePath, List<Transaction> transactions)
+            throws IOException, MoneyTrackerException {
+        return read(filePath, transactions, null);
+    }
+
+    /**
+     * Reads all transactions from a save file, skipping damaged records instead of failing.
+     *
+     * @param filePath Path of the save file.
+     * @param transactions List that the transactions are added to.
+     * @param quarantine Quarantine that damaged records are added to, or <code>null</code> to fail on them.
+     * @return Generation of the save file.
+     * @throws IOException If the save file cannot be read.
+     * @throws MoneyTrackerException If there is invalid data in the save file that cannot be skipped.
+     */
+    public long read(String filePath, List<Transaction> transactions, RecordQuarantine quarantine)
+            throws IOException, MoneyTrackerException {
+        return read(filePath, transactions, quarantine, new LoadDictionary(settings.isDescriptionInterningEnabled()));
+    }
+
+    /**
+     * Reads all transactions from a save file, skipping damaged records instead of failing, and sharing the
+     * categories and descriptions of the transactions through a dictionary.
+     *
+     * @param filePath Path of the save file.
+     * @param transactions List that the transactions are added to.
+     * @param quarantine Quarantine that damaged records are added to, or <code>null</code> to fail on them.
+     * @param dictionary Dictionary of the categories and descriptions read so far.
+     * @return Generation of the save file.
+     * @throws IOException If the save file cannot be read.
+     * @throws MoneyTrackerException If there is invalid data in the save file that cannot be skipped.
+     */
+    public abstract long read(String filePath, List<Transaction> transactions, RecordQuarantine quarantine,
+                              LoadDictionary dictionary) throws IOException, MoneyTrackerException;
+
+    /**
+     * Writes all transactions to a save file.
+     *
+     * @param filePath Path of the save file.
+     * @param transactions Transactions to be written.
+     * @param generation Generation of the save file.
+     * @throws IOException If the save file cannot be written.
+     * @throws MoneyTrackerException If a transaction cannot be written.
+     */
+    public abstract void write(String filePath, List<Transaction> transactions, long generation)
+            throws IOException, MoneyTrackerException;
+
+    /**
+     * Skips a damaged record of a save file by adding it to the quarantine.
+     *
+     * @param quarantine Quarantine that the record is added to, or <code>null</code> to fail on the record.
+     * @param filePath Path of the save file.
+     * @param record Content of the damaged record.
+     * @param reason Reason why the record is damaged.
+     * @throws MoneyTrackerException If there is no quarantine.
+     */
+    protected static void skipRecord(RecordQuarantine quarantine, String filePath, String record, String reason)
+            throws MoneyTrackerException {
+        if (quarantine == null) {
+            throw new MoneyTrackerException("There is invalid data in the save file.");
+        }
+        quarantine.add(Paths.get(filePath).getFileName().toString(), record, reason);
+    }
+
+    /**
+     * Makes room for the records of a save file in a list that can be presized.
+     *
+     * @param transactions List that the transactions are added to.
+     * @param recordCount Number of records in the save file.
+     */
+    protected static void ensureCapacity(List<Transaction> transactions, int recordCount) {
+        if (transactions instanceof ArrayList) {
+            ((ArrayList<Transaction>) transactions).ensureCapacity(transactions.size() + recordCount);
+        }
+    }
+
+    /**
+     * Checks whether a save file of a given size should be read through a memory mapping.
+     * A single mapping is limited to 2GB, so larger files are always read as a stream.
+     *
+     * @param fileSize Size of the save file in bytes.
+     */
+    protected boolean isMemoryMapped(long fileSize) {
+        return settings.isMemoryMappedLoadEnabled() && fileSize >= settings.getMemoryMappedLoadThreshold()
+                && fileSize <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Maps a whole save file into memory for reading.
+     *
+     * @param filePath Path of the save file.
+     * @return Read-only buffer with the content of the save file.
+     * @throws IOException If the save file cannot be mapped.
+     */
+    protected static MappedByteBuffer map(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
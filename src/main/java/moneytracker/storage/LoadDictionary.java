@@ -0,0 +1,91 @@
+package moneytracker.storage;
+
+import moneytracker.transaction.Category;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shares the categories and descriptions of the transactions read while the save files are loaded, so that
+ * transactions with the same category refer to one <code>Category</code> object and transactions with the same
+ * description refer to one string, instead of each transaction keeping its own copy. The dictionary is only
+ * used during a load and can be shared by the threads that read a save file in parallel.
+ */
+public class LoadDictionary {
+    private static final int MAX_DESCRIPTIONS = 1 << 16;
+    private final ConcurrentHashMap<String, Category> incomeCategories = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Category> expenseCategories = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> descriptions = new ConcurrentHashMap<>();
+    private final boolean isDescriptionInterned;
+    private final LongAdder sharedCount = new LongAdder();
+
+    /**
+     * Initializes a <code>LoadDictionary</code> object.
+     *
+     * @param isDescriptionInterned Whether descriptions are shared as well as categories.
+     */
+    public LoadDictionary(boolean isDescriptionInterned) {
+        this.isDescriptionInterned = isDescriptionInterned;
+    }
+
+    /**
+     * Gets the shared <code>Category</code> with a name and type, creating it if it is the first one.
+     *
+     * @param name Name of the category.
+     * @param type Type of the category, either INCOME or EXPENSE.
+     * @return Shared <code>Category</code> object.
+     */
+    public Category getCategory(String name, String type) {
+        ConcurrentHashMap<String, Category> categories = type.equals("INCOME") ? incomeCategories : expenseCategories;
+        Category category = categories.get(name);
+        if (category != null) {
+            sharedCount.increment();
+            return category;
+        }
+        return categories.computeIfAbsent(name, key -> new Category(key, type));
+    }
+
+    /**
+     * Gets the shared string equal to a description. Once <code>MAX_DESCRIPTIONS</code> different descriptions
+     * have been seen, new descriptions are no longer added, so that a ledger of unique descriptions does not
+     * fill the dictionary.
+     *
+     * @param description Description of a transaction.
+     * @return Shared description, or the description itself if it is not shared.
+     */
+    public String getDescription(String description) {
+        if (!isDescriptionInterned) {
+            return description;
+        }
+        String sharedDescription = descriptions.get(description);
+        if (sharedDescription != null) {
+            sharedCount.increment();
+            return sharedDescription;
+        }
+        if (descriptions.size() < MAX_DESCRIPTIONS) {
+            descriptions.putIfAbsent(description, description);
+        }
+        return description;
+    }
+
+    /**
+     * Gets the number of different categories in the dictionary.
+     */
+    public int getCategoryCount() {
+        return incomeCategories.size() + expenseCategories.size();
+    }
+
+    /**
+     * Gets the number of different descriptions in the dictionary.
+     */
+    public int getDescriptionCount() {
+        return descriptions.size();
+    }
+
+    /**
+     * Gets the number of categories and descriptions that were replaced by a shared one.
+     */
+    public long getSharedCount() {
+        return sharedCount.sum();
+    }
+}
@@ -0,0 +1,131 @@
+package moneytracker.storage;
+
+import moneytracker.transaction.MonthlyRollup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+/**
+ * Manages the file that keeps the monthly totals of the transactions next to the save file, so that the totals
+ * do not have to be built from the transactions after a load. The file starts with a header holding the
+ * generation of the save file, the size of the journal and the number of transactions it was written for, and
+ * is only used when all three still match after a load.
+ */
+public class MonthlyRollupFile {
+    private static final String SEPARATOR = " | ";
+    private static final String HEADER_PREFIX = "# rollup ";
+    private final String filePath;
+
+    /**
+     * Initializes a <code>MonthlyRollupFile</code> object.
+     *
+     * @param filePath Path of the file.
+     */
+    public MonthlyRollupFile(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Gets the path of the file that keeps the monthly totals of a transactions save file.
+     *
+     * @param transactionsFilePath Path of the transactions save file.
+     * @return Path of the file.
+     */
+    public static String getRollupFilePath(String transactionsFilePath) {
+        Path path = Paths.get(transactionsFilePath);
+        String fileName = path.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        if (extensionIndex > 0) {
+            fileName = fileName.substring(0, extensionIndex);
+        }
+        return path.resolveSibling(fileName + ".rollup").toString();
+    }
+
+    /**
+     * Reads the monthly totals if they were written for the given save file, journal and number of transactions.
+     *
+     * @param generation Generation of the save file.
+     * @param journalSize Size of the journal file in bytes.
+     * @param transactionCount Number of transactions.
+     * @return Monthly totals, or <code>null</code> if the file is missing, damaged or out of date.
+     * @throws IOException If the file cannot be read.
+     */
+    public MonthlyRollup read(long generation, long journalSize, int transactionCount) throws IOException {
+        File f = new File(filePath);
+        if (!f.exists()) {
+            return null;
+        }
+        MonthlyRollup rollup = new MonthlyRollup();
+        try (Scanner s = new Scanner(f, StandardCharsets.UTF_8)) {
+            if (!s.hasNextLine() || !s.nextLine().equals(createHeader(generation, journalSize, transactionCount))) {
+                return null;
+            }
+            while (s.hasNextLine()) {
+                String line = s.nextLine();
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split(" \\| ");
+                if (fields.length != 5) {
+                    return null;
+                }
+                rollup.add(YearMonth.parse(fields[0]), fields[1], fields[2], Long.parseLong(fields[3]),
+                        Integer.parseInt(fields[4]));
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+        return rollup.getTransactionCount() == transactionCount ? rollup : null;
+    }
+
+    /**
+     * Replaces the file atomically with the given monthly totals.
+     *
+     * @param rollup Monthly totals.
+     * @param generation Generation of the save file.
+     * @param journalSize Size of the journal file in bytes.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(MonthlyRollup rollup, long generation, long journalSize) throws IOException {
+        StringBuilder content = new StringBuilder();
+        content.append(createHeader(generation, journalSize, rollup.getTransactionCount()))
+                .append(System.lineSeparator());
+        for (Map.Entry<YearMonth, List<MonthlyRollup.CategoryTotal>> entry : rollup.getCategoryTotals().entrySet()) {
+            for (MonthlyRollup.CategoryTotal total : entry.getValue()) {
+                content.append(entry.getKey()).append(SEPARATOR).append(total.getType()).append(SEPARATOR)
+                        .append(total.getCategoryName()).append(SEPARATOR).append(total.getAmountCents())
+                        .append(SEPARATOR).append(total.getCount()).append(System.lineSeparator());
+            }
+        }
+        AtomicFile.write(filePath, content.toString());
+    }
+
+    /**
+     * Gets the path of the file.
+     */
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Deletes the file.
+     *
+     * @throws IOException If the file cannot be deleted.
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(Paths.get(filePath));
+    }
+
+    private static String createHeader(long generation, long journalSize, int transactionCount) {
+        return HEADER_PREFIX + generation + " " + journalSize + " " + transactionCount;
+    }
+}
@@ -0,0 +1,67 @@
+package moneytracker.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Adds and verifies the CRC32C checksums of the records in text save files. A file with checksums declares
+ * them in its header line, and each of its records ends with a field holding the checksum of the rest of the
+ * record as 8 hexadecimal digits. Files without the declaration are read without verification.
+ */
+public class RecordChecksum {
+    public static final String HEADER_FLAG = " checksum crc32c";
+    private static final String SEPARATOR = " | ";
+    private static final int CHECKSUM_LENGTH = 8;
+
+    /**
+     * Checks whether a header line declares that the records of the file have checksums.
+     *
+     * @param header Header line.
+     */
+    public static boolean isDeclaredBy(String header) {
+        return header.contains(HEADER_FLAG);
+    }
+
+    /**
+     * Gets the CRC32C checksum of the UTF-8 bytes of a record.
+     *
+     * @param record Record without checksum.
+     * @return Checksum.
+     */
+    public static int compute(String record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Appends the checksum field to a record.
+     *
+     * @param record Record without checksum.
+     * @return Record with checksum.
+     */
+    public static String append(String record) {
+        String checksum = Integer.toHexString(compute(record));
+        return record + SEPARATOR + "00000000".substring(checksum.length()) + checksum;
+    }
+
+    /**
+     * Verifies the checksum of a record and removes the checksum field.
+     *
+     * @param line Record with checksum.
+     * @return Record without checksum, or <code>null</code> if the checksum is missing or does not match.
+     */
+    public static String strip(String line) {
+        int separatorIndex = line.length() - CHECKSUM_LENGTH - SEPARATOR.length();
+        if (separatorIndex < 0 || !line.startsWith(SEPARATOR, separatorIndex)) {
+            return null;
+        }
+        String record = line.substring(0, separatorIndex);
+        try {
+            int checksum = Integer.parseUnsignedInt(line.substring(separatorIndex + SEPARATOR.length()), 16);
+            return checksum == compute(record) ? record : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package moneytracker.storage;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Collects the records of save files that cannot be read, so that loading can skip them instead of failing.
+ * The skipped records are kept in a side file next to the save file for manual recovery.
+ */
+public class RecordQuarantine {
+    private final ArrayList<String> records = new ArrayList<>();
+
+    /**
+     * Adds a record that cannot be read.
+     *
+     * @param source Name of the file that the record is read from.
+     * @param record Content of the record.
+     * @param reason Reason why the record cannot be read.
+     */
+    public synchronized void add(String source, String record, String reason) {
+        records.add("# " + source + ": " + reason + System.lineSeparator() + record);
+    }
+
+    /**
+     * Gets the number of records that cannot be read.
+     */
+    public synchronized int getCount() {
+        return records.size();
+    }
+
+    /**
+     * Appends the records to a side file.
+     *
+     * @param filePath Path of the side file.
+     * @throws IOException If the side file cannot be written.
+     */
+    public synchronized void writeTo(String filePath) throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (String record : records) {
+            content.append(record).append(System.lineSeparator());
+        }
+        try (FileWriter fw = new FileWriter(filePath, StandardCharsets.UTF_8, true)) {
+            fw.write(content.toString());
+        }
+    }
+}
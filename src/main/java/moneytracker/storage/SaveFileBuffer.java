@@ -0,0 +1,100 @@
+package moneytracker.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Collects the content of a save file in memory and writes it to the disk through a <code>FileChannel</code>
+ * with a single write call, instead of one call per line or per filled stream buffer. Text is encoded as UTF-8,
+ * which is how the save files are read and their checksums computed, whatever the platform charset is.
+ * This suits small save files and journal records; save files of transactions are streamed through a
+ * <code>SaveFileStream</code> instead, so that they are never held in memory as a whole.
+ */
+public class SaveFileBuffer extends OutputStream {
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int size = 0;
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(size + 1);
+        bytes[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(size + len);
+        System.arraycopy(b, off, bytes, size, len);
+        size += len;
+    }
+
+    /**
+     * Appends text to the content.
+     *
+     * @param text Text to be appended.
+     */
+    public void writeText(String text) {
+        byte[] encoded = text.getBytes(StandardCharsets.UTF_8);
+        write(encoded, 0, encoded.length);
+    }
+
+    /**
+     * Gets the number of bytes in the content.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Replaces a file with the content and flushes it to the disk.
+     *
+     * @param filePath Path of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void saveTo(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeTo(channel);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Appends the content to a file and flushes it to the disk, so that the appended content survives a crash
+     * once this returns.
+     *
+     * @param filePath Path of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void appendTo(String filePath) throws IOException {
+        Path path = Paths.get(filePath);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writeTo(channel);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Writes the content to a channel. A channel may accept fewer bytes than requested, so the write is only
+     * repeated for the remaining bytes.
+     */
+    private void writeTo(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, size);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+}
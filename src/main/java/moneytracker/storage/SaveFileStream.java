@@ -0,0 +1,105 @@
+package moneytracker.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams the content of a large save file to the disk through a <code>FileChannel</code>. The content is
+ * collected in a direct buffer of a fixed size, which is written to the channel whenever it is full, so that
+ * writing a save file never holds more than the buffer in memory, however many transactions it has. Text is
+ * encoded as UTF-8 straight into the buffer. The file is flushed to the disk when the stream is closed.
+ */
+public class SaveFileStream extends OutputStream {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    /**
+     * Initializes a <code>SaveFileStream</code> object that replaces the content of a file.
+     *
+     * @param filePath Path of the file.
+     * @throws IOException If the file cannot be opened.
+     */
+    public SaveFileStream(String filePath) throws IOException {
+        channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            writeBuffer();
+        }
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        int written = 0;
+        while (written < len) {
+            if (!buffer.hasRemaining()) {
+                writeBuffer();
+            }
+            int count = Math.min(len - written, buffer.remaining());
+            buffer.put(b, off + written, count);
+            written += count;
+        }
+    }
+
+    /**
+     * Appends text to the content.
+     *
+     * @param text Text to be appended.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeText(String text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        CoderResult result = encoder.encode(chars, buffer, true);
+        while (result.isOverflow()) {
+            writeBuffer();
+            result = encoder.encode(chars, buffer, true);
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            writeBuffer();
+        }
+    }
+
+    /**
+     * Writes the rest of the content and flushes the file to the disk before closing it.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            writeBuffer();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the content of the buffer to the channel. A channel may accept fewer bytes than requested, so the
+     * write is only repeated for the remaining bytes.
+     */
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
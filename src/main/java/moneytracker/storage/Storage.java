@@ -4,58 +4,430 @@ import moneytracker.summary.Budget;
 import moneytracker.exception.MoneyTrackerException;
 import moneytracker.transaction.Category;
 import moneytracker.transaction.CategoryList;
+import moneytracker.transaction.ColumnarTransactionList;
 import moneytracker.transaction.Income;
+import moneytracker.transaction.MonthlyRollup;
+import moneytracker.transaction.OffHeapTransactionList;
 import moneytracker.transaction.Expense;
 import moneytracker.transaction.Transaction;
 import moneytracker.transaction.TransactionList;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class Storage {
     private static final Logger logger = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+    private static final String COMPACTING_SUFFIX = ".compacting";
+    private static final String BACKUP_SUFFIX = ".bak";
+    private static final String QUARANTINE_SUFFIX = ".quarantine";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+    private static final long MAX_COMPACTION_RETRY_DELAY_MILLIS = 5 * 60 * 1000;
+    public static final String SNAPSHOT_MANIFEST_FILE_NAME = "snapshot.commit";
+    public static final String OFF_HEAP_FILE_NAME = "transactions.offheap";
     private final String transactionsFilePath;
     private final String categoriesFilePath;
     private final String budgetFilePath;
+    private final StorageSettings settings;
+    private final LedgerFormat ledgerFormat;
+    private final String ledgerFilePath;
+    private final TransactionJournal journal;
+    private final TransactionJournal compactingJournal;
+    private final Path snapshotManifestFilePath;
+    private volatile long transactionsGeneration = 0;
+    private volatile long transactionsFileSize = 0;
+    private volatile boolean isCompactionFailed = false;
+    private volatile boolean isLedgerBackupNeeded = false;
+    private volatile long compactionRetryDelay;
+    private volatile long compactionRetryTime = 0;
+    private int quarantinedCount = 0;
+    private ExecutorService compactionExecutor;
+    private volatile Future<?> compaction;
+    private final StorageWriter writer;
+    private final MonthlyRollupFile rollupFile;
 
     /**
-     * Initializes a <code>Storage</code> object.
+     * Initializes a <code>Storage</code> object with the settings of the data directory.
      *
      * @param transactionsFilePath Path of the text file used for storing transactions.
      * @param categoriesFilePath Path of the text file used for storing categories.
+     * @param budgetFilePath Path of the text file used for storing the budget.
      */
     public Storage(String transactionsFilePath, String categoriesFilePath, String budgetFilePath) {
+        this(transactionsFilePath, categoriesFilePath, budgetFilePath,
+                StorageSettings.load(getDataDirectory(transactionsFilePath)));
+    }
+
+    /**
+     * Initializes a <code>Storage</code> object.
+     *
+     * @param transactionsFilePath Path of the text file used for storing transactions.
+     * @param categoriesFilePath Path of the text file used for storing categories.
+     * @param budgetFilePath Path of the text file used for storing the budget.
+     * @param settings Storage settings of the data directory.
+     */
+    public Storage(String transactionsFilePath, String categoriesFilePath, String budgetFilePath,
+                   StorageSettings settings) {
         this.transactionsFilePath = transactionsFilePath;
         this.categoriesFilePath = categoriesFilePath;
         this.budgetFilePath = budgetFilePath;
+        this.settings = settings;
+        this.compactionRetryDelay = settings.getCompactionRetryDelay();
+        this.ledgerFormat = getLedgerFormat(settings);
+        this.ledgerFilePath = ledgerFormat.getFilePath(transactionsFilePath);
+        String journalFilePath = TransactionJournal.getJournalFilePath(transactionsFilePath);
+        this.journal = new TransactionJournal(journalFilePath);
+        this.compactingJournal = new TransactionJournal(journalFilePath + COMPACTING_SUFFIX);
+        this.snapshotManifestFilePath = getDataDirectory(transactionsFilePath)
+                .resolve(SNAPSHOT_MANIFEST_FILE_NAME);
+        this.rollupFile = new MonthlyRollupFile(MonthlyRollupFile.getRollupFilePath(transactionsFilePath));
+        this.writer = settings.isWriteBehindEnabled() ? new StorageWriter(this, settings.getWriteBehindMaxStaleness())
+                : null;
+    }
+
+    private static LedgerFormat getLedgerFormat(StorageSettings settings) {
+        try {
+            return LedgerFormat.of(settings.getLedgerFormat(), settings);
+        } catch (MoneyTrackerException e) {
+            logger.log(Level.WARNING, e.getMessage() + " Using the text format instead.");
+            return new TextLedgerFormat(settings);
+        }
     }
 
     /**
-     * Loads information of all <code>Transaction</code> objects from text file.
+     * Loads information of all <code>Transaction</code> objects from the save file in the format of the
+     * data directory, and replays the changes recorded in the journal files. An interrupted snapshot is
+     * completed or discarded and a save file in the other format is converted first. If a compaction of
+     * the journal was interrupted, it is restarted in the background.
+     * Damaged records are skipped and moved to a quarantine file, after which the remaining transactions are
+     * saved in full. A save file that could not be loaded completely is copied to a ".bak" file before it is
+     * replaced.
      */
     public ArrayList<Transaction> loadTransactions(String filePath) throws MoneyTrackerException {
         ArrayList<Transaction> transactions = new ArrayList<>();
-        ArrayList<String> lines;
+        loadTransactions(filePath, transactions);
+        return transactions;
+    }
+
+    /**
+     * Loads information of all <code>Transaction</code> objects into a given list.
+     *
+     * @param filePath Path of the text file used for storing transactions.
+     * @param transactions List that the transactions are added to.
+     * @throws MoneyTrackerException If the save files cannot be read.
+     */
+    public void loadTransactions(String filePath, List<Transaction> transactions) throws MoneyTrackerException {
+        String ledgerFilePath = ledgerFormat.getFilePath(filePath);
+        RecordQuarantine quarantine = new RecordQuarantine();
+        LoadDictionary dictionary = new LoadDictionary(settings.isDescriptionInterningEnabled());
+        long heapUsedBefore = getHeapUsed();
+        long snapshotGeneration;
+        isLedgerBackupNeeded = true;
         try {
-            lines = getLines(filePath);
+            recoverSnapshot();
+            recoverLedger(ledgerFilePath);
+            convertLedgerIfNeeded(filePath, ledgerFilePath);
+            snapshotGeneration = ledgerFormat.read(ledgerFilePath, transactions, quarantine, dictionary);
         } catch (IOException e) {
             throw new MoneyTrackerException("I have problem reading the transactions save file."
                     + " Let's start with an empty transaction list instead.");
         }
-        for (String line : lines) {
-            if (!(line.trim().isEmpty())) {
-                transactions.add(createTransaction(line));
+        transactionsFileSize = new File(ledgerFilePath).length();
+        try {
+            replayRecords(transactions, compactingJournal.readRecords(snapshotGeneration, quarantine), dictionary);
+            boolean isCompactionPending = compactingJournal.isReady();
+            if (!isCompactionPending) {
+                compactingJournal.delete();
             }
+            transactionsGeneration = isCompactionPending ? snapshotGeneration + 1 : snapshotGeneration;
+            replayRecords(transactions, journal.readRecords(transactionsGeneration, quarantine), dictionary);
+            logLoadReport(transactions.size(), dictionary, heapUsedBefore);
+            quarantinedCount = quarantine.getCount();
+            if (quarantinedCount > 0) {
+                quarantine.writeTo(getQuarantineFilePath());
+                logger.log(Level.WARNING, "Skipped " + quarantinedCount + " damaged transaction records, loaded "
+                        + transactions.size() + " transactions");
+                writeTransactions(transactions);
+                return;
+            }
+            isLedgerBackupNeeded = false;
+            if (isCompactionPending) {
+                startCompaction();
+            }
+        } catch (IOException e) {
+            throw new MoneyTrackerException("I have problem reading the transactions journal file.");
         }
-        return transactions;
+    }
+
+    /**
+     * Loads information of all <code>Transaction</code> objects into a <code>TransactionList</code>. A list kept
+     * off the heap in a file is used as it is if it was closed by a checkpoint of the current save files and
+     * journal, so that the save files do not have to be read. Otherwise, the list is cleared and the save files
+     * are read.
+     *
+     * @param filePath Path of the text file used for storing transactions.
+     * @param transactions List that the transactions are added to.
+     * @throws MoneyTrackerException If the save files cannot be read.
+     */
+    public void loadTransactions(String filePath, TransactionList transactions) throws MoneyTrackerException {
+        if (transactions instanceof OffHeapTransactionList
+                && reopenTransactions(filePath, (OffHeapTransactionList) transactions)) {
+            return;
+        }
+        transactions.clearTransactions();
+        loadTransactions(filePath, transactions.getTransactions());
+    }
+
+    /**
+     * Reopens the transactions of a list kept off the heap, after recovering the save files from an interrupted
+     * save. The journal is read again so that new changes can be appended to it, but its records are not replayed.
+     *
+     * @return Whether the list matches the save files and journal.
+     */
+    private boolean reopenTransactions(String filePath, OffHeapTransactionList transactions) {
+        String ledgerFilePath = ledgerFormat.getFilePath(filePath);
+        try {
+            recoverSnapshot();
+            recoverLedger(ledgerFilePath);
+            convertLedgerIfNeeded(filePath, ledgerFilePath);
+            if (compactingJournal.exists() || !transactions.isCheckpointOf(getSaveFileState(ledgerFilePath))) {
+                return false;
+            }
+            long generation = transactions.getCheckpointGeneration();
+            journal.readRecords(generation, null);
+            transactionsGeneration = generation;
+        } catch (IOException | MoneyTrackerException e) {
+            logger.log(Level.WARNING, "Error reopening the transactions kept off the heap", e);
+            return false;
+        }
+        transactionsFileSize = new File(ledgerFilePath).length();
+        logger.log(Level.FINE, "Reopened " + transactions.getSize() + " transactions kept off the heap");
+        return true;
+    }
+
+    /**
+     * Gets the sizes and modification times of the save file and the journal, which change whenever the
+     * transactions are saved.
+     */
+    private long[] getSaveFileState(String ledgerFilePath) {
+        File ledgerFile = new File(ledgerFilePath);
+        File journalFile = new File(journal.getFilePath());
+        return new long[] {ledgerFile.length(), ledgerFile.lastModified(), journalFile.length(),
+            journalFile.lastModified()};
+    }
+
+    /**
+     * Saves everything that is kept only in memory before exiting. Changes queued in write-behind mode are
+     * written, and the transactions are saved in full if a commit of queued changes failed, since journal records
+     * may be missing then. A running compaction of the journal is finished and the monthly totals are saved. A
+     * list kept off the heap in a file is checkpointed and closed, so that it can be reopened without reading the
+     * save files.
+     *
+     * @param transactions List of <code>Transaction</code> objects.
+     * @throws MoneyTrackerException If the queued changes cannot be saved.
+     */
+    public void close(TransactionList transactions) throws MoneyTrackerException {
+        try {
+            flush();
+        } catch (MoneyTrackerException e) {
+            if (!writer.isCommitFailed()) {
+                throw e;
+            }
+        }
+        if (writer != null && writer.isCommitFailed()) {
+            writer.writeTransactions(transactions.getTransactions());
+        }
+        awaitCompaction();
+        saveMonthlyRollup(transactions);
+        if (!(transactions instanceof OffHeapTransactionList)) {
+            return;
+        }
+        OffHeapTransactionList offHeapTransactions = (OffHeapTransactionList) transactions;
+        try {
+            if (!isCompactionFailed && !compactingJournal.exists()) {
+                offHeapTransactions.checkpoint(transactionsGeneration,
+                        getSaveFileState(ledgerFormat.getFilePath(transactionsFilePath)));
+            }
+            offHeapTransactions.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Error saving the transactions kept off the heap", e);
+        }
+    }
+
+    /**
+     * Sets the monthly totals saved with the transactions on a loaded <code>TransactionList</code>, if they were
+     * saved for the loaded save file and journal. Otherwise, the totals are built from the transactions when they
+     * are first needed.
+     *
+     * @param transactions List of <code>Transaction</code> objects that was loaded.
+     */
+    public void loadMonthlyRollup(TransactionList transactions) {
+        try {
+            MonthlyRollup rollup = rollupFile.read(transactionsGeneration, getJournalFileSize(),
+                    transactions.getSize());
+            if (rollup != null) {
+                transactions.setMonthlyRollup(rollup);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Error reading the monthly totals of the transactions", e);
+        }
+    }
+
+    /**
+     * Saves the monthly totals of the transactions, so that the next load does not have to build them from the
+     * transactions. Changes queued in write-behind mode are written first. The totals are only saved on exit
+     * rather than after each change: they are saved with the generation and journal size they belong to, so totals
+     * that a later change made stale are never loaded. The totals can always be built again, so a failure to save
+     * them is only logged.
+     *
+     * @param transactions List of <code>Transaction</code> objects.
+     * @throws MoneyTrackerException If the queued changes cannot be saved.
+     */
+    public void saveMonthlyRollup(TransactionList transactions) throws MoneyTrackerException {
+        flush();
+        try {
+            rollupFile.write(transactions.getMonthlyRollup(), transactionsGeneration, getJournalFileSize());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Error saving the monthly totals of the transactions", e);
+        }
+    }
+
+    private long getJournalFileSize() {
+        return new File(journal.getFilePath()).length();
+    }
+
+    /**
+     * Creates an empty <code>TransactionList</code> of the kind set for the data directory.
+     */
+    public TransactionList createTransactionList() {
+        if (settings.isOffHeapEnabled()) {
+            String offHeapFilePath = getDataDirectory(transactionsFilePath).resolve(OFF_HEAP_FILE_NAME).toString();
+            try {
+                return OffHeapTransactionList.open(offHeapFilePath);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Error opening " + offHeapFilePath
+                        + ", keeping transactions in direct memory", e);
+                return new OffHeapTransactionList();
+            }
+        }
+        return settings.isColumnarEnabled() ? new ColumnarTransactionList() : new TransactionList();
+    }
+
+    /**
+     * Gets the number of damaged transaction records that were skipped by the last load.
+     */
+    public int getQuarantinedCount() {
+        return quarantinedCount;
+    }
+
+    /**
+     * Gets the path of the file that keeps the damaged transaction records skipped by loads.
+     */
+    public String getQuarantineFilePath() {
+        return ledgerFilePath + QUARANTINE_SUFFIX;
+    }
+
+    /**
+     * Recovers the save file after a crash during a save. A temporary save file that was left behind is
+     * moved over the save file if it is complete and of a newer generation, and deleted otherwise.
+     */
+    private void recoverLedger(String ledgerFilePath) throws IOException {
+        Path temporaryFile = AtomicFile.getTemporaryFilePath(ledgerFilePath);
+        if (!Files.exists(temporaryFile)) {
+            return;
+        }
+        if (getValidGeneration(temporaryFile.toString()) > getValidGeneration(ledgerFilePath)) {
+            AtomicFile.commit(temporaryFile, Paths.get(ledgerFilePath));
+            logger.log(Level.INFO, "Recovered the transactions save file from " + temporaryFile);
+        } else {
+            Files.delete(temporaryFile);
+        }
+    }
+
+    /**
+     * Gets the generation of a save file that can be read completely.
+     *
+     * @return Generation of the save file, or -1 if the save file is missing or invalid.
+     */
+    private long getValidGeneration(String filePath) {
+        if (!Files.exists(Paths.get(filePath))) {
+            return -1;
+        }
+        try {
+            return ledgerFormat.read(filePath, new ArrayList<>());
+        } catch (IOException | MoneyTrackerException | RuntimeException e) {
+            logger.log(Level.WARNING, "Ignoring invalid transactions save file " + filePath + ": " + e);
+            return -1;
+        }
+    }
+
+    /**
+     * Replaces the save file atomically with a save file holding the given transactions.
+     */
+    private void writeLedger(List<Transaction> transactions, long generation)
+            throws IOException, MoneyTrackerException {
+        Path temporaryFile = AtomicFile.getTemporaryFilePath(ledgerFilePath);
+        ledgerFormat.write(temporaryFile.toString(), transactions, generation);
+        backUpLedgerIfNeeded();
+        AtomicFile.commit(temporaryFile, Paths.get(ledgerFilePath));
+    }
+
+    /**
+     * Keeps a copy of the save file with a ".bak" extension before it is replaced for the first time after it
+     * could not be loaded completely, so that the transactions that were not loaded can still be recovered.
+     */
+    private synchronized void backUpLedgerIfNeeded() throws IOException {
+        if (!isLedgerBackupNeeded) {
+            return;
+        }
+        Path ledgerFile = Paths.get(ledgerFilePath);
+        if (Files.exists(ledgerFile)) {
+            Files.copy(ledgerFile, Paths.get(ledgerFilePath + BACKUP_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+            logger.log(Level.WARNING, "Kept a copy of the transactions save file in " + ledgerFilePath
+                    + BACKUP_SUFFIX);
+        }
+        isLedgerBackupNeeded = false;
+    }
+
+    /**
+     * Converts the save file in the other format when there is no save file in the format of the data directory.
+     * The converted save file is kept with a ".bak" extension.
+     */
+    private void convertLedgerIfNeeded(String filePath, String ledgerFilePath)
+            throws IOException, MoneyTrackerException {
+        if (Files.exists(Paths.get(ledgerFilePath))) {
+            return;
+        }
+        LedgerFormat otherFormat = getOtherLedgerFormat();
+        Path otherFilePath = Paths.get(otherFormat.getFilePath(filePath));
+        if (!Files.exists(otherFilePath)) {
+            return;
+        }
+        int count = LedgerConverter.convert(otherFilePath.toString(), otherFormat, ledgerFilePath, ledgerFormat);
+        Files.move(otherFilePath, Paths.get(otherFilePath + BACKUP_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+        logger.log(Level.INFO, "Converted " + count + " transactions to " + ledgerFilePath);
+    }
+
+    private LedgerFormat getOtherLedgerFormat() {
+        if (ledgerFormat instanceof BinaryLedgerFormat) {
+            return new TextLedgerFormat(settings);
+        }
+        return new BinaryLedgerFormat(settings);
     }
 
     /**
@@ -65,6 +437,7 @@ public class Storage {
         ArrayList<Category> categories = new ArrayList<>();
         ArrayList<String> lines;
         try {
+            recoverSnapshot();
             lines = getLines(filePath);
         } catch (IOException e) {
             throw new MoneyTrackerException("I have problem reading the categories save file."
@@ -79,73 +452,438 @@ public class Storage {
     }
 
     /**
-     * Saves information of all <code>Transaction</code> objects to text file.
+     * Saves information of all <code>Transaction</code> objects to text file. With a writer thread, the
+     * transactions are copied for it, except for transactions kept off the heap, which are written from the list
+     * in the calling thread instead of being copied into memory.
      *
      * @throws MoneyTrackerException If text file is not found or inaccessible.
      */
     public void saveTransactions(TransactionList transactions) throws MoneyTrackerException {
-        FileWriter fw;
+        if (writer != null && transactions instanceof OffHeapTransactionList) {
+            writer.writeTransactions(transactions.getTransactions());
+            return;
+        }
+        if (writer != null) {
+            writer.submitTransactions(transactions.copyTransactions());
+            return;
+        }
+        writeTransactions(transactions.getTransactions());
+    }
+
+    /**
+     * Writes a full save file of the transactions and starts a new journal for it.
+     *
+     * @param transactions List of <code>Transaction</code> objects.
+     * @throws MoneyTrackerException If text file is not found or inaccessible.
+     */
+    void writeTransactions(List<Transaction> transactions) throws MoneyTrackerException {
+        awaitCompaction();
         try {
-            fw = new FileWriter(transactionsFilePath);
-            for (int i = 0; i < transactions.getSize(); i++) {
-                String description = transactions.getTransaction(i).getDescription();
-                String amount = transactions.getTransaction(i).getAmount();
-                String date = transactions.getTransaction(i).getDate();
-                String lineToSave = " | " + amount + " | " + date + " | " + description;
-                if (transactions.getTransaction(i) instanceof Income) {
-                    String incomeCategory = ((Income) transactions.getTransaction(i)).getIncomeCategory();
-                    lineToSave =  "I" + lineToSave + " | " + incomeCategory + System.lineSeparator();
-                } else if (transactions.getTransaction(i) instanceof Expense) {
-                    String expenseCategory = ((Expense) transactions.getTransaction(i)).getExpenseCategory();
-                    lineToSave =  "E" + lineToSave + " | " + expenseCategory + System.lineSeparator();
-                } else {
-                    throw new MoneyTrackerException("I have problem saving to the file.");
-                }
-                fw.write(lineToSave);
-            }
-            fw.close();
+            writeLedger(transactions, transactionsGeneration + 1);
+            transactionsGeneration++;
+            transactionsFileSize = new File(ledgerFilePath).length();
+            journal.reset(transactionsGeneration);
+            compactingJournal.delete();
+            resetCompactionRetry();
         } catch (IOException e) {
             throw new MoneyTrackerException("I have problem saving to the file.");
         }
     }
 
     /**
-     * Saves information of all categories to text file.
+     * Saves a newly added <code>Transaction</code> object, which is the last one in the list.
      *
+     * @param transactions List of <code>Transaction</code> objects.
      * @throws MoneyTrackerException If text file is not found or inaccessible.
      */
-    public void saveCategories(CategoryList categories) throws MoneyTrackerException {
-        FileWriter fw;
+    public void saveAddedTransaction(TransactionList transactions) throws MoneyTrackerException {
+        if (!canAppendToJournal()) {
+            saveTransactions(transactions);
+            return;
+        }
+        Transaction transaction = transactions.getTransaction(transactions.getSize() - 1);
+        appendToJournal(TransactionJournal.createAddRecord(TextLedgerFormat.formatTransaction(transaction)));
+    }
+
+    /**
+     * Saves an edited <code>Transaction</code> object.
+     *
+     * @param transactions List of <code>Transaction</code> objects.
+     * @param index Index of the edited <code>Transaction</code> in the list.
+     * @throws MoneyTrackerException If text file is not found or inaccessible.
+     */
+    public void saveEditedTransaction(TransactionList transactions, int index) throws MoneyTrackerException {
+        if (!canAppendToJournal()) {
+            saveTransactions(transactions);
+            return;
+        }
+        String transactionLine = TextLedgerFormat.formatTransaction(transactions.getTransaction(index));
+        appendToJournal(TransactionJournal.createUpdateRecord(index, transactionLine));
+    }
+
+    /**
+     * Saves the deletion of a <code>Transaction</code> object.
+     *
+     * @param transactions List of <code>Transaction</code> objects after the deletion.
+     * @param index Index of the deleted <code>Transaction</code> before the deletion.
+     * @throws MoneyTrackerException If text file is not found or inaccessible.
+     */
+    public void saveDeletedTransaction(TransactionList transactions, int index) throws MoneyTrackerException {
+        if (!canAppendToJournal()) {
+            saveTransactions(transactions);
+            return;
+        }
+        appendToJournal(TransactionJournal.createDeleteRecord(index));
+    }
+
+    /**
+     * Saves the renaming of a category in all <code>Transaction</code> objects.
+     *
+     * @param transactions List of <code>Transaction</code> objects after the renaming.
+     * @param type Type of the category, either INCOME or EXPENSE.
+     * @param currentName Previous name of the category.
+     * @param newName New name of the category.
+     * @throws MoneyTrackerException If text file is not found or inaccessible.
+     */
+    public void saveRenamedCategory(TransactionList transactions, String type, String currentName, String newName)
+            throws MoneyTrackerException {
+        if (!canAppendToJournal()) {
+            saveTransactions(transactions);
+            return;
+        }
+        appendToJournal(TransactionJournal.createRenameRecord(type, currentName, newName));
+    }
+
+    private boolean canAppendToJournal() {
+        if (writer == null) {
+            return settings.isJournalEnabled() && journal.isReady();
+        }
+        return settings.isJournalEnabled() && (journal.isReady() || writer.hasPendingTransactions())
+                && !writer.isCommitFailed();
+    }
+
+    private void appendToJournal(String record) throws MoneyTrackerException {
+        if (writer != null) {
+            writer.submitRecord(record);
+            return;
+        }
+        appendRecords(Collections.singletonList(record));
+    }
+
+    /**
+     * Appends records to the journal with a single write.
+     *
+     * @param records Journal records.
+     * @throws MoneyTrackerException If text file is not found or inaccessible.
+     */
+    void appendRecords(List<String> records) throws MoneyTrackerException {
         try {
-            fw = new FileWriter(categoriesFilePath);
-            for (int i = 0; i < categories.getSize(); i++) {
-                String name = categories.getCategory(i).getName();
-                String type = categories.getCategory(i).getType();
-                if (type.equals("INCOME")) {
-                    fw.write("I" + " | " + name + System.lineSeparator());
-                } else if (type.equals("EXPENSE")) {
-                    fw.write("E" + " | " + name + System.lineSeparator());
-                } else {
-                    throw new MoneyTrackerException("I have problem saving to the file.");
-                }
-            }
-            fw.close();
+            journal.append(records);
+            compactJournalIfNeeded();
         } catch (IOException e) {
             throw new MoneyTrackerException("I have problem saving to the file.");
         }
     }
 
+    /**
+     * Starts a compaction of the journal when it has grown too large compared to the save file.
+     * The journal is moved aside and replaced by an empty journal for the next generation,
+     * so that new records can be appended while the old ones are folded into the save file.
+     * A compaction that failed is retried with the same moved-aside journal, after a delay that doubles
+     * with each failure.
+     */
+    private synchronized void compactJournalIfNeeded() throws IOException {
+        boolean isCompacting = compaction != null && !compaction.isDone();
+        if (isCompacting) {
+            return;
+        }
+        if (isCompactionFailed) {
+            if (System.currentTimeMillis() >= compactionRetryTime && compactingJournal.exists()) {
+                startCompaction();
+            }
+            return;
+        }
+        if (journal.getSize() < settings.getCompactionMinJournalSize()
+                || journal.getSize() < settings.getCompactionRatio() * transactionsFileSize) {
+            return;
+        }
+        journal.moveTo(compactingJournal);
+        transactionsGeneration++;
+        journal.reset(transactionsGeneration);
+        startCompaction();
+    }
+
+    private synchronized void startCompaction() {
+        if (compactionExecutor == null) {
+            compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-compaction");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        long generation = transactionsGeneration;
+        compaction = compactionExecutor.submit(() -> compactJournal(generation));
+    }
+
+    /**
+     * Folds the moved-aside journal into a new save file of the given generation and swaps it in atomically.
+     * This runs on the compaction thread and only reads the files on disk, never the in-memory list.
+     */
+    private void compactJournal(long generation) {
+        try {
+            ArrayList<Transaction> transactions = new ArrayList<>();
+            ledgerFormat.read(ledgerFilePath, transactions);
+            TransactionJournal journalToCompact = new TransactionJournal(compactingJournal.getFilePath());
+            replayRecords(transactions, journalToCompact.readRecords(0, null), new LoadDictionary(false));
+            writeLedger(transactions, generation);
+            transactionsFileSize = new File(ledgerFilePath).length();
+            journalToCompact.delete();
+            resetCompactionRetry();
+        } catch (IOException | MoneyTrackerException e) {
+            compactionRetryTime = System.currentTimeMillis() + compactionRetryDelay;
+            compactionRetryDelay = Math.min(compactionRetryDelay * 2, MAX_COMPACTION_RETRY_DELAY_MILLIS);
+            isCompactionFailed = true;
+            logger.log(Level.WARNING, "Error compacting the transactions journal, retrying in "
+                    + (compactionRetryTime - System.currentTimeMillis()) + " ms", e);
+        }
+    }
+
+    private void resetCompactionRetry() {
+        isCompactionFailed = false;
+        compactionRetryDelay = settings.getCompactionRetryDelay();
+    }
+
+    /**
+     * Writes all changes that are queued in write-behind mode and waits until they are saved.
+     *
+     * @throws MoneyTrackerException If the changes cannot be saved.
+     */
+    public void flush() throws MoneyTrackerException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Waits for a running compaction of the journal to finish.
+     */
+    public void awaitCompaction() {
+        if (compaction == null) {
+            return;
+        }
+        try {
+            compaction.get();
+        } catch (InterruptedException | ExecutionException e) {
+            logger.log(Level.WARNING, "Error waiting for the transactions journal compaction", e);
+        }
+    }
+
+    /**
+     * Logs how many categories and descriptions were shared while loading the transactions, and the heap used
+     * before and after loading them.
+     */
+    private void logLoadReport(int transactionCount, LoadDictionary dictionary, long heapUsedBefore) {
+        if (!logger.isLoggable(Level.FINE)) {
+            return;
+        }
+        logger.log(Level.FINE, "Loaded " + transactionCount + " transactions with " + dictionary.getCategoryCount()
+                + " categories and " + dictionary.getDescriptionCount() + " descriptions, sharing "
+                + dictionary.getSharedCount() + " values; heap used " + heapUsedBefore / BYTES_PER_MEGABYTE
+                + " MB before and " + getHeapUsed() / BYTES_PER_MEGABYTE + " MB after loading");
+    }
+
+    private static long getHeapUsed() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private void replayRecords(List<Transaction> transactions, ArrayList<String> records, LoadDictionary dictionary)
+            throws MoneyTrackerException {
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                replayRecord(transactions, records.get(i), dictionary);
+            } catch (MoneyTrackerException e) {
+                if (i < records.size() - 1) {
+                    throw e;
+                }
+                logger.log(Level.WARNING, "Ignoring incomplete record at the end of the transactions journal");
+            }
+        }
+    }
+
+    private void replayRecord(List<Transaction> transactions, String record, LoadDictionary dictionary)
+            throws MoneyTrackerException {
+        String[] fields = record.split("\\|", 2);
+        try {
+            switch (fields[0].trim()) {
+            case TransactionJournal.ADD:
+                transactions.add(createJournaledTransaction(fields[1], dictionary));
+                break;
+            case TransactionJournal.UPDATE:
+                String[] updateFields = fields[1].split("\\|", 2);
+                int index = Integer.parseInt(updateFields[0].trim());
+                transactions.set(index, createJournaledTransaction(updateFields[1], dictionary));
+                break;
+            case TransactionJournal.DELETE:
+                transactions.remove(Integer.parseInt(fields[1].trim()));
+                break;
+            case TransactionJournal.RENAME:
+                String[] renameFields = fields[1].split("\\|");
+                renameCategory(transactions, renameFields[0].trim(), renameFields[1].trim(), renameFields[2].trim(),
+                        dictionary);
+                break;
+            default:
+                throw new MoneyTrackerException("There is invalid data in the journal file.");
+            }
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            throw new MoneyTrackerException("There is invalid data in the journal file.");
+        }
+    }
+
+    private Transaction createJournaledTransaction(String line, LoadDictionary dictionary)
+            throws MoneyTrackerException {
+        if (line.split("\\|").length < 5) {
+            throw new MoneyTrackerException("There is invalid data in the journal file.");
+        }
+        return TextRecordDecoder.decode(line, dictionary);
+    }
+
+    private void renameCategory(List<Transaction> transactions, String type, String currentName,
+                                String newName, LoadDictionary dictionary) {
+        Category category = dictionary.getCategory(newName, type);
+        for (Transaction transaction : transactions) {
+            if (type.equals("INCOME") && transaction instanceof Income
+                    && ((Income) transaction).getIncomeCategory().equals(currentName)) {
+                transaction.setCategory(category);
+            } else if (type.equals("EXPENSE") && transaction instanceof Expense
+                    && ((Expense) transaction).getExpenseCategory().equals(currentName)) {
+                transaction.setCategory(category);
+            }
+        }
+    }
+
+    /**
+     * Saves information of all categories to text file.
+     *
+     * @throws MoneyTrackerException If text file is not found or inaccessible.
+     */
+    public void saveCategories(CategoryList categories) throws MoneyTrackerException {
+        writeFile(categoriesFilePath, formatCategories(categories));
+    }
+
+    private static String formatCategories(CategoryList categories) throws MoneyTrackerException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < categories.getSize(); i++) {
+            String name = categories.getCategory(i).getName();
+            String type = categories.getCategory(i).getType();
+            if (type.equals("INCOME")) {
+                content.append("I" + " | ").append(name).append(System.lineSeparator());
+            } else if (type.equals("EXPENSE")) {
+                content.append("E" + " | ").append(name).append(System.lineSeparator());
+            } else {
+                throw new MoneyTrackerException("I have problem saving to the file.");
+            }
+        }
+        return content.toString();
+    }
+
     /**
      * Saves information of <code>Budget</code> object to text file.
      *
      * @throws MoneyTrackerException If text file is not found or inaccessible.
      */
     public void saveBudget(Budget budget) throws MoneyTrackerException {
-        FileWriter fw;
+        writeFile(budgetFilePath, String.valueOf(budget.getAmount()));
+    }
+
+    /**
+     * Gets the minimum number of transactions covered by a report before they are aggregated by several threads.
+     */
+    public int getReportParallelThreshold() {
+        return settings.getReportParallelThreshold();
+    }
+
+    /**
+     * Gets whether changes to several save files are saved together as one snapshot.
+     */
+    public boolean isSnapshotEnabled() {
+        return settings.isSnapshotEnabled();
+    }
+
+    /**
+     * Saves the transactions, the categories and the budget together as one snapshot, so that after a crash
+     * either all of them or none of them are replaced. Changes queued in write-behind mode are written first.
+     *
+     * @param transactions List of <code>Transaction</code> objects.
+     * @param categories List of <code>Category</code> objects.
+     * @param budget <code>Budget</code> object.
+     * @throws MoneyTrackerException If text file is not found or inaccessible.
+     */
+    public void saveSnapshot(TransactionList transactions, CategoryList categories, Budget budget)
+            throws MoneyTrackerException {
+        flush();
+        awaitCompaction();
         try {
-            fw = new FileWriter(budgetFilePath);
-            fw.write(String.valueOf(budget.getAmount()));
-            fw.close();
+            writeSnapshot(transactions.getTransactions(), formatCategories(categories),
+                    String.valueOf(budget.getAmount()), transactionsGeneration + 1);
+        } catch (IOException e) {
+            throw new MoneyTrackerException("I have problem saving to the file.");
+        }
+    }
+
+    /**
+     * Writes a snapshot of all save files. Each save file is first written next to its current version, and
+     * the snapshot is committed by writing the manifest file, after which the new save files are moved into place
+     * and a new journal is started for the generation of the snapshot.
+     */
+    private void writeSnapshot(List<Transaction> transactions, String categories, String budget, long generation)
+            throws IOException, MoneyTrackerException {
+        ledgerFormat.write(ledgerFilePath + SNAPSHOT_SUFFIX, transactions, generation);
+        backUpLedgerIfNeeded();
+        writeSnapshotFile(categoriesFilePath, categories);
+        writeSnapshotFile(budgetFilePath, budget);
+        AtomicFile.write(snapshotManifestFilePath.toString(), generation + System.lineSeparator());
+        recoverSnapshot();
+        transactionsGeneration = generation;
+        transactionsFileSize = new File(ledgerFilePath).length();
+        journal.reset(transactionsGeneration);
+        compactingJournal.delete();
+    }
+
+    private static void writeSnapshotFile(String filePath, String content) throws IOException {
+        SaveFileBuffer buffer = new SaveFileBuffer();
+        buffer.writeText(content);
+        buffer.saveTo(filePath + SNAPSHOT_SUFFIX);
+    }
+
+    /**
+     * Completes a snapshot after a crash during a save. If the manifest file of the snapshot was written,
+     * the snapshot is committed and its remaining save files are moved into place. Otherwise, the save files
+     * of the unfinished snapshot are deleted and the previous save files are kept.
+     */
+    private void recoverSnapshot() throws IOException {
+        boolean isCommitted = Files.exists(snapshotManifestFilePath);
+        for (String filePath : new String[] {ledgerFilePath, categoriesFilePath, budgetFilePath}) {
+            Path snapshotFile = Paths.get(filePath + SNAPSHOT_SUFFIX);
+            if (!Files.exists(snapshotFile)) {
+                continue;
+            }
+            if (isCommitted) {
+                AtomicFile.commit(snapshotFile, Paths.get(filePath));
+            } else {
+                Files.delete(snapshotFile);
+            }
+        }
+        Files.deleteIfExists(snapshotManifestFilePath);
+    }
+
+    private void writeFile(String filePath, String content) throws MoneyTrackerException {
+        if (writer != null) {
+            writer.submitFile(filePath, content);
+            return;
+        }
+        try {
+            AtomicFile.write(filePath, content);
         } catch (IOException e) {
             throw new MoneyTrackerException("I have problem saving to the file.");
         }
@@ -159,6 +897,7 @@ public class Storage {
     public Double loadBudget(String filePath) throws MoneyTrackerException {
         ArrayList<String> lines;
         try {
+            recoverSnapshot();
             lines = getLines(filePath);
         } catch (IOException e) {
             throw new MoneyTrackerException("I have problem reading the budget save file.");
@@ -178,9 +917,37 @@ public class Storage {
      * @throws MoneyTrackerException If text file is not found or inaccessible.
      */
     public void clearAllData() throws MoneyTrackerException {
-        clearDataInFile(transactionsFilePath);
+        flush();
+        awaitCompaction();
+        try {
+            rollupFile.delete();
+        } catch (IOException e) {
+            throw new MoneyTrackerException("I have problem clearing data in this file: " + rollupFile.getFilePath());
+        }
+        if (settings.isSnapshotEnabled()) {
+            clearAllDataInSnapshot();
+            return;
+        }
         clearDataInFile(categoriesFilePath);
         clearDataInFile(budgetFilePath);
+        try {
+            journal.delete();
+            compactingJournal.delete();
+            writeLedger(new ArrayList<>(), 0);
+            Files.deleteIfExists(Paths.get(getOtherLedgerFormat().getFilePath(transactionsFilePath)));
+        } catch (IOException e) {
+            throw new MoneyTrackerException("I have problem clearing data in this file: " + ledgerFilePath);
+        }
+        transactionsGeneration = 0;
+    }
+
+    private void clearAllDataInSnapshot() throws MoneyTrackerException {
+        try {
+            writeSnapshot(new ArrayList<>(), "", "0.0", 0);
+            Files.deleteIfExists(Paths.get(getOtherLedgerFormat().getFilePath(transactionsFilePath)));
+        } catch (IOException e) {
+            throw new MoneyTrackerException("I have problem clearing data in this file: " + ledgerFilePath);
+        }
     }
 
     /**
@@ -190,11 +957,7 @@ public class Storage {
      */
     private void clearDataInFile(String filePath) throws MoneyTrackerException {
         try {
-            FileWriter fw = new FileWriter(filePath);
-            if (filePath.equals(budgetFilePath)) {
-                fw.write("0.0");
-            }
-            fw.close();
+            AtomicFile.write(filePath, filePath.equals(budgetFilePath) ? "0.0" : "");
         } catch (IOException e) {
             throw new MoneyTrackerException("I have problem clearing data in this file: " + filePath);
         }
@@ -203,7 +966,7 @@ public class Storage {
     private ArrayList<String> getLines(String filePath) throws IOException {
         File f = new File(filePath);
         ArrayList<String> result = new ArrayList<>();
-        Scanner s = new Scanner(f);
+        Scanner s = new Scanner(f, StandardCharsets.UTF_8);
         while (s.hasNext()) {
             result.add(s.nextLine());
         }
@@ -211,14 +974,13 @@ public class Storage {
     }
 
     private Category createCategory(String line) throws MoneyTrackerException {
-        String type = "";
-        String name = "";
+        String type;
+        String name;
         try {
             type = line.split("\\|")[0].trim();
             name = line.split("\\|")[1].trim();
         } catch (ArrayIndexOutOfBoundsException e) {
-            logger.log(Level.SEVERE, "Error reading categories.txt", e);
-            System.exit(1);
+            throw new MoneyTrackerException("There is invalid data in the categories save file.");
         }
         if (type.equals("I")) {
             return new Category(name, "INCOME");
@@ -229,30 +991,9 @@ public class Storage {
         }
     }
 
-    private Transaction createTransaction(String line) throws MoneyTrackerException {
-        String transactionType = "";
-        String amount = "";
-        String date = "";
-        String description = "";
-        String category = "";
-        try {
-            transactionType = line.split("\\|")[0].trim();
-            amount = line.split("\\|")[1].trim();
-            date = line.split("\\|")[2].trim();
-            description = line.split("\\|")[3].trim();
-            category = line.split("\\|")[4].trim();
-        } catch (ArrayIndexOutOfBoundsException e) {
-            logger.log(Level.SEVERE, "Error reading transactions.txt", e);
-            System.exit(1);
-        }
-        switch (transactionType) {
-        case "I":
-            return new Income(Double.parseDouble(amount), description, date, category);
-        case "E":
-            return new Expense(Double.parseDouble(amount), description, date, category);
-        default:
-            throw new MoneyTrackerException("There is invalid data in the save file.");
-        }
+    private static Path getDataDirectory(String transactionsFilePath) {
+        Path parent = Paths.get(transactionsFilePath).toAbsolutePath().getParent();
+        return parent == null ? Paths.get("") : parent;
     }
 
     /**
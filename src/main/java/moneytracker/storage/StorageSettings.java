@@ -0,0 +1,210 @@
+package moneytracker.storage;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Represents the storage settings of a data directory. The settings are read from an optional
+ * <code>storage.properties</code> file in the data directory, and default values are used for
+ * settings that are missing or invalid.
+ */
+public class StorageSettings {
+    public static final String SETTINGS_FILE_NAME = "storage.properties";
+    private static final int MAX_LOAD_PARALLELISM = 256;
+    private static final Logger logger = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+    private final Properties properties;
+
+    /**
+     * Initializes a <code>StorageSettings</code> object with default values.
+     */
+    public StorageSettings() {
+        this(new Properties());
+    }
+
+    /**
+     * Initializes a <code>StorageSettings</code> object.
+     *
+     * @param properties Settings read from the settings file.
+     */
+    public StorageSettings(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Loads the storage settings of a data directory.
+     *
+     * @param dataDirectory Directory containing the save files.
+     * @return Settings of the data directory, or default settings if there is no settings file.
+     */
+    public static StorageSettings load(Path dataDirectory) {
+        Properties properties = new Properties();
+        Path settingsFile = dataDirectory.resolve(SETTINGS_FILE_NAME);
+        if (Files.exists(settingsFile)) {
+            try (Reader reader = new FileReader(settingsFile.toFile())) {
+                properties.load(reader);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Error reading " + SETTINGS_FILE_NAME + ", using default settings", e);
+            }
+        }
+        return new StorageSettings(properties);
+    }
+
+    /**
+     * Sets the value of a setting.
+     *
+     * @param key Name of the setting.
+     * @param value Value of the setting.
+     */
+    public void set(String key, String value) {
+        properties.setProperty(key, value);
+    }
+
+    /**
+     * Gets whether transaction changes are appended to a journal file instead of rewriting the save file.
+     */
+    public boolean isJournalEnabled() {
+        return getBoolean("journal", true);
+    }
+
+    /**
+     * Gets whether changes are queued and written by a background thread instead of being saved by each command.
+     */
+    public boolean isWriteBehindEnabled() {
+        return getBoolean("writeBehind", false);
+    }
+
+    /**
+     * Gets whether transactions are kept in memory column by column instead of as separate objects.
+     */
+    public boolean isColumnarEnabled() {
+        return getBoolean("columnar", false);
+    }
+
+    /**
+     * Gets whether transactions are kept outside the Java heap in a file mapped into memory, which can be reopened
+     * without reading the save files. This takes precedence over the columnar setting.
+     */
+    public boolean isOffHeapEnabled() {
+        return getBoolean("offHeap", false);
+    }
+
+    /**
+     * Gets whether changes to several save files are committed together as one snapshot, so that a crash
+     * never leaves the save files from different generations behind.
+     */
+    public boolean isSnapshotEnabled() {
+        return getBoolean("snapshot", false);
+    }
+
+    /**
+     * Gets the maximum time in milliseconds that a queued change waits before it is written in write-behind mode.
+     */
+    public long getWriteBehindMaxStaleness() {
+        return Math.max(0, getLong("writeBehind.maxStaleness", 1000));
+    }
+
+    /**
+     * Gets the name of the format of the transactions save file, either text or binary.
+     */
+    public String getLedgerFormat() {
+        return properties.getProperty("format", LedgerFormat.TEXT);
+    }
+
+    /**
+     * Gets whether large save files are read through a memory mapping instead of a stream.
+     */
+    public boolean isMemoryMappedLoadEnabled() {
+        return getBoolean("load.mmap", true);
+    }
+
+    /**
+     * Gets the minimum size of the save file in bytes before it is read through a memory mapping.
+     */
+    public long getMemoryMappedLoadThreshold() {
+        return getLong("load.mmapThreshold", 16 * 1024 * 1024);
+    }
+
+    /**
+     * Gets the number of threads used to parse a memory mapped save file.
+     */
+    public int getLoadParallelism() {
+        long parallelism = getLong("load.parallelism", Runtime.getRuntime().availableProcessors());
+        return (int) Math.max(1, Math.min(parallelism, MAX_LOAD_PARALLELISM));
+    }
+
+    /**
+     * Gets whether transactions with the same description share one string when the save files are loaded.
+     */
+    public boolean isDescriptionInterningEnabled() {
+        return getBoolean("load.internDescriptions", true);
+    }
+
+    /**
+     * Gets the ratio of journal size to save file size above which the journal is compacted.
+     */
+    public double getCompactionRatio() {
+        return getDouble("compaction.ratio", 0.5);
+    }
+
+    /**
+     * Gets the minimum size of the journal file in bytes before it is compacted.
+     */
+    public long getCompactionMinJournalSize() {
+        return getLong("compaction.minJournalSize", 64 * 1024);
+    }
+
+    /**
+     * Gets the delay in milliseconds before a failed compaction of the journal is first retried. The delay
+     * doubles with each further failure.
+     */
+    public long getCompactionRetryDelay() {
+        return Math.max(0, getLong("compaction.retryDelay", 1000));
+    }
+
+    /**
+     * Gets the minimum number of transactions covered by a report before they are aggregated by several threads.
+     */
+    public int getReportParallelThreshold() {
+        return (int) Math.max(1, Math.min(getLong("report.parallelThreshold", 100_000), Integer.MAX_VALUE));
+    }
+
+    private double getDouble(String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "Invalid value for setting " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    private long getLong(String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "Invalid value for setting " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    private boolean getBoolean(String key, boolean defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+}
@@ -0,0 +1,253 @@
+package moneytracker.storage;
+
+import moneytracker.exception.MoneyTrackerException;
+import moneytracker.transaction.Transaction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the changes of a <code>Storage</code> object behind the commands that make them. Commands only queue
+ * their changes, and a writer thread commits all changes queued within the maximum staleness together, so that a
+ * burst of commands costs a single save. Queued changes are coalesced: a full save of the transactions replaces
+ * the journal records queued before it, and only the latest content of the categories and budget files is written.
+ */
+public class StorageWriter implements Runnable {
+    private static final Logger logger = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+    private static final long NO_PENDING_TIME = 0;
+    private final Storage storage;
+    private final long maxStalenessMillis;
+    private List<Transaction> pendingTransactions;
+    private final ArrayList<String> pendingRecords = new ArrayList<>();
+    private final LinkedHashMap<String, String> pendingFiles = new LinkedHashMap<>();
+    private long firstPendingTime = NO_PENDING_TIME;
+    private long submittedCount = 0;
+    private long committedCount = 0;
+    private boolean isFlushRequested = false;
+    private boolean isCommitFailed = false;
+    private MoneyTrackerException error;
+    private Thread thread;
+
+    /**
+     * Initializes a <code>StorageWriter</code> object.
+     *
+     * @param storage <code>Storage</code> object that commits the changes.
+     * @param maxStalenessMillis Maximum time in milliseconds that a change is queued before it is committed.
+     */
+    public StorageWriter(Storage storage, long maxStalenessMillis) {
+        this.storage = storage;
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    /**
+     * Queues a full save of the transactions.
+     *
+     * @param transactions Copy of the list of transactions, which is not changed afterwards.
+     * @throws MoneyTrackerException If an earlier commit has failed.
+     */
+    public synchronized void submitTransactions(List<Transaction> transactions) throws MoneyTrackerException {
+        pendingTransactions = transactions;
+        pendingRecords.clear();
+        markPending();
+    }
+
+    /**
+     * Writes a full save of the transactions in the calling thread, after the queued changes are committed. This
+     * is used for transactions that are too large to be copied for the writer thread, such as transactions kept
+     * off the heap. Journal records queued before the save are replaced by it, and the error of an earlier commit
+     * is not reported, since the full save replaces the changes that it failed to write.
+     *
+     * @param transactions List of transactions, which is not changed until the save is written.
+     * @throws MoneyTrackerException If the transactions cannot be written.
+     */
+    public synchronized void writeTransactions(List<Transaction> transactions) throws MoneyTrackerException {
+        pendingTransactions = null;
+        pendingRecords.clear();
+        try {
+            flush();
+        } catch (MoneyTrackerException e) {
+            logger.log(Level.FINE, "Replacing the changes of a failed commit with a full save");
+        }
+        try {
+            storage.writeTransactions(transactions);
+        } catch (MoneyTrackerException e) {
+            isCommitFailed = true;
+            throw e;
+        }
+        isCommitFailed = false;
+    }
+
+    /**
+     * Queues a record to be appended to the transactions journal.
+     *
+     * @param record Journal record.
+     * @throws MoneyTrackerException If an earlier commit has failed.
+     */
+    public synchronized void submitRecord(String record) throws MoneyTrackerException {
+        pendingRecords.add(record);
+        markPending();
+    }
+
+    /**
+     * Queues the new content of a text save file.
+     *
+     * @param filePath Path of the save file.
+     * @param content New content of the save file.
+     * @throws MoneyTrackerException If an earlier commit has failed.
+     */
+    public synchronized void submitFile(String filePath, String content) throws MoneyTrackerException {
+        pendingFiles.put(filePath, content);
+        markPending();
+    }
+
+    /**
+     * Gets whether a full save of the transactions is queued.
+     */
+    public synchronized boolean hasPendingTransactions() {
+        return pendingTransactions != null;
+    }
+
+    /**
+     * Gets whether a commit has failed since the last full save of the transactions, in which case journal records
+     * may be missing and the next change of the transactions has to be saved in full.
+     */
+    public synchronized boolean isCommitFailed() {
+        return isCommitFailed;
+    }
+
+    /**
+     * Commits all queued changes and waits until they are written.
+     *
+     * @throws MoneyTrackerException If the changes cannot be written.
+     */
+    public synchronized void flush() throws MoneyTrackerException {
+        long targetCount = submittedCount;
+        isFlushRequested = true;
+        notifyAll();
+        try {
+            while (committedCount < targetCount && thread != null && thread.isAlive()) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MoneyTrackerException("I have problem saving to the file.");
+        }
+        throwError();
+    }
+
+    /**
+     * Wakes up the writer thread for a queued change. An error of an earlier commit is reported to the caller
+     * after the change is queued, so that the change is still written by a later commit.
+     */
+    private void markPending() throws MoneyTrackerException {
+        if (firstPendingTime == NO_PENDING_TIME) {
+            firstPendingTime = System.currentTimeMillis();
+        }
+        submittedCount++;
+        if (thread == null) {
+            thread = new Thread(this, "storage-writer");
+            thread.setDaemon(true);
+            thread.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(this::flushOnShutdown));
+        }
+        notifyAll();
+        throwError();
+    }
+
+    private void throwError() throws MoneyTrackerException {
+        if (error != null) {
+            MoneyTrackerException e = error;
+            error = null;
+            throw e;
+        }
+    }
+
+    private boolean hasPendingChanges() {
+        return pendingTransactions != null || !pendingRecords.isEmpty() || !pendingFiles.isEmpty();
+    }
+
+    /**
+     * Commits the queued changes in groups, waiting for further changes until the oldest queued change
+     * reaches the maximum staleness or a flush is requested.
+     */
+    @Override
+    public void run() {
+        while (true) {
+            List<Transaction> transactions;
+            ArrayList<String> records;
+            LinkedHashMap<String, String> files;
+            long count;
+            synchronized (this) {
+                try {
+                    waitForCommit();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                transactions = pendingTransactions;
+                records = new ArrayList<>(pendingRecords);
+                files = new LinkedHashMap<>(pendingFiles);
+                count = submittedCount;
+                pendingTransactions = null;
+                pendingRecords.clear();
+                pendingFiles.clear();
+                firstPendingTime = NO_PENDING_TIME;
+                isFlushRequested = false;
+            }
+            MoneyTrackerException commitError = commit(transactions, records, files);
+            synchronized (this) {
+                if (commitError != null) {
+                    error = commitError;
+                    isCommitFailed = true;
+                } else if (transactions != null) {
+                    isCommitFailed = false;
+                }
+                committedCount = count;
+                notifyAll();
+            }
+        }
+    }
+
+    private void waitForCommit() throws InterruptedException {
+        while (!hasPendingChanges() && !isFlushRequested) {
+            wait();
+        }
+        long deadline = firstPendingTime + maxStalenessMillis;
+        long now = System.currentTimeMillis();
+        while (!isFlushRequested && now < deadline) {
+            wait(deadline - now);
+            now = System.currentTimeMillis();
+        }
+    }
+
+    private MoneyTrackerException commit(List<Transaction> transactions, ArrayList<String> records,
+                                         LinkedHashMap<String, String> files) {
+        try {
+            if (transactions != null) {
+                storage.writeTransactions(transactions);
+            }
+            if (!records.isEmpty()) {
+                storage.appendRecords(records);
+            }
+            for (Map.Entry<String, String> file : files.entrySet()) {
+                AtomicFile.write(file.getKey(), file.getValue());
+            }
+            return null;
+        } catch (MoneyTrackerException | IOException e) {
+            logger.log(Level.WARNING, "Error writing queued changes to the save files", e);
+            return new MoneyTrackerException("I have problem saving to the file.");
+        }
+    }
+
+    private void flushOnShutdown() {
+        try {
+            flush();
+        } catch (MoneyTrackerException e) {
+            logger.log(Level.WARNING, "Error writing queued changes on shutdown");
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package moneytracker.storage;
+
+import moneytracker.exception.MoneyTrackerException;
+import moneytracker.transaction.Expense;
+import moneytracker.transaction.Income;
+import moneytracker.transaction.Transaction;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Represents the text format of the transactions save file. Each line holds one transaction
+ * with its fields separated by " | ", after an optional header line holding the generation and the
+ * number of transactions.
+ */
+public class TextLedgerFormat extends LedgerFormat {
+    private static final String RECORD_COUNT_PREFIX = " count ";
+    private static final int NO_RECORD_COUNT = -1;
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Initializes a <code>TextLedgerFormat</code> object.
+     *
+     * @param settings Storage settings of the data directory.
+     */
+    public TextLedgerFormat(StorageSettings settings) {
+        super(settings);
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".txt";
+    }
+
+    /**
+     * Gets the path of the text save file, which is the transactions save file itself.
+     */
+    @Override
+    public String getFilePath(String transactionsFilePath) {
+        return transactionsFilePath;
+    }
+
+    @Override
+    public long read(String filePath, List<Transaction> transactions, RecordQuarantine quarantine,
+                     LoadDictionary dictionary) throws IOException, MoneyTrackerException {
+        if (isMemoryMapped(Files.size(Paths.get(filePath)))) {
+            return readMapped(filePath, transactions, quarantine, dictionary);
+        }
+        long generation = 0;
+        int recordCount = NO_RECORD_COUNT;
+        RecordReader reader = new RecordReader(filePath, false, quarantine, dictionary);
+        try (Scanner s = new Scanner(new File(filePath), StandardCharsets.UTF_8)) {
+            while (s.hasNextLine()) {
+                String line = s.nextLine();
+                if (TransactionJournal.isHeader(line)) {
+                    generation = TransactionJournal.parseGeneration(line);
+                    recordCount = parseRecordCount(line);
+                    reader = new RecordReader(filePath, RecordChecksum.isDeclaredBy(line), quarantine, dictionary);
+                } else if (!(line.trim().isEmpty())) {
+                    reader.read(line, transactions);
+                }
+            }
+        }
+        checkRecordCount(filePath, recordCount, reader.getRecordCount(), quarantine);
+        return generation;
+    }
+
+    /**
+     * Reads all transactions from a memory mapped save file, decoding each line directly from the
+     * mapped bytes instead of reading the file through a <code>Scanner</code>. Large save files are
+     * split into chunks that are parsed in parallel.
+     */
+    private long readMapped(String filePath, List<Transaction> transactions, RecordQuarantine quarantine,
+                            LoadDictionary dictionary) throws IOException, MoneyTrackerException {
+        ByteBuffer buffer = map(filePath);
+        long generation = 0;
+        int recordCount = NO_RECORD_COUNT;
+        boolean hasChecksums = false;
+        int bodyStart = 0;
+        if (buffer.limit() > 0 && buffer.get(0) == '#') {
+            while (bodyStart < buffer.limit() && buffer.get(bodyStart) != '\n') {
+                bodyStart++;
+            }
+            String header = StandardCharsets.UTF_8.decode(buffer.duplicate().limit(bodyStart)).toString().trim();
+            generation = TransactionJournal.parseGeneration(header);
+            recordCount = parseRecordCount(header);
+            hasChecksums = RecordChecksum.isDeclaredBy(header);
+        }
+        int[] chunkBounds = getChunkBounds(buffer, bodyStart, settings.getLoadParallelism());
+        RecordReader[] readers = new RecordReader[chunkBounds.length - 1];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new RecordReader(filePath, hasChecksums, quarantine, dictionary);
+        }
+        if (readers.length == 1) {
+            readChunk(buffer, chunkBounds[0], chunkBounds[1], readers[0], transactions);
+        } else {
+            readChunksInParallel(buffer, chunkBounds, readers, transactions);
+        }
+        int readCount = 0;
+        for (RecordReader reader : readers) {
+            readCount += reader.getRecordCount();
+        }
+        checkRecordCount(filePath, recordCount, readCount, quarantine);
+        return generation;
+    }
+
+    /**
+     * Splits the lines of a save file after a given position into chunks of at least <code>MIN_CHUNK_SIZE</code>
+     * bytes that start at the beginning of a line, so that no line is split between two chunks.
+     *
+     * @return Start of each chunk, followed by the end of the last chunk.
+     */
+    private static int[] getChunkBounds(ByteBuffer buffer, int start, int parallelism) {
+        int limit = buffer.limit();
+        int chunkCount = Math.max(1, Math.min(parallelism, (limit - start) / MIN_CHUNK_SIZE));
+        int[] chunkBounds = new int[chunkCount + 1];
+        chunkBounds[0] = start;
+        for (int i = 1; i < chunkCount; i++) {
+            int bound = Math.max(chunkBounds[i - 1], start + (int) ((long) (limit - start) * i / chunkCount));
+            while (bound < limit && bound > start && buffer.get(bound - 1) != '\n') {
+                bound++;
+            }
+            chunkBounds[i] = bound;
+        }
+        chunkBounds[chunkCount] = limit;
+        return chunkBounds;
+    }
+
+    /**
+     * Parses the chunks of a save file on a fork-join pool and adds the transactions of each chunk
+     * in the order of the chunks, so that the transactions keep the order of the save file.
+     */
+    private void readChunksInParallel(ByteBuffer buffer, int[] chunkBounds, RecordReader[] readers,
+                                      List<Transaction> transactions) throws IOException, MoneyTrackerException {
+        ForkJoinPool pool = new ForkJoinPool(chunkBounds.length - 1);
+        try {
+            ArrayList<ForkJoinTask<ArrayList<Transaction>>> tasks = new ArrayList<>();
+            for (int i = 0; i < readers.length; i++) {
+                int start = chunkBounds[i];
+                int end = chunkBounds[i + 1];
+                RecordReader reader = readers[i];
+                tasks.add(pool.submit(() -> {
+                    ArrayList<Transaction> chunk = new ArrayList<>();
+                    readChunk(buffer, start, end, reader, chunk);
+                    return chunk;
+                }));
+            }
+            for (ForkJoinTask<ArrayList<Transaction>> task : tasks) {
+                transactions.addAll(task.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MoneyTrackerException) {
+                throw (MoneyTrackerException) e.getCause();
+            }
+            throw new IOException("Error parsing the transactions save file", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing the transactions save file", e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Reads the transactions of the lines between two positions of a memory mapped save file. Each line is
+     * decoded straight from its range of the mapped bytes into a character buffer that is reused for the
+     * whole chunk. A line decodes to at most as many characters as it has bytes, so the buffer never overflows.
+     */
+    private static void readChunk(ByteBuffer buffer, int start, int end, RecordReader reader,
+                                  List<Transaction> transactions) throws MoneyTrackerException {
+        ByteBuffer line = buffer.duplicate();
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer text = CharBuffer.allocate(256);
+        int lineStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && buffer.get(i) != '\n') {
+                continue;
+            }
+            int lineEnd = i > lineStart && buffer.get(i - 1) == '\r' ? i - 1 : i;
+            if (lineEnd - lineStart > text.capacity()) {
+                text = CharBuffer.allocate(Math.max(lineEnd - lineStart, text.capacity() * 2));
+            }
+            line.limit(lineEnd).position(lineStart);
+            text.clear();
+            decoder.reset();
+            decoder.decode(line, text, true);
+            decoder.flush(text);
+            readLine(text.flip(), reader, transactions);
+            lineStart = i + 1;
+        }
+    }
+
+    /**
+     * Reads the transaction of a decoded line, skipping header and blank lines.
+     */
+    private static void readLine(CharBuffer text, RecordReader reader, List<Transaction> transactions)
+            throws MoneyTrackerException {
+        if (!text.hasRemaining() || text.get(0) == '#') {
+            return;
+        }
+        String line = text.toString();
+        if (!line.trim().isEmpty()) {
+            reader.read(line, transactions);
+        }
+    }
+
+    /**
+     * Writes all transactions to a save file and flushes it to the disk. The header holds the number of
+     * transactions, so that a save file that was cut off at the end of a line is still detected, and each
+     * line ends with the checksum of the transaction.
+     */
+    @Override
+    public void write(String filePath, List<Transaction> transactions, long generation)
+            throws IOException, MoneyTrackerException {
+        try (SaveFileStream out = new SaveFileStream(filePath)) {
+            out.writeText(createHeader(generation, transactions.size()) + System.lineSeparator());
+            for (Transaction transaction : transactions) {
+                out.writeText(RecordChecksum.append(formatTransaction(transaction)) + System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * Creates the header line of a save file, which declares that the records have checksums.
+     *
+     * @param generation Generation of the save file.
+     * @param recordCount Number of transactions in the save file.
+     * @return Header line without line separator.
+     */
+    public static String createHeader(long generation, int recordCount) {
+        return TransactionJournal.createHeader(generation) + RECORD_COUNT_PREFIX + recordCount
+                + RecordChecksum.HEADER_FLAG;
+    }
+
+    private static int parseRecordCount(String header) {
+        int index = header.indexOf(RECORD_COUNT_PREFIX);
+        if (index < 0) {
+            return NO_RECORD_COUNT;
+        }
+        try {
+            return Integer.parseInt(header.substring(index + RECORD_COUNT_PREFIX.length()).trim().split(" ")[0]);
+        } catch (NumberFormatException e) {
+            return NO_RECORD_COUNT;
+        }
+    }
+
+    /**
+     * Checks that the number of records read matches the number declared in the header. Records that are
+     * missing from a save file that was cut off are noted in the quarantine, and the records that were read
+     * are kept.
+     */
+    private static void checkRecordCount(String filePath, int recordCount, int readCount, RecordQuarantine quarantine)
+            throws MoneyTrackerException {
+        if (recordCount != NO_RECORD_COUNT && recordCount != readCount) {
+            skipRecord(quarantine, filePath, RECORD_COUNT_PREFIX.trim() + " " + recordCount,
+                    "only " + readCount + " of " + recordCount + " records were found");
+        }
+    }
+
+    /**
+     * Formats a <code>Transaction</code> as a line of the text save file.
+     *
+     * @param transaction <code>Transaction</code> object.
+     * @return Line without line separator.
+     * @throws MoneyTrackerException If the type of the transaction is invalid.
+     */
+    public static String formatTransaction(Transaction transaction) throws MoneyTrackerException {
+        String description = transaction.getDescription();
+        String amount = transaction.getAmount();
+        String date = transaction.getDate();
+        String line = " | " + amount + " | " + date + " | " + description;
+        if (transaction instanceof Income) {
+            return "I" + line + " | " + ((Income) transaction).getIncomeCategory();
+        } else if (transaction instanceof Expense) {
+            return "E" + line + " | " + ((Expense) transaction).getExpenseCategory();
+        } else {
+            throw new MoneyTrackerException("I have problem saving to the file.");
+        }
+    }
+
+    /**
+     * Parses a line of the text save file into a <code>Transaction</code>.
+     *
+     * @param line Line of the text save file.
+     * @return <code>Transaction</code> object.
+     * @throws MoneyTrackerException If there is invalid data in the line.
+     */
+    public static Transaction parseTransaction(String line) throws MoneyTrackerException {
+        String transactionType;
+        String amount;
+        String date;
+        String description;
+        String category;
+        try {
+            transactionType = line.split("\\|")[0].trim();
+            amount = line.split("\\|")[1].trim();
+            date = line.split("\\|")[2].trim();
+            description = line.split("\\|")[3].trim();
+            category = line.split("\\|")[4].trim();
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new MoneyTrackerException("There is invalid data in the save file.");
+        }
+        switch (transactionType) {
+        case "I":
+            return new Income(Double.parseDouble(amount), description, date, category);
+        case "E":
+            return new Expense(Double.parseDouble(amount), description, date, category);
+        default:
+            throw new MoneyTrackerException("There is invalid data in the save file.");
+        }
+    }
+
+    /**
+     * Reads the records of one part of a save file, verifying their checksums if the file has them and
+     * skipping damaged records.
+     */
+    private static class RecordReader {
+        private final String filePath;
+        private final boolean hasChecksums;
+        private final RecordQuarantine quarantine;
+        private final LoadDictionary dictionary;
+        private int recordCount = 0;
+
+        private RecordReader(String filePath, boolean hasChecksums, RecordQuarantine quarantine,
+                             LoadDictionary dictionary) {
+            this.filePath = filePath;
+            this.hasChecksums = hasChecksums;
+            this.quarantine = quarantine;
+            this.dictionary = dictionary;
+        }
+
+        private void read(String line, List<Transaction> transactions) throws MoneyTrackerException {
+            recordCount++;
+            String record = hasChecksums ? RecordChecksum.strip(line) : line;
+            if (record == null) {
+                skipRecord(quarantine, filePath, line, "checksum mismatch");
+                return;
+            }
+            try {
+                transactions.add(TextRecordDecoder.decode(record, dictionary));
+            } catch (MoneyTrackerException | NumberFormatException e) {
+                skipRecord(quarantine, filePath, line, String.valueOf(e.getMessage()));
+            }
+        }
+
+        private int getRecordCount() {
+            return recordCount;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package moneytracker.storage;
+
+import moneytracker.exception.MoneyTrackerException;
+import moneytracker.transaction.Expense;
+import moneytracker.transaction.Income;
+import moneytracker.transaction.Transaction;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Decodes lines of the text save file into transactions. The decoder locates the field delimiters of
+ * a line in a single scan and parses the amount in cents and the date from the characters of the line, so only
+ * the description and the category are copied into new strings, which are then replaced by the shared
+ * ones of a <code>LoadDictionary</code>. Lines that the decoder does not
+ * recognise are passed to <code>TextLedgerFormat.parseTransaction</code>, which keeps the behaviour
+ * for unusual lines unchanged.
+ */
+public class TextRecordDecoder {
+    private static final char DELIMITER = '|';
+    private static final int FIELD_COUNT = 5;
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final int CENT_DIGITS = 2;
+    private static final long NO_AMOUNT = -1;
+
+    /**
+     * Decodes a line of the text save file into a <code>Transaction</code>.
+     *
+     * @param line Line of the text save file.
+     * @return <code>Transaction</code> object.
+     * @throws MoneyTrackerException If there is invalid data in the line.
+     */
+    public static Transaction decode(String line) throws MoneyTrackerException {
+        return decode(line, new LoadDictionary(false));
+    }
+
+    /**
+     * Decodes a line of the text save file into a <code>Transaction</code> whose category and description
+     * are shared through a dictionary.
+     *
+     * @param line Line of the text save file.
+     * @param dictionary Dictionary of the categories and descriptions read so far.
+     * @return <code>Transaction</code> object.
+     * @throws MoneyTrackerException If there is invalid data in the line.
+     */
+    public static Transaction decode(String line, LoadDictionary dictionary) throws MoneyTrackerException {
+        int[] starts = new int[FIELD_COUNT];
+        int[] ends = new int[FIELD_COUNT];
+        int field = 0;
+        int length = line.length();
+        starts[0] = 0;
+        for (int i = 0; i < length && field < FIELD_COUNT; i++) {
+            if (line.charAt(i) == DELIMITER) {
+                ends[field] = i;
+                field++;
+                if (field < FIELD_COUNT) {
+                    starts[field] = i + 1;
+                }
+            }
+        }
+        if (field < FIELD_COUNT - 1) {
+            return TextLedgerFormat.parseTransaction(line);
+        }
+        if (field == FIELD_COUNT - 1) {
+            ends[field] = length;
+        }
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            while (starts[i] < ends[i] && line.charAt(starts[i]) <= ' ') {
+                starts[i]++;
+            }
+            while (ends[i] > starts[i] && line.charAt(ends[i] - 1) <= ' ') {
+                ends[i]--;
+            }
+        }
+
+        long amountCents = parseAmountCents(line, starts[1], ends[1]);
+        LocalDate date = parseDate(line, starts[2], ends[2]);
+        if (ends[0] - starts[0] != 1 || amountCents == NO_AMOUNT || date == null || starts[4] == ends[4]) {
+            return TextLedgerFormat.parseTransaction(line);
+        }
+        String description = dictionary.getDescription(line.substring(starts[3], ends[3]));
+        String category = line.substring(starts[4], ends[4]);
+        switch (line.charAt(starts[0])) {
+        case 'I':
+            return new Income(amountCents, description, date, dictionary.getCategory(category, "INCOME"));
+        case 'E':
+            return new Expense(amountCents, description, date, dictionary.getCategory(category, "EXPENSE"));
+        default:
+            throw new MoneyTrackerException("There is invalid data in the save file.");
+        }
+    }
+
+    /**
+     * Parses an amount made of digits and an optional decimal point with at most two decimal places directly
+     * into cents, without going through a <code>double</code>. This gives the same number of cents as
+     * <code>Money.toCents(Double.parseDouble(amount))</code>, since an amount of whole cents is never rounded.
+     *
+     * @return Amount in cents, or <code>NO_AMOUNT</code> if the amount has to be parsed by
+     *         <code>Double.parseDouble</code>.
+     */
+    private static long parseAmountCents(String line, int start, int end) {
+        long cents = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c >= '0' && c <= '9') {
+                cents = cents * 10 + (c - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return NO_AMOUNT;
+            }
+        }
+        if (digits == 0 || digits > MAX_FAST_DIGITS || fractionDigits > CENT_DIGITS) {
+            return NO_AMOUNT;
+        }
+        for (int i = Math.max(fractionDigits, 0); i < CENT_DIGITS; i++) {
+            cents *= 10;
+        }
+        return cents;
+    }
+
+    /**
+     * Parses a date in yyyy-MM-dd format.
+     *
+     * @return Date, or <code>null</code> if the date has to be parsed by <code>LocalDate.parse</code>.
+     */
+    private static LocalDate parseDate(String line, int start, int end) {
+        if (end - start != 10 || line.charAt(start + 4) != '-' || line.charAt(start + 7) != '-') {
+            return null;
+        }
+        int year = parseDigits(line, start, start + 4);
+        int month = parseDigits(line, start + 5, start + 7);
+        int day = parseDigits(line, start + 8, start + 10);
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static int parseDigits(String line, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,287 @@
+package moneytracker.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Manages the journal file of the transactions save file. Instead of rewriting every transaction,
+ * each change is appended to the journal as a small record and replayed on top of the save file on load.
+ * The journal starts with a header holding the generation of the save file it applies to, so that a
+ * journal left behind by an older save file is never replayed twice.
+ */
+public class TransactionJournal {
+    public static final String ADD = "A";
+    public static final String UPDATE = "U";
+    public static final String DELETE = "D";
+    public static final String RENAME = "R";
+    private static final String SEPARATOR = " | ";
+    private static final String HEADER_PREFIX = "# generation ";
+    private final String filePath;
+    private volatile boolean isReady = false;
+    private long generation = 0;
+    private long size = 0;
+
+    /**
+     * Initializes a <code>TransactionJournal</code> object.
+     *
+     * @param filePath Path of the journal file.
+     */
+    public TransactionJournal(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Gets the path of the journal file that belongs to a transactions save file.
+     *
+     * @param transactionsFilePath Path of the transactions save file.
+     * @return Path of the journal file.
+     */
+    public static String getJournalFilePath(String transactionsFilePath) {
+        Path path = Paths.get(transactionsFilePath);
+        String fileName = path.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        if (extensionIndex > 0) {
+            fileName = fileName.substring(0, extensionIndex);
+        }
+        return path.resolveSibling(fileName + ".journal").toString();
+    }
+
+    /**
+     * Creates the header line for a file of a given generation.
+     *
+     * @param generation Generation of the save file.
+     * @return Header line without line separator.
+     */
+    public static String createHeader(long generation) {
+        return HEADER_PREFIX + generation;
+    }
+
+    /**
+     * Checks whether a line is a header line.
+     *
+     * @param line Line from a save or journal file.
+     */
+    public static boolean isHeader(String line) {
+        return line.startsWith("#");
+    }
+
+    /**
+     * Gets the generation from a header line.
+     *
+     * @param line Header line.
+     * @return Generation in the header, or 0 if the header has no generation.
+     */
+    public static long parseGeneration(String line) {
+        if (!line.startsWith(HEADER_PREFIX)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(line.substring(HEADER_PREFIX.length()).trim().split(" ")[0]);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Creates a record for a newly added transaction.
+     *
+     * @param transactionLine Transaction in save file format.
+     */
+    public static String createAddRecord(String transactionLine) {
+        return ADD + SEPARATOR + transactionLine;
+    }
+
+    /**
+     * Creates a record for an edited transaction.
+     *
+     * @param index Index of the transaction.
+     * @param transactionLine Edited transaction in save file format.
+     */
+    public static String createUpdateRecord(int index, String transactionLine) {
+        return UPDATE + SEPARATOR + index + SEPARATOR + transactionLine;
+    }
+
+    /**
+     * Creates a record for a deleted transaction.
+     *
+     * @param index Index of the transaction.
+     */
+    public static String createDeleteRecord(int index) {
+        return DELETE + SEPARATOR + index;
+    }
+
+    /**
+     * Creates a record for a renamed category.
+     *
+     * @param type Type of the category, either INCOME or EXPENSE.
+     * @param currentName Current name of the category.
+     * @param newName New name of the category.
+     */
+    public static String createRenameRecord(String type, String currentName, String newName) {
+        return RENAME + SEPARATOR + type + SEPARATOR + currentName + SEPARATOR + newName;
+    }
+
+    /**
+     * Reads the records that apply to a save file of a given generation. If the journal has checksums,
+     * reading stops at the first damaged record, since later records may depend on it. The damaged record
+     * and all later records are added to the quarantine.
+     *
+     * @param generation Generation of the save file.
+     * @param quarantine Quarantine that damaged records are added to, or <code>null</code> to fail on them.
+     * @return Records in the journal, or an empty list if the journal belongs to an older save file.
+     * @throws IOException If the journal file cannot be read or has a damaged record without a quarantine.
+     */
+    public ArrayList<String> readRecords(long generation, RecordQuarantine quarantine) throws IOException {
+        ArrayList<String> records = new ArrayList<>();
+        isReady = false;
+        File f = new File(filePath);
+        if (!f.exists()) {
+            return records;
+        }
+        try (Scanner s = new Scanner(f, StandardCharsets.UTF_8)) {
+            if (!s.hasNextLine()) {
+                return records;
+            }
+            String header = s.nextLine();
+            long journalGeneration = parseGeneration(header);
+            if (journalGeneration < generation) {
+                return records;
+            }
+            boolean hasChecksums = RecordChecksum.isDeclaredBy(header);
+            boolean isDamaged = false;
+            while (s.hasNextLine()) {
+                String line = s.nextLine();
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                String record = hasChecksums && !isDamaged ? RecordChecksum.strip(line) : line;
+                if (record == null || isDamaged) {
+                    if (quarantine == null) {
+                        throw new IOException("Damaged record in the transactions journal");
+                    }
+                    quarantine.add(new File(filePath).getName(), line, isDamaged
+                            ? "follows a damaged record" : "checksum mismatch");
+                    isDamaged = true;
+                } else {
+                    records.add(record);
+                }
+            }
+            this.generation = journalGeneration;
+        }
+        size = f.length();
+        isReady = true;
+        return records;
+    }
+
+    /**
+     * Checks whether the journal file exists.
+     */
+    public boolean exists() {
+        return new File(filePath).exists();
+    }
+
+    /**
+     * Gets the generation of the save file that the journal applies to.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Gets the size of the journal file in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the path of the journal file.
+     */
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Gets whether the journal applies to the current save file, so that records can be appended to it.
+     */
+    public boolean isReady() {
+        return isReady;
+    }
+
+    /**
+     * Appends a record to the journal file.
+     *
+     * @param record Record to be appended.
+     * @throws IOException If the journal file cannot be written.
+     */
+    public void append(String record) throws IOException {
+        append(Collections.singletonList(record));
+    }
+
+    /**
+     * Appends records to the journal file with a single write, and flushes them to the disk. In write-behind mode,
+     * the records of a group of changes are appended together, so that the group is flushed once.
+     *
+     * @param records Records to be appended.
+     * @throws IOException If the journal file cannot be written.
+     */
+    public void append(List<String> records) throws IOException {
+        assert isReady : "journal should be reset before appending";
+        SaveFileBuffer lines = new SaveFileBuffer();
+        for (String record : records) {
+            lines.writeText(RecordChecksum.append(record) + System.lineSeparator());
+        }
+        lines.appendTo(filePath);
+        size += lines.getSize();
+    }
+
+    /**
+     * Moves the journal file to another path, so that its records can be compacted while
+     * new records are appended to a fresh journal file.
+     *
+     * @param target Journal that takes over the records of this journal.
+     * @throws IOException If the journal file cannot be moved.
+     */
+    public void moveTo(TransactionJournal target) throws IOException {
+        Files.move(Paths.get(filePath), Paths.get(target.filePath), StandardCopyOption.REPLACE_EXISTING);
+        target.generation = generation;
+        target.size = size;
+        target.isReady = false;
+        isReady = false;
+        size = 0;
+    }
+
+    /**
+     * Empties the journal file so that it applies to a save file of a given generation.
+     *
+     * @param generation Generation of the save file.
+     * @throws IOException If the journal file cannot be written.
+     */
+    public void reset(long generation) throws IOException {
+        String header = createHeader(generation) + RecordChecksum.HEADER_FLAG + System.lineSeparator();
+        AtomicFile.write(filePath, header);
+        this.generation = generation;
+        size = header.length();
+        isReady = true;
+    }
+
+    /**
+     * Deletes the journal file.
+     *
+     * @throws IOException If the journal file cannot be deleted.
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(Paths.get(filePath));
+        isReady = false;
+        size = 0;
+    }
+}
@@ -1,17 +1,19 @@
 package moneytracker.summary;
 
+import moneytracker.helper.Money;
+
 /**
- * Represents the monthly budget. A <code>Budget</code> object has a double variable
- * that indicates the amount of this budget.
+ * Represents the monthly budget. A <code>Budget</code> object has a long variable
+ * that indicates the amount of this budget in cents.
  */
 public class Budget {
-    private double amount;
+    private long amountCents;
 
     /**
      * Initializes a <code>Budget</code> object.
      */
     public Budget() {
-        amount = 0;
+        amountCents = 0;
     }
 
     /**
@@ -20,7 +22,7 @@ public class Budget {
      * @param amount Amount in a <code>Budget</code>.
      */
     public Budget(Double amount) {
-        this.amount = amount;
+        this.amountCents = Money.toCents(amount);
     }
 
     public Budget(String s) {
@@ -32,27 +34,41 @@ public class Budget {
      * @return Amount of a <code>Budget</code>
      */
     public double getAmount() {
-        return amount;
+        return Money.toDollars(amountCents);
+    }
+
+    /**
+     * Gets the amount of a <code>Budget</code> in cents.
+     *
+     * @return Amount of a <code>Budget</code> in cents.
+     */
+    public long getAmountCents() {
+        return amountCents;
     }
 
     /**
      * Sets the amount of a <code>Budget</code>.
      */
     public void setBudget(Double amount) {
-        this.amount = amount;
+        this.amountCents = Money.toCents(amount);
     }
 
     /**
-     * Calculate the percentage exceed of <code>expense</code>.
+     * Calculate the percentage exceed of <code>expense</code>. The expense is compared with the budget in whole
+     * cents, so that an expense of exactly half or three quarters of the budget always reaches that step.
+     *
+     * @param expenseCents Expense in cents.
      */
 
-    public String calPercentage(double expense) {
-        double percentage = expense / amount;
-        if (percentage >= 0 & percentage < 0.5) {
+    public String calPercentage(long expenseCents) {
+        if (amountCents <= 0) {
+            return "100%";
+        }
+        if (expenseCents * 2 < amountCents) {
             return "0";
-        } else if (percentage >= 0.5 & percentage < 0.75) {
+        } else if (expenseCents * 4 < amountCents * 3) {
             return "50%";
-        } else if (percentage >= 0.75 & percentage < 1) {
+        } else if (expenseCents < amountCents) {
             return "75%";
         } else {
             return "100%";
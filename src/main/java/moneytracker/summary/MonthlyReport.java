@@ -0,0 +1,249 @@
+package moneytracker.summary;
+
+import moneytracker.transaction.Income;
+import moneytracker.transaction.Transaction;
+import moneytracker.transaction.TransactionList;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Represents the report of a month, with the totals, the highest transactions and the categories of the
+ * transactions of the month. All figures are computed in a single pass over the transactions of the month,
+ * which may be split between threads for months with many transactions.
+ */
+public class MonthlyReport {
+    private final YearMonth month;
+    private long totalIncomeCents = 0;
+    private long totalExpenseCents = 0;
+    private long highestIncomeCents = 0;
+    private long highestExpenseCents = 0;
+    private int highestIncomeIndex = -1;
+    private int highestExpenseIndex = -1;
+    private String highestIncome;
+    private String highestExpense;
+    private final HashMap<String, CategoryTotal> incomeCategories = new HashMap<>();
+    private final HashMap<String, CategoryTotal> expenseCategories = new HashMap<>();
+
+    private MonthlyReport(YearMonth month) {
+        this.month = month;
+    }
+
+    /**
+     * Computes the report of a month in a single pass over its transactions.
+     *
+     * @param transactions List of <code>Transaction</code> objects.
+     * @param month Month of the report.
+     * @return Report of the month.
+     */
+    public static MonthlyReport of(TransactionList transactions, YearMonth month) {
+        return of(transactions, month, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Computes the report of a month in a single pass over its transactions. If the month has at least a given
+     * number of transactions, they are split between threads and the partial reports are combined.
+     *
+     * @param transactions List of <code>Transaction</code> objects.
+     * @param month Month of the report.
+     * @param parallelThreshold Minimum number of transactions that are aggregated in parallel.
+     * @return Report of the month.
+     */
+    public static MonthlyReport of(TransactionList transactions, YearMonth month, int parallelThreshold) {
+        List<Transaction> rows = transactions.getTransactions();
+        int[] indexes = transactions.getTransactionIndexesInMonth(month);
+        IntStream stream = Arrays.stream(indexes);
+        if (indexes.length >= parallelThreshold) {
+            stream = stream.parallel();
+        }
+        ObjIntConsumer<MonthlyReport> accumulator = (partial, i) -> partial.add(rows.get(i), i);
+        MonthlyReport report = stream.collect(() -> new MonthlyReport(month), accumulator, MonthlyReport::combine);
+        if (report.highestIncomeIndex >= 0) {
+            report.highestIncome = rows.get(report.highestIncomeIndex).toString();
+        }
+        if (report.highestExpenseIndex >= 0) {
+            report.highestExpense = rows.get(report.highestExpenseIndex).toString();
+        }
+        return report;
+    }
+
+    /**
+     * Adds a transaction to the report.
+     */
+    private void add(Transaction transaction, int index) {
+        long amount = transaction.getAmountCents();
+        String categoryName = transaction.getCategory().getName();
+        if (transaction instanceof Income) {
+            totalIncomeCents += amount;
+            incomeCategories.computeIfAbsent(categoryName, CategoryTotal::new).add(amount, 1);
+            if (isHigher(amount, index, highestIncomeCents, highestIncomeIndex)) {
+                highestIncomeCents = amount;
+                highestIncomeIndex = index;
+            }
+        } else {
+            totalExpenseCents += amount;
+            expenseCategories.computeIfAbsent(categoryName, CategoryTotal::new).add(amount, 1);
+            if (isHigher(amount, index, highestExpenseCents, highestExpenseIndex)) {
+                highestExpenseCents = amount;
+                highestExpenseIndex = index;
+            }
+        }
+    }
+
+    /**
+     * Adds the figures of a partial report of other transactions of the month to the report.
+     */
+    private void combine(MonthlyReport other) {
+        totalIncomeCents += other.totalIncomeCents;
+        totalExpenseCents += other.totalExpenseCents;
+        combine(incomeCategories, other.incomeCategories);
+        combine(expenseCategories, other.expenseCategories);
+        if (isHigher(other.highestIncomeCents, other.highestIncomeIndex, highestIncomeCents, highestIncomeIndex)) {
+            highestIncomeCents = other.highestIncomeCents;
+            highestIncomeIndex = other.highestIncomeIndex;
+        }
+        if (isHigher(other.highestExpenseCents, other.highestExpenseIndex, highestExpenseCents,
+                highestExpenseIndex)) {
+            highestExpenseCents = other.highestExpenseCents;
+            highestExpenseIndex = other.highestExpenseIndex;
+        }
+    }
+
+    private static void combine(Map<String, CategoryTotal> categories, Map<String, CategoryTotal> others) {
+        for (CategoryTotal other : others.values()) {
+            categories.computeIfAbsent(other.categoryName, CategoryTotal::new).add(other.amountCents, other.count);
+        }
+    }
+
+    /**
+     * Checks whether a transaction is higher than the highest transaction so far. Only amounts above zero count,
+     * and of the transactions with the same amount, the first one in the list is the highest, whichever order the
+     * transactions are added in.
+     */
+    private static boolean isHigher(long amount, int index, long highestAmount, int highestIndex) {
+        if (index < 0 || amount <= 0) {
+            return false;
+        }
+        return highestIndex < 0 || amount > highestAmount || (amount == highestAmount && index < highestIndex);
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public int getDaysOfMonth() {
+        return month.lengthOfMonth();
+    }
+
+    public long getTotalIncomeCents() {
+        return totalIncomeCents;
+    }
+
+    public long getTotalExpenseCents() {
+        return totalExpenseCents;
+    }
+
+    public long getBalanceCents() {
+        return totalIncomeCents - totalExpenseCents;
+    }
+
+    /**
+     * Gets the highest income transaction of the month.
+     *
+     * @return Highest income transaction as shown in the list, or <code>null</code> if there is none.
+     */
+    public String getHighestIncome() {
+        return highestIncome;
+    }
+
+    /**
+     * Gets the highest expense transaction of the month.
+     *
+     * @return Highest expense transaction as shown in the list, or <code>null</code> if there is none.
+     */
+    public String getHighestExpense() {
+        return highestExpense;
+    }
+
+    /**
+     * Gets the number of income transactions of each category, ordered by category name.
+     */
+    public Map<String, Integer> getIncomeCategoryFrequency() {
+        return getFrequency(incomeCategories);
+    }
+
+    /**
+     * Gets the number of expense transactions of each category, ordered by category name.
+     */
+    public Map<String, Integer> getExpenseCategoryFrequency() {
+        return getFrequency(expenseCategories);
+    }
+
+    /**
+     * Gets the total income of each category in cents, from highest to lowest.
+     */
+    public List<CategoryTotal> getIncomeCategoryAmounts() {
+        return getAmounts(incomeCategories);
+    }
+
+    /**
+     * Gets the total expense of each category in cents, from highest to lowest.
+     */
+    public List<CategoryTotal> getExpenseCategoryAmounts() {
+        return getAmounts(expenseCategories);
+    }
+
+    private static Map<String, Integer> getFrequency(Map<String, CategoryTotal> categories) {
+        TreeMap<String, Integer> frequency = new TreeMap<>();
+        for (CategoryTotal total : categories.values()) {
+            frequency.put(total.categoryName, total.count);
+        }
+        return Collections.unmodifiableMap(frequency);
+    }
+
+    private static List<CategoryTotal> getAmounts(Map<String, CategoryTotal> categories) {
+        ArrayList<CategoryTotal> amounts = new ArrayList<>(categories.values());
+        amounts.sort(Comparator.comparingLong(CategoryTotal::getAmountCents).reversed()
+                .thenComparing(CategoryTotal::getCategoryName));
+        return Collections.unmodifiableList(amounts);
+    }
+
+    /**
+     * Represents the number and the total amount of the transactions of a category in a month.
+     */
+    public static class CategoryTotal {
+        private final String categoryName;
+        private long amountCents = 0;
+        private int count = 0;
+
+        private CategoryTotal(String categoryName) {
+            this.categoryName = categoryName;
+        }
+
+        private void add(long amount, int transactionCount) {
+            amountCents += amount;
+            count += transactionCount;
+        }
+
+        public String getCategoryName() {
+            return categoryName;
+        }
+
+        public long getAmountCents() {
+            return amountCents;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+}
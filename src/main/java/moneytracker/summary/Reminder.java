@@ -4,30 +4,26 @@ import moneytracker.transaction.Transaction;
 import moneytracker.transaction.TransactionList;
 
 import java.time.LocalDate;
-import java.time.Period;
-import java.util.ArrayList;
+import java.util.List;
 
 public class Reminder {
 
     /**
-     * Calculates the due date of the <code>transactions</code>.
+     * Calculates the due date of the <code>transactions</code>. The transactions due in the next two days are
+     * looked up together in one lookup by date, which does not build the date index if it has not been built.
      * @param transactions list used to store the transaction information.
      * @return Due Alarm.
      */
 
     public static String reminder(TransactionList transactions) {
-        ArrayList<Transaction> dueTmr = new ArrayList<Transaction>();
-        ArrayList<Transaction> dueTheDayAfterTmr = new ArrayList<Transaction>();
-        ArrayList<Transaction> trans = transactions.getTransactions();
         LocalDate ld = LocalDate.now();
-        for (Transaction t: trans) {
-            Period period = Period.between(ld,t.getLocalDate());
-            if (period.getDays() <= 2 & period.getDays() > 1) {
-                dueTheDayAfterTmr.add(t);
-            } else if (period.getDays() <= 1 & period.getDays() > 0) {
-                dueTmr.add(t);
-            }
+        List<Transaction> due = transactions.between(ld.plusDays(1), ld.plusDays(2));
+        int dueTmrCount = 0;
+        while (dueTmrCount < due.size() && due.get(dueTmrCount).getLocalDate().equals(ld.plusDays(1))) {
+            dueTmrCount++;
         }
+        List<Transaction> dueTmr = due.subList(0, dueTmrCount);
+        List<Transaction> dueTheDayAfterTmr = due.subList(dueTmrCount, due.size());
 
         String str = "";
         int n = 1;
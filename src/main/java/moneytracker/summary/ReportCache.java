@@ -0,0 +1,71 @@
+package moneytracker.summary;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the most recently used reports, so that a report that is shown again for the same version of the
+ * transactions is not computed again. A report is only reused for the version of the transactions it was
+ * computed from, and the least recently used report is dropped when the cache is full.
+ *
+ * @param <R> Type of the reports.
+ */
+public class ReportCache<R> {
+    private final int maxSize;
+    private final LinkedHashMap<String, CachedReport<R>> reports;
+
+    /**
+     * Initializes an empty <code>ReportCache</code> object.
+     *
+     * @param maxSize Maximum number of reports that are kept.
+     */
+    public ReportCache(int maxSize) {
+        assert maxSize > 0 : "maxSize should be positive";
+        this.maxSize = maxSize;
+        this.reports = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedReport<R>> eldest) {
+                return size() > ReportCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the report of a query for a version of the transactions, computing it if it is not kept.
+     *
+     * @param query Query of the report, such as its kind and month.
+     * @param version Version of the transactions.
+     * @param compute Computes the report.
+     * @return Report of the query.
+     */
+    public synchronized R get(String query, long version, Supplier<R> compute) {
+        CachedReport<R> cached = reports.get(query);
+        if (cached != null && cached.version == version) {
+            return cached.report;
+        }
+        R report = compute.get();
+        reports.put(query, new CachedReport<>(version, report));
+        return report;
+    }
+
+    /**
+     * Gets the number of reports that are kept.
+     */
+    public synchronized int size() {
+        return reports.size();
+    }
+
+    /**
+     * Represents a report and the version of the transactions it was computed from.
+     */
+    private static class CachedReport<R> {
+        private final long version;
+        private final R report;
+
+        private CachedReport(long version, R report) {
+            this.version = version;
+            this.report = report;
+        }
+    }
+}
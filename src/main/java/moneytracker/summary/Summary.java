@@ -1,44 +1,27 @@
 package moneytracker.summary;
 
-import moneytracker.transaction.Expense;
-import moneytracker.transaction.Income;
-import moneytracker.transaction.Transaction;
 import moneytracker.transaction.TransactionList;
 
-import java.time.LocalDate;
+import java.time.YearMonth;
 
 public class Summary {
 
     /**
-     * Calculates the Summary for <code>income</code>.
+     * Calculates the Summary for <code>income</code> of the current month in cents, from the monthly totals of
+     * the <code>transactions</code>.
      */
 
-    public static double calIncSummary(TransactionList transactions) {
-        double inc = 0;
-        for (Transaction tran : transactions.getTransactions()) {
-            if (LocalDate.now().getMonth() == tran.getLocalDate().getMonth()) {
-                if (tran instanceof Income) {
-                    inc += tran.getAmountNumber();
-                }
-            }
-        }
-        return inc;
+    public static long calIncSummary(TransactionList transactions) {
+        return transactions.getTotalCents(YearMonth.now(), "INCOME");
     }
 
     /**
-     * Calculates the Summary of <code>expense</code>.
+     * Calculates the Summary of <code>expense</code> of the current month in cents, from the monthly totals of
+     * the <code>transactions</code>.
      */
 
-    public static double calExpSummary(TransactionList transactions) {
-        double exp = 0;
-        for (Transaction tran : transactions.getTransactions()) {
-            if (LocalDate.now().getMonth() == tran.getLocalDate().getMonth()) {
-                if (tran instanceof Expense) {
-                    exp += tran.getAmountNumber();
-                }
-            }
-        }
-        return exp;
+    public static long calExpSummary(TransactionList transactions) {
+        return transactions.getTotalCents(YearMonth.now(), "EXPENSE");
     }
 
 
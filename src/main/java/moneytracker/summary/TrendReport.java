@@ -0,0 +1,147 @@
+package moneytracker.summary;
+
+import moneytracker.transaction.Income;
+import moneytracker.transaction.Transaction;
+import moneytracker.transaction.TransactionList;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Represents the total income and expense of each month in a window of consecutive months. The totals are
+ * computed in a single pass over the transactions of the window, which adds each transaction to the bucket of
+ * its month. Windows with many transactions are split between threads, each with its own buckets.
+ */
+public class TrendReport {
+    public static final int DEFAULT_MONTHS = 6;
+    private final YearMonth firstMonth;
+    private final long firstBucket;
+    private final long[] incomeCents;
+    private final long[] expenseCents;
+
+    private TrendReport(YearMonth firstMonth, int months) {
+        this.firstMonth = firstMonth;
+        this.firstBucket = getBucket(firstMonth.atDay(1));
+        this.incomeCents = new long[months];
+        this.expenseCents = new long[months];
+    }
+
+    /**
+     * Computes the totals of the months in a window ending with a given month.
+     *
+     * @param transactions List of <code>Transaction</code> objects.
+     * @param lastMonth Last month of the window.
+     * @param months Number of months in the window.
+     * @return Totals of the months in the window.
+     */
+    public static TrendReport of(TransactionList transactions, YearMonth lastMonth, int months) {
+        return of(transactions, lastMonth, months, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Computes the totals of the months in a window ending with a given month. If the window has at least a given
+     * number of transactions, they are split between threads and the partial totals are added up.
+     *
+     * @param transactions List of <code>Transaction</code> objects.
+     * @param lastMonth Last month of the window.
+     * @param months Number of months in the window.
+     * @param parallelThreshold Minimum number of transactions that are aggregated in parallel.
+     * @return Totals of the months in the window.
+     */
+    public static TrendReport of(TransactionList transactions, YearMonth lastMonth, int months,
+                                 int parallelThreshold) {
+        assert months > 0 : "months should be positive";
+        YearMonth firstMonth = lastMonth.minusMonths(months - 1);
+        List<Transaction> rows = transactions.getTransactions();
+        int[] indexes = transactions.getTransactionIndexesBetween(firstMonth.atDay(1), lastMonth.atEndOfMonth());
+        IntStream stream = Arrays.stream(indexes);
+        if (indexes.length >= parallelThreshold) {
+            stream = stream.parallel();
+        }
+        ObjIntConsumer<TrendReport> accumulator = (partial, i) -> partial.add(rows.get(i));
+        return stream.collect(() -> new TrendReport(firstMonth, months), accumulator, TrendReport::combine);
+    }
+
+    /**
+     * Adds a transaction to the bucket of its month.
+     */
+    private void add(Transaction transaction) {
+        int bucket = (int) (getBucket(transaction.getLocalDate()) - firstBucket);
+        if (transaction instanceof Income) {
+            incomeCents[bucket] += transaction.getAmountCents();
+        } else {
+            expenseCents[bucket] += transaction.getAmountCents();
+        }
+    }
+
+    /**
+     * Adds the totals of a partial report of other transactions of the window to the report.
+     */
+    private void combine(TrendReport other) {
+        for (int i = 0; i < incomeCents.length; i++) {
+            incomeCents[i] += other.incomeCents[i];
+            expenseCents[i] += other.expenseCents[i];
+        }
+    }
+
+    private static long getBucket(LocalDate date) {
+        return date.getYear() * 12L + date.getMonthValue() - 1;
+    }
+
+    /**
+     * Gets the number of months in the window.
+     */
+    public int getMonthCount() {
+        return incomeCents.length;
+    }
+
+    /**
+     * Gets a month of the window.
+     *
+     * @param index Position of the month in the window, starting from the first month.
+     * @return Month at the position.
+     */
+    public YearMonth getMonth(int index) {
+        return firstMonth.plusMonths(index);
+    }
+
+    public long getIncomeCents(int index) {
+        return incomeCents[index];
+    }
+
+    public long getExpenseCents(int index) {
+        return expenseCents[index];
+    }
+
+    /**
+     * Gets the positions of the months ordered by their total income from highest to lowest, and months with
+     * the same total in month order.
+     */
+    public List<Integer> getMonthsByIncome() {
+        return getMonthsByAmount(incomeCents);
+    }
+
+    /**
+     * Gets the positions of the months ordered by their total expense from highest to lowest, and months with
+     * the same total in month order.
+     */
+    public List<Integer> getMonthsByExpense() {
+        return getMonthsByAmount(expenseCents);
+    }
+
+    private static List<Integer> getMonthsByAmount(long[] amounts) {
+        ArrayList<Integer> indexes = new ArrayList<>(amounts.length);
+        for (int i = 0; i < amounts.length; i++) {
+            indexes.add(i);
+        }
+        indexes.sort(Comparator.comparingLong((Integer i) -> amounts[i]).reversed());
+        return Collections.unmodifiableList(indexes);
+    }
+}
@@ -46,6 +46,26 @@ public class Category {
         return type;
     }
 
+    /**
+     * Gets the key that identifies a <code>Category</code> by its type and current name.
+     *
+     * @return Key of a <code>Category</code>.
+     */
+    String getKey() {
+        return getKey(type, name);
+    }
+
+    /**
+     * Gets the key that identifies a category by its type and name.
+     *
+     * @param type Type of the category, either INCOME or EXPENSE.
+     * @param name Name of the category.
+     * @return Key of the category.
+     */
+    static String getKey(String type, String name) {
+        return type + ":" + name;
+    }
+
     /**
      * Gets the String representation of a <code>Category</code>.
      */
@@ -3,16 +3,21 @@ package moneytracker.transaction;
 import moneytracker.exception.MoneyTrackerException;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
 
 /**
  * Manages the in-memory category list. It contains an ArrayList that stores
  * individual <code>Category</code> objects and methods to perform operations
- * such as adding and deleting categories.
+ * such as adding and deleting categories. It also keeps a hash index of the categories of each type by name,
+ * so that checking whether a category exists does not scan the list.
  */
 public class CategoryList {
     private ArrayList<Category> categories = new ArrayList<>();
     private final ArrayList<Integer> searchResultIndexes = new ArrayList<>();
     private boolean isInitialized = false;
+    private final HashMap<String, Category> incomeCategoriesByName = new HashMap<>();
+    private final HashMap<String, Category> expenseCategoriesByName = new HashMap<>();
 
     /**
      * Initializes an empty <code>CategoryList</code> object.
@@ -27,6 +32,9 @@ public class CategoryList {
      */
     public CategoryList(ArrayList<Category> categories) {
         this.categories = categories;
+        for (Category category : categories) {
+            getCategoriesByName(category.getType()).putIfAbsent(category.getName(), category);
+        }
     }
 
     /**
@@ -56,6 +64,7 @@ public class CategoryList {
     public void addCategory(Category category) throws MoneyTrackerException {
         if (!checkIfCategoryExists(category.getName(), category.getType())) {
             categories.add(category);
+            getCategoriesByName(category.getType()).putIfAbsent(category.getName(), category);
         } else {
             throw new MoneyTrackerException("This category already exists.");
         }
@@ -69,12 +78,26 @@ public class CategoryList {
      */
     public void removeCategory(int index) throws MoneyTrackerException {
         try {
-            categories.remove(categories.get(index));
+            Category category = categories.remove(index);
+            removeFromIndex(category);
         } catch (IndexOutOfBoundsException e) {
             throw new MoneyTrackerException("Invalid index");
         }
     }
 
+    /**
+     * Renames a <code>Category</code> of the <code>CategoryList</code>. Categories in the list are renamed
+     * through this method, so that the index stays up to date.
+     *
+     * @param category <code>Category</code> to be renamed.
+     * @param newName New name of the <code>Category</code>.
+     */
+    public void renameCategory(Category category, String newName) {
+        removeFromIndex(category);
+        category.setName(newName);
+        getCategoriesByName(category.getType()).putIfAbsent(newName, category);
+    }
+
     /**
      * Checks whether a category already exists in <code>CategoryList</code>.
      *
@@ -82,12 +105,37 @@ public class CategoryList {
      * @param type Type of the category.
      */
     public boolean checkIfCategoryExists(String name, String type) {
-        for (Category category : categories) {
-            if (name.toUpperCase().equals(category.getName()) && type.toUpperCase().equals(category.getType())) {
-                return true;
+        HashMap<String, Category> categoriesByName;
+        if (type.equalsIgnoreCase("INCOME")) {
+            categoriesByName = incomeCategoriesByName;
+        } else if (type.equalsIgnoreCase("EXPENSE")) {
+            categoriesByName = expenseCategoriesByName;
+        } else {
+            return false;
+        }
+        return categoriesByName.containsKey(name.toUpperCase(Locale.ROOT));
+    }
+
+    private HashMap<String, Category> getCategoriesByName(String type) {
+        return type.equals("INCOME") ? incomeCategoriesByName : expenseCategoriesByName;
+    }
+
+    /**
+     * Removes a <code>Category</code> from the index. If another category in the list has the same type
+     * and name, it takes the place of the removed one.
+     */
+    private void removeFromIndex(Category category) {
+        HashMap<String, Category> categoriesByName = getCategoriesByName(category.getType());
+        if (!categoriesByName.remove(category.getName(), category)) {
+            return;
+        }
+        for (Category other : categories) {
+            if (other != category && other.getType().equals(category.getType())
+                    && other.getName().equals(category.getName())) {
+                categoriesByName.put(other.getName(), other);
+                return;
             }
         }
-        return false;
     }
 
     /**
@@ -138,5 +186,7 @@ public class CategoryList {
      */
     public void clearCategories() {
         categories.clear();
+        incomeCategoriesByName.clear();
+        expenseCategoriesByName.clear();
     }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package moneytracker.transaction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Maps the categories of the rows of a transaction store to ids, so that a row only keeps the id of its
+ * category. Rows with the same category share the <code>Category</code> object that was added first.
+ */
+class CategoryTable {
+    private final ArrayList<Category> categories;
+    private final HashMap<String, Integer> idsByKey;
+
+    /**
+     * Initializes an empty <code>CategoryTable</code> object.
+     */
+    CategoryTable() {
+        categories = new ArrayList<>();
+        idsByKey = new HashMap<>();
+    }
+
+    /**
+     * Initializes a <code>CategoryTable</code> object with copies of the categories of another one.
+     *
+     * @param other Table to be copied.
+     */
+    CategoryTable(CategoryTable other) {
+        categories = new ArrayList<>(other.categories.size());
+        for (Category category : other.categories) {
+            categories.add(new Category(category.getName(), category.getType()));
+        }
+        idsByKey = new HashMap<>(other.idsByKey);
+    }
+
+    /**
+     * Replaces the categories of the table with copies, so that the rows no longer share <code>Category</code>
+     * objects with the transactions they were copied from.
+     */
+    void copyCategories() {
+        for (int id = 0; id < categories.size(); id++) {
+            Category category = categories.get(id);
+            categories.set(id, new Category(category.getName(), category.getType()));
+        }
+    }
+
+    /**
+     * Gets the id of the category with the type and name of a <code>Category</code>, adding the
+     * <code>Category</code> to the table if there is none.
+     */
+    int getId(Category category) {
+        String key = category.getKey();
+        Integer id = idsByKey.get(key);
+        if (id == null) {
+            id = categories.size();
+            categories.add(category);
+            idsByKey.put(key, id);
+        }
+        return id;
+    }
+
+    /**
+     * Adds a category with the next id, such as a category read back from a file. A category whose key already
+     * has an id keeps that id for new rows.
+     */
+    void add(Category category) {
+        idsByKey.putIfAbsent(category.getKey(), categories.size());
+        categories.add(category);
+    }
+
+    Category get(int id) {
+        return categories.get(id);
+    }
+
+    int size() {
+        return categories.size();
+    }
+
+    /**
+     * Moves the id of a category that was renamed to its new key. The rows keep their ids and read the new name
+     * from the shared <code>Category</code> object. If the new key already has an id, rows that are set to the
+     * new name keep using that id.
+     *
+     * @param type Type of the category, either INCOME or EXPENSE.
+     * @param currentName Previous name of the category.
+     * @param newName New name of the category.
+     */
+    void rename(String type, String currentName, String newName) {
+        Integer id = idsByKey.remove(Category.getKey(type, currentName));
+        if (id != null) {
+            idsByKey.putIfAbsent(Category.getKey(type, newName), id);
+        }
+    }
+
+    void clear() {
+        categories.clear();
+        idsByKey.clear();
+    }
+}
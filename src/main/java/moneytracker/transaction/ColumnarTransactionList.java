@@ -0,0 +1,63 @@
+package moneytracker.transaction;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Represents a <code>TransactionList</code> that stores its transactions column by column in primitive
+ * arrays instead of as separate objects, so that large ledgers take a fraction of the heap and scans read
+ * contiguous memory. The <code>Transaction</code> objects returned by it are views of its rows, which read
+ * and change the row in place and stay valid until a transaction before them is added or removed.
+ */
+public class ColumnarTransactionList extends TransactionList {
+    private final TransactionColumns columns;
+
+    /**
+     * Initializes an empty <code>ColumnarTransactionList</code> object.
+     */
+    public ColumnarTransactionList() {
+        this(new TransactionColumns());
+    }
+
+    private ColumnarTransactionList(TransactionColumns columns) {
+        super(columns);
+        this.columns = columns;
+    }
+
+    /**
+     * Copies the rows of the <code>ColumnarTransactionList</code> into new columns, so that the copy is not
+     * affected by later changes to the rows. Rows that are marked as deleted are left out of the copy.
+     *
+     * @return Copy of the list of <code>Transaction</code> objects.
+     */
+    @Override
+    public List<Transaction> copyTransactions() {
+        TransactionColumns copy = new TransactionColumns(columns);
+        copy.removeRows(getDeletedRows());
+        return copy;
+    }
+
+    /**
+     * Renames a category of the rows in the <code>ColumnarTransactionList</code>, and moves the category id
+     * of the rows to the new name.
+     *
+     * @param currentName Current category name of <code>Transaction</code> objects.
+     * @param newName New category name of <code>Transaction</code> objects.
+     * @param type Type of the category, either INCOME or EXPENSE.
+     */
+    @Override
+    public void updateTransactionsCategory(String currentName, String newName, String type) {
+        super.updateTransactionsCategory(currentName, newName, type);
+        columns.renameCategory(type, currentName, newName);
+    }
+
+    /**
+     * Removes rows from the columns in one pass, without reading the rows as objects.
+     *
+     * @param rows Rows to be removed.
+     */
+    @Override
+    protected void removeRows(BitSet rows) {
+        columns.removeRows(rows);
+    }
+}
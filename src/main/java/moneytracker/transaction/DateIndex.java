@@ -0,0 +1,144 @@
+package moneytracker.transaction;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps the positions of the transactions in a <code>TransactionList</code> ordered by date, so that the
+ * transactions between two dates are found with a binary search instead of a scan of the list. Transactions
+ * of the same date are kept in the order of the list. Transactions are usually added in date order, in which
+ * case their positions are appended, and a transaction with an earlier date is inserted at its place.
+ *
+ * <p>Each entry packs the day and the position of a transaction into one <code>long</code>, so that the
+ * entries are ordered by comparing them. Positions of deleted transactions are kept until the list is
+ * compacted, and are skipped by the list.</p>
+ */
+class DateIndex {
+    private long[] keys = new long[16];
+    private int size = 0;
+
+    /**
+     * Builds the index of all transactions of a list with a single sort.
+     *
+     * @param transactions Transactions of the list.
+     * @return Index of the transactions.
+     */
+    static DateIndex of(List<Transaction> transactions) {
+        int count = transactions.size();
+        DateIndex index = new DateIndex();
+        index.keys = new long[Math.max(count, 16)];
+        for (int row = 0; row < count; row++) {
+            index.keys[row] = getKey(transactions.get(row).getLocalDate().toEpochDay(), row);
+        }
+        Arrays.sort(index.keys, 0, count);
+        index.size = count;
+        return index;
+    }
+
+    /**
+     * Adds the position of a transaction.
+     *
+     * @param date Date of the transaction.
+     * @param row Position of the transaction.
+     */
+    void add(LocalDate date, int row) {
+        long key = getKey(date.toEpochDay(), row);
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        int index = size;
+        if (size > 0 && keys[size - 1] > key) {
+            index = find(key);
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+        }
+        keys[index] = key;
+        size++;
+    }
+
+    /**
+     * Moves the position of a transaction whose date was changed.
+     *
+     * @param previousDate Previous date of the transaction.
+     * @param date New date of the transaction.
+     * @param row Position of the transaction.
+     */
+    void move(LocalDate previousDate, LocalDate date, int row) {
+        if (previousDate.equals(date)) {
+            return;
+        }
+        long key = getKey(previousDate.toEpochDay(), row);
+        int index = find(key);
+        if (index < size && keys[index] == key) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            size--;
+        }
+        add(date, row);
+    }
+
+    /**
+     * Changes the positions of the transactions after the list is compacted, and drops the positions of the
+     * deleted transactions. The order of the positions is kept, since compacting the list does not change the
+     * order of the remaining transactions.
+     *
+     * @param positions New position of each previous position, or -1 for a transaction that was deleted.
+     */
+    void remap(int[] positions) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int row = positions[(int) keys[i]];
+            if (row >= 0) {
+                keys[count++] = getKey(keys[i] >> Integer.SIZE, row);
+            }
+        }
+        size = count;
+    }
+
+    /**
+     * Gets the positions of the transactions between two dates, ordered by date.
+     *
+     * @param from First date, inclusive.
+     * @param to Last date, inclusive.
+     * @return Positions of the transactions.
+     */
+    int[] getRows(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return new int[0];
+        }
+        int start = find(getKey(from.toEpochDay(), 0));
+        int end = find(getKey(to.toEpochDay() + 1, 0));
+        int[] rows = new int[end - start];
+        for (int i = start; i < end; i++) {
+            rows[i - start] = (int) keys[i];
+        }
+        return rows;
+    }
+
+    /**
+     * Gets the number of positions in the index, including those of deleted transactions.
+     */
+    int getRowCount() {
+        return size;
+    }
+
+    /**
+     * Finds the first index whose entry is not before the given entry.
+     */
+    private int find(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long getKey(long day, int row) {
+        return day << Integer.SIZE | row;
+    }
+}
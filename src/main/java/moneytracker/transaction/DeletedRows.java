@@ -0,0 +1,129 @@
+package moneytracker.transaction;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Marks the rows of a <code>TransactionList</code> that were deleted but not removed yet. Besides one bit for
+ * each row, the number of deleted rows in each block of 64 rows is kept in a Fenwick tree, so that a row is
+ * converted to its position among the remaining rows, and back, in logarithmic time. This lets the list keep
+ * its deleted rows, and the indexes refer to them, until enough rows are deleted to be worth compacting.
+ */
+class DeletedRows {
+    private static final int BLOCK_SHIFT = 6;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private long[] blocks = new long[0];
+    private int[] tree = new int[1];
+    private int count = 0;
+
+    /**
+     * Marks a row as deleted.
+     *
+     * @param row Row to be marked.
+     */
+    void delete(int row) {
+        int block = row >>> BLOCK_SHIFT;
+        if (block >= blocks.length) {
+            grow(block + 1);
+        }
+        long bit = 1L << row;
+        if ((blocks[block] & bit) != 0) {
+            return;
+        }
+        blocks[block] |= bit;
+        count++;
+        for (int i = block + 1; i < tree.length; i += i & -i) {
+            tree[i]++;
+        }
+    }
+
+    /**
+     * Gets whether a row is marked as deleted.
+     */
+    boolean isDeleted(int row) {
+        int block = row >>> BLOCK_SHIFT;
+        return block < blocks.length && (blocks[block] & 1L << row) != 0;
+    }
+
+    /**
+     * Gets the number of rows that are marked as deleted.
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the number of rows before a row that are marked as deleted, so that a row that is not deleted is at
+     * that many positions before its row among the remaining rows.
+     *
+     * @param row Row of the list.
+     * @return Number of deleted rows before the row.
+     */
+    int countBefore(int row) {
+        int block = row >>> BLOCK_SHIFT;
+        int deleted = 0;
+        for (int i = Math.min(block, blocks.length); i > 0; i -= i & -i) {
+            deleted += tree[i];
+        }
+        if (block < blocks.length) {
+            deleted += Long.bitCount(blocks[block] & (1L << row) - 1);
+        }
+        return deleted;
+    }
+
+    /**
+     * Finds the row of a position among the rows that are not deleted.
+     *
+     * @param position Position among the remaining rows.
+     * @return Row at the position.
+     */
+    int findRow(int position) {
+        int block = 0;
+        int remaining = position;
+        for (int step = Integer.highestOneBit(blocks.length); step > 0; step >>= 1) {
+            int next = block + step;
+            if (next <= blocks.length && step * BLOCK_SIZE - tree[next] <= remaining) {
+                block = next;
+                remaining -= step * BLOCK_SIZE - tree[next];
+            }
+        }
+        if (block == blocks.length) {
+            return block * BLOCK_SIZE + remaining;
+        }
+        long kept = ~blocks[block];
+        for (int i = 0; i < remaining; i++) {
+            kept &= kept - 1;
+        }
+        return block * BLOCK_SIZE + Long.numberOfTrailingZeros(kept);
+    }
+
+    /**
+     * Gets the rows that are marked as deleted.
+     *
+     * @return Copy of the marks.
+     */
+    BitSet toBitSet() {
+        return BitSet.valueOf(blocks);
+    }
+
+    /**
+     * Unmarks all rows, such as after the deleted rows are removed.
+     */
+    void clear() {
+        blocks = new long[0];
+        tree = new int[1];
+        count = 0;
+    }
+
+    private void grow(int blockCount) {
+        blocks = Arrays.copyOf(blocks, Math.max(blockCount, blocks.length * 2));
+        tree = new int[blocks.length + 1];
+        for (int i = 1; i < tree.length; i++) {
+            tree[i] += Long.bitCount(blocks[i - 1]);
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
@@ -2,12 +2,14 @@ package moneytracker.transaction;
 
 import moneytracker.exception.MoneyTrackerException;
 
+import java.time.LocalDate;
+
 /**
  * Represents an expense that a user has incurred. An <code>Expense</code>
  * object has an amount, a description, a date and a category.
  */
 public class Expense extends Transaction {
-    private String expenseCategory;
+    private Category expenseCategory;
 
     /**
      * Initializes an <code>Expense</code> object.
@@ -19,6 +21,46 @@ public class Expense extends Transaction {
     public Expense(double amount, String description,String date,
                    String expenseCategory) throws MoneyTrackerException {
         super(amount, description, date);
+        this.expenseCategory = new Category(expenseCategory, "EXPENSE");
+    }
+
+    /**
+     * Initializes an <code>Expense</code> object with a date that has already been parsed.
+     *
+     * @param amount Amount of money of an <code>Expense</code>.
+     * @param description Description of an <code>Expense</code>.
+     * @param date Date of an <code>Expense</code>.
+     * @param expenseCategory Category of an <code>Expense</code>.
+     */
+    public Expense(double amount, String description, LocalDate date, String expenseCategory) {
+        super(amount, description, date);
+        this.expenseCategory = new Category(expenseCategory, "EXPENSE");
+    }
+
+    /**
+     * Initializes an <code>Expense</code> object with a date that has already been parsed and a shared category.
+     *
+     * @param amount Amount of money of an <code>Expense</code>.
+     * @param description Description of an <code>Expense</code>.
+     * @param date Date of an <code>Expense</code>.
+     * @param expenseCategory Category of an <code>Expense</code>.
+     */
+    public Expense(double amount, String description, LocalDate date, Category expenseCategory) {
+        super(amount, description, date);
+        this.expenseCategory = expenseCategory;
+    }
+
+    /**
+     * Initializes an <code>Expense</code> object with an amount in cents, a date that has already been parsed and a
+     * shared category.
+     *
+     * @param amountCents Amount of money of an <code>Expense</code> in cents.
+     * @param description Description of an <code>Expense</code>.
+     * @param date Date of an <code>Expense</code>.
+     * @param expenseCategory Category of an <code>Expense</code>.
+     */
+    public Expense(long amountCents, String description, LocalDate date, Category expenseCategory) {
+        super(amountCents, description, date);
         this.expenseCategory = expenseCategory;
     }
 
@@ -30,7 +72,13 @@ public class Expense extends Transaction {
      */
     public Expense(double amount, String description, String expenseCategory) {
         super(amount, description);
-        this.expenseCategory = expenseCategory;
+        this.expenseCategory = new Category(expenseCategory, "EXPENSE");
+    }
+
+    /**
+     * Initializes an <code>Expense</code> object whose values are kept by a subclass.
+     */
+    Expense() {
     }
 
     /**
@@ -39,14 +87,25 @@ public class Expense extends Transaction {
      * @return Category of an <code>Expense</code> object.
      */
     public String getExpenseCategory() {
-        return expenseCategory;
+        return getCategory().getName();
     }
 
     /**
      * Sets the category of an <code>Expense</code> object.
      */
     public void setExpenseCategory(String expenseCategory) {
-        this.expenseCategory = expenseCategory;
+        setCategory(new Category(expenseCategory, "EXPENSE"));
+    }
+
+    @Override
+    public Category getCategory() {
+        return expenseCategory;
+    }
+
+    @Override
+    public void setCategory(Category category) {
+        assert category.getType().equals("EXPENSE") : "category should be an expense category";
+        this.expenseCategory = category;
     }
 
     /**
@@ -54,6 +113,6 @@ public class Expense extends Transaction {
      */
     @Override
     public String toString() {
-        return "[E] " + expenseCategory.toUpperCase() + " " + super.toString();
+        return "[E] " + getExpenseCategory().toUpperCase() + " " + super.toString();
     }
 }
@@ -2,12 +2,14 @@ package moneytracker.transaction;
 
 import moneytracker.exception.MoneyTrackerException;
 
+import java.time.LocalDate;
+
 /**
  * Represents an income that a user has earned. An <code>Income</code>
  * object has an amount, a description, a date and a category.
  */
 public class Income extends Transaction {
-    private String incomeCategory;
+    private Category incomeCategory;
 
     /**
      * Initializes an <code>Income</code> object.
@@ -17,10 +19,50 @@ public class Income extends Transaction {
      * @param date Date of an <code>Income</code>.
      */
     public Income(double amount, String description, String date, String incomeCategory) throws MoneyTrackerException {
+        super(amount, description, date);
+        this.incomeCategory = new Category(incomeCategory, "INCOME");
+    }
+
+    /**
+     * Initializes an <code>Income</code> object with a date that has already been parsed.
+     *
+     * @param amount Amount of money of an <code>Income</code>.
+     * @param description Description of an <code>Income</code>.
+     * @param date Date of an <code>Income</code>.
+     * @param incomeCategory Category of an <code>Income</code>.
+     */
+    public Income(double amount, String description, LocalDate date, String incomeCategory) {
+        super(amount, description, date);
+        this.incomeCategory = new Category(incomeCategory, "INCOME");
+    }
+
+    /**
+     * Initializes an <code>Income</code> object with a date that has already been parsed and a shared category.
+     *
+     * @param amount Amount of money of an <code>Income</code>.
+     * @param description Description of an <code>Income</code>.
+     * @param date Date of an <code>Income</code>.
+     * @param incomeCategory Category of an <code>Income</code>.
+     */
+    public Income(double amount, String description, LocalDate date, Category incomeCategory) {
         super(amount, description, date);
         this.incomeCategory = incomeCategory;
     }
 
+    /**
+     * Initializes an <code>Income</code> object with an amount in cents, a date that has already been parsed and a
+     * shared category.
+     *
+     * @param amountCents Amount of money of an <code>Income</code> in cents.
+     * @param description Description of an <code>Income</code>.
+     * @param date Date of an <code>Income</code>.
+     * @param incomeCategory Category of an <code>Income</code>.
+     */
+    public Income(long amountCents, String description, LocalDate date, Category incomeCategory) {
+        super(amountCents, description, date);
+        this.incomeCategory = incomeCategory;
+    }
+
     /**
      * Initializes an <code>Income</code> object.
      *
@@ -29,7 +71,13 @@ public class Income extends Transaction {
      */
     public Income(double amount, String description, String incomeCategory) {
         super(amount, description);
-        this.incomeCategory = incomeCategory;
+        this.incomeCategory = new Category(incomeCategory, "INCOME");
+    }
+
+    /**
+     * Initializes an <code>Income</code> object whose values are kept by a subclass.
+     */
+    Income() {
     }
 
     /**
@@ -38,7 +86,7 @@ public class Income extends Transaction {
      * @return Category of an <code>Income</code>.
      */
     public String getIncomeCategory() {
-        return incomeCategory;
+        return getCategory().getName();
     }
 
     /**
@@ -46,7 +94,18 @@ public class Income extends Transaction {
      * @param incomeCategory Category of an <code>Income</code> .
      */
     public void setIncomeCategory(String incomeCategory) {
-        this.incomeCategory = incomeCategory;
+        setCategory(new Category(incomeCategory, "INCOME"));
+    }
+
+    @Override
+    public Category getCategory() {
+        return incomeCategory;
+    }
+
+    @Override
+    public void setCategory(Category category) {
+        assert category.getType().equals("INCOME") : "category should be an income category";
+        this.incomeCategory = category;
     }
 
     /**
@@ -54,6 +113,6 @@ public class Income extends Transaction {
      */
     @Override
     public String toString() {
-        return "[I] " + incomeCategory.toUpperCase() + " " + super.toString();
+        return "[I] " + getIncomeCategory().toUpperCase() + " " + super.toString();
     }
 }
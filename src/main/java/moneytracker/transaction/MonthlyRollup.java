@@ -0,0 +1,198 @@
+package moneytracker.transaction;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the total amount and the number of transactions of each month, for each type and category, so that
+ * the totals of a month are looked up without visiting its transactions. The totals are updated by the
+ * <code>TransactionList</code> whenever a transaction is added, edited or deleted, or a category is renamed,
+ * and are kept in cents.
+ */
+public class MonthlyRollup {
+    private final HashMap<YearMonth, MonthTotals> totalsByMonth = new HashMap<>();
+    private int transactionCount = 0;
+
+    /**
+     * Adds a transaction to the totals of its month.
+     *
+     * @param month Month of the transaction.
+     * @param category Category of the transaction.
+     * @param amountCents Amount of the transaction in cents.
+     */
+    public void add(YearMonth month, Category category, long amountCents) {
+        add(month, category.getType(), category.getName(), amountCents, 1);
+    }
+
+    /**
+     * Adds a number of transactions to the totals of a month and category.
+     *
+     * @param month Month of the transactions.
+     * @param type Type of the category, either INCOME or EXPENSE.
+     * @param categoryName Name of the category.
+     * @param amountCents Total amount of the transactions in cents.
+     * @param count Number of transactions.
+     */
+    public void add(YearMonth month, String type, String categoryName, long amountCents, int count) {
+        MonthTotals totals = totalsByMonth.computeIfAbsent(month, m -> new MonthTotals());
+        totals.add(type, categoryName, amountCents, count);
+        transactionCount += count;
+    }
+
+    /**
+     * Removes a transaction from the totals of its month.
+     *
+     * @param month Month of the transaction.
+     * @param category Category of the transaction.
+     * @param amountCents Amount of the transaction in cents.
+     */
+    public void remove(YearMonth month, Category category, long amountCents) {
+        MonthTotals totals = totalsByMonth.get(month);
+        if (totals == null) {
+            return;
+        }
+        totals.add(category.getType(), category.getName(), -amountCents, -1);
+        transactionCount--;
+        if (totals.categoryTotals.isEmpty()) {
+            totalsByMonth.remove(month);
+        }
+    }
+
+    /**
+     * Moves the totals of a category to its new name in every month. If a category with the new name already
+     * has totals in a month, the totals of both categories are added up.
+     *
+     * @param type Type of the category, either INCOME or EXPENSE.
+     * @param currentName Current name of the category.
+     * @param newName New name of the category.
+     */
+    public void renameCategory(String type, String currentName, String newName) {
+        String currentKey = Category.getKey(type, currentName);
+        if (currentKey.equals(Category.getKey(type, newName))) {
+            return;
+        }
+        for (MonthTotals totals : totalsByMonth.values()) {
+            CategoryTotal total = totals.categoryTotals.remove(currentKey);
+            if (total != null) {
+                totals.categoryTotals.merge(Category.getKey(type, newName),
+                        new CategoryTotal(type, newName, total.amountCents, total.count), CategoryTotal::merge);
+            }
+        }
+    }
+
+    /**
+     * Gets the total amount of the transactions of a type in a month.
+     *
+     * @param month Month of the transactions.
+     * @param type Type of the transactions, either INCOME or EXPENSE.
+     * @return Total amount in cents.
+     */
+    public long getTotalCents(YearMonth month, String type) {
+        MonthTotals totals = totalsByMonth.get(month);
+        if (totals == null) {
+            return 0;
+        }
+        return type.equals("INCOME") ? totals.incomeCents : totals.expenseCents;
+    }
+
+    /**
+     * Gets the total amount of the transactions of a category in a month.
+     *
+     * @param month Month of the transactions.
+     * @param type Type of the category, either INCOME or EXPENSE.
+     * @param categoryName Name of the category.
+     * @return Total amount in cents.
+     */
+    public long getCategoryTotalCents(YearMonth month, String type, String categoryName) {
+        MonthTotals totals = totalsByMonth.get(month);
+        if (totals == null) {
+            return 0;
+        }
+        CategoryTotal total = totals.categoryTotals.get(Category.getKey(type, categoryName));
+        return total == null ? 0 : total.amountCents;
+    }
+
+    /**
+     * Gets the number of transactions in the totals.
+     */
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    /**
+     * Gets the totals of each month and category, so that they can be saved.
+     *
+     * @return Totals of each month, by category.
+     */
+    public Map<YearMonth, List<CategoryTotal>> getCategoryTotals() {
+        HashMap<YearMonth, List<CategoryTotal>> categoryTotals = new HashMap<>();
+        for (Map.Entry<YearMonth, MonthTotals> entry : totalsByMonth.entrySet()) {
+            categoryTotals.put(entry.getKey(), new ArrayList<>(entry.getValue().categoryTotals.values()));
+        }
+        return categoryTotals;
+    }
+
+    /**
+     * Represents the totals of the transactions of a month.
+     */
+    private static class MonthTotals {
+        private final HashMap<String, CategoryTotal> categoryTotals = new HashMap<>();
+        private long incomeCents = 0;
+        private long expenseCents = 0;
+
+        private void add(String type, String categoryName, long amountCents, int count) {
+            if (type.equals("INCOME")) {
+                incomeCents += amountCents;
+            } else {
+                expenseCents += amountCents;
+            }
+            String key = Category.getKey(type, categoryName);
+            CategoryTotal total = categoryTotals.merge(key, new CategoryTotal(type, categoryName, amountCents, count),
+                    CategoryTotal::merge);
+            if (total.count <= 0) {
+                categoryTotals.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Represents the total amount and the number of the transactions of a category in a month.
+     */
+    public static class CategoryTotal {
+        private final String type;
+        private final String categoryName;
+        private final long amountCents;
+        private final int count;
+
+        private CategoryTotal(String type, String categoryName, long amountCents, int count) {
+            this.type = type;
+            this.categoryName = categoryName;
+            this.amountCents = amountCents;
+            this.count = count;
+        }
+
+        private static CategoryTotal merge(CategoryTotal total, CategoryTotal other) {
+            return new CategoryTotal(total.type, total.categoryName, total.amountCents + other.amountCents,
+                    total.count + other.count);
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getCategoryName() {
+            return categoryName;
+        }
+
+        public long getAmountCents() {
+            return amountCents;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+}
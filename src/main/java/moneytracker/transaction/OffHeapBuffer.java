@@ -0,0 +1,215 @@
+package moneytracker.transaction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Represents a growable block of memory outside the Java heap, addressed by <code>long</code> positions. The
+ * memory is either a file mapped into memory, so that its content is kept when the program exits, or direct
+ * memory. It is split into segments of the same size, since a single buffer is limited to 2GB, and values
+ * that are read and written as a whole must not cross a segment boundary.
+ */
+class OffHeapBuffer {
+    static final int MAPPED_SEGMENT_SIZE = 1 << 24;
+    private static final int COPY_CHUNK_SIZE = 1 << 16;
+    private final FileChannel channel;
+    private final int segmentShift;
+    private final int segmentMask;
+    private final ArrayList<ByteBuffer> segments = new ArrayList<>();
+
+    private OffHeapBuffer(FileChannel channel, int segmentSize) {
+        assert Integer.bitCount(segmentSize) == 1 : "segment size should be a power of two";
+        this.channel = channel;
+        this.segmentShift = Integer.numberOfTrailingZeros(segmentSize);
+        this.segmentMask = segmentSize - 1;
+    }
+
+    /**
+     * Maps a file into memory, creating it if it does not exist. The whole content of an existing file is mapped.
+     *
+     * @param filePath Path of the file.
+     * @return Buffer backed by the file.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    static OffHeapBuffer map(Path filePath) throws IOException {
+        return map(filePath, Long.MAX_VALUE);
+    }
+
+    /**
+     * Maps a file into memory like <code>map(Path)</code>, after shrinking an existing file to the whole segments
+     * that hold the bytes in use. A mapped file cannot be shrunk, so the space given up by compacting its content
+     * is returned to the disk when it is mapped again.
+     *
+     * @param filePath Path of the file.
+     * @param usedSize Number of bytes at the start of the file that are in use.
+     * @return Buffer backed by the file.
+     * @throws IOException If the file cannot be opened, shrunk or mapped.
+     */
+    static OffHeapBuffer map(Path filePath, long usedSize) throws IOException {
+        FileChannel channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        OffHeapBuffer buffer = new OffHeapBuffer(channel, MAPPED_SEGMENT_SIZE);
+        try {
+            if (usedSize < channel.size()) {
+                long keptSize = (usedSize + buffer.segmentMask) >>> buffer.segmentShift << buffer.segmentShift;
+                if (keptSize < channel.size()) {
+                    channel.truncate(keptSize);
+                }
+            }
+            buffer.ensureCapacity(channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return buffer;
+    }
+
+    /**
+     * Allocates a buffer in direct memory.
+     *
+     * @param segmentSize Size of each segment in bytes, which must be a power of two.
+     * @return Buffer in direct memory.
+     */
+    static OffHeapBuffer allocate(int segmentSize) {
+        return new OffHeapBuffer(null, segmentSize);
+    }
+
+    /**
+     * Gets the number of bytes that can be addressed without growing the buffer.
+     */
+    long getCapacity() {
+        return (long) segments.size() << segmentShift;
+    }
+
+    /**
+     * Grows the buffer by whole segments until it holds at least a number of bytes. A mapped file grows with it.
+     *
+     * @param capacity Minimum number of bytes.
+     * @throws IOException If the file cannot be mapped.
+     */
+    void ensureCapacity(long capacity) throws IOException {
+        while (getCapacity() < capacity) {
+            int segmentSize = segmentMask + 1;
+            if (channel == null) {
+                segments.add(ByteBuffer.allocateDirect(segmentSize));
+            } else {
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, getCapacity(), segmentSize));
+            }
+        }
+    }
+
+    byte getByte(long position) {
+        return segment(position).get(offset(position));
+    }
+
+    void putByte(long position, byte value) {
+        segment(position).put(offset(position), value);
+    }
+
+    int getInt(long position) {
+        return segment(position).getInt(offset(position));
+    }
+
+    void putInt(long position, int value) {
+        segment(position).putInt(offset(position), value);
+    }
+
+    long getLong(long position) {
+        return segment(position).getLong(offset(position));
+    }
+
+    void putLong(long position, long value) {
+        segment(position).putLong(offset(position), value);
+    }
+
+    /**
+     * Reads bytes that may cross segment boundaries.
+     */
+    void getBytes(long position, byte[] bytes, int offset, int length) {
+        while (length > 0) {
+            ByteBuffer segment = segment(position).duplicate();
+            int count = Math.min(length, segmentMask + 1 - offset(position));
+            segment.position(offset(position));
+            segment.get(bytes, offset, count);
+            position += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Writes bytes that may cross segment boundaries.
+     */
+    void putBytes(long position, byte[] bytes, int offset, int length) {
+        while (length > 0) {
+            ByteBuffer segment = segment(position).duplicate();
+            int count = Math.min(length, segmentMask + 1 - offset(position));
+            segment.position(offset(position));
+            segment.put(bytes, offset, count);
+            position += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Copies a range of bytes to a position in this or another buffer. The ranges may overlap.
+     *
+     * @param from Position of the first byte to be copied.
+     * @param target Buffer that the bytes are copied to.
+     * @param to Position in the target buffer that the first byte is copied to.
+     * @param length Number of bytes.
+     */
+    void copyTo(long from, OffHeapBuffer target, long to, long length) {
+        byte[] chunk = new byte[(int) Math.max(1, Math.min(length, COPY_CHUNK_SIZE))];
+        if (target != this || to <= from) {
+            for (long done = 0; done < length; done += chunk.length) {
+                int count = (int) Math.min(chunk.length, length - done);
+                getBytes(from + done, chunk, 0, count);
+                target.putBytes(to + done, chunk, 0, count);
+            }
+            return;
+        }
+        for (long remaining = length; remaining > 0; remaining -= chunk.length) {
+            int count = (int) Math.min(chunk.length, remaining);
+            getBytes(from + remaining - count, chunk, 0, count);
+            putBytes(to + remaining - count, chunk, 0, count);
+        }
+    }
+
+    /**
+     * Writes the changed content of a mapped file to the disk.
+     */
+    void force() {
+        for (ByteBuffer segment : segments) {
+            if (segment instanceof MappedByteBuffer) {
+                ((MappedByteBuffer) segment).force();
+            }
+        }
+    }
+
+    /**
+     * Closes the mapped file. The buffer must not be used afterwards.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    void close() throws IOException {
+        segments.clear();
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private ByteBuffer segment(long position) {
+        return segments.get((int) (position >>> segmentShift));
+    }
+
+    private int offset(long position) {
+        return (int) (position & segmentMask);
+    }
+}
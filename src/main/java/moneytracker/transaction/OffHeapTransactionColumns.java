@@ -0,0 +1,477 @@
+package moneytracker.transaction;
+
+import moneytracker.helper.Money;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Stores transactions as fixed-width records outside the Java heap, so that the garbage collector does not
+ * have to visit them however large the ledger is. The records are kept in a file mapped into memory, or in
+ * direct memory, and the descriptions of all rows share a second block of memory:
+ * <pre>
+ * header (128 bytes): magic (int), version (int), clean flag (int), unused (int), row count (long),
+ *                     description bytes (long), replaced description bytes (long), generation (long),
+ *                     state of the save files (4 longs)
+ * record (32 bytes): type (byte), unused (3 bytes), date in epoch days (int), amount in cents (long),
+ *                    category id (int), description length (int), description offset (long)
+ * </pre>
+ * The names of the categories are kept in a small text file. The header is marked as clean by a checkpoint
+ * after all rows are written to the disk, and as dirty again when the file is opened, so that a file that was
+ * not closed properly is never reused. The bytes of replaced and removed descriptions are reclaimed when rows
+ * are removed or at a checkpoint, once they make up half of the descriptions, and the file of the descriptions
+ * is shrunk to the bytes in use when it is opened again.
+ */
+class OffHeapTransactionColumns extends AbstractList<Transaction> implements RandomAccess, TransactionRows {
+    static final String DESCRIPTIONS_SUFFIX = ".text";
+    static final String CATEGORIES_SUFFIX = ".categories";
+    private static final int MAGIC = 0x4D544F48;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 128;
+    private static final int RECORD_SIZE = 32;
+    private static final int CLEAN_OFFSET = 8;
+    private static final int SIZE_OFFSET = 16;
+    private static final int ARENA_SIZE_OFFSET = 24;
+    private static final int GARBAGE_SIZE_OFFSET = 32;
+    private static final int GENERATION_OFFSET = 40;
+    private static final int STATE_OFFSET = 48;
+    private static final int STATE_LENGTH = 4;
+    private static final int EPOCH_DAY_FIELD = 4;
+    private static final int AMOUNT_FIELD = 8;
+    private static final int CATEGORY_ID_FIELD = 16;
+    private static final int DESCRIPTION_LENGTH_FIELD = 20;
+    private static final int DESCRIPTION_OFFSET_FIELD = 24;
+    private static final int DIRECT_SEGMENT_SIZE = 1 << 20;
+    private static final long MIN_COMPACTION_GARBAGE = 1 << 12;
+    private static final byte INCOME = 'I';
+    private static final byte EXPENSE = 'E';
+    private static final String SEPARATOR = " | ";
+    private final OffHeapBuffer records;
+    private final OffHeapBuffer descriptions;
+    private final CategoryTable categories;
+    private final Path categoriesFilePath;
+    private int size = 0;
+    private long arenaSize = 0;
+    private long garbageSize = 0;
+    private long checkpointGeneration = -1;
+    private long[] checkpointState = null;
+
+    /**
+     * Initializes an empty <code>OffHeapTransactionColumns</code> object in direct memory.
+     */
+    OffHeapTransactionColumns() {
+        this(OffHeapBuffer.allocate(DIRECT_SEGMENT_SIZE), OffHeapBuffer.allocate(DIRECT_SEGMENT_SIZE),
+                new CategoryTable(), null);
+    }
+
+    private OffHeapTransactionColumns(OffHeapBuffer records, OffHeapBuffer descriptions, CategoryTable categories,
+                                      Path categoriesFilePath) {
+        this.records = records;
+        this.descriptions = descriptions;
+        this.categories = categories;
+        this.categoriesFilePath = categoriesFilePath;
+        ensureCapacity(records, HEADER_SIZE);
+    }
+
+    /**
+     * Opens the columns kept in a file. If the file was closed by a checkpoint, its rows are used as they are,
+     * without reading them. Otherwise, the columns start empty. The file is marked as dirty until the next
+     * checkpoint.
+     *
+     * @param filePath Path of the file of the records.
+     * @return Columns kept in the file.
+     * @throws IOException If the files cannot be opened.
+     */
+    static OffHeapTransactionColumns open(String filePath) throws IOException {
+        OffHeapBuffer records = OffHeapBuffer.map(Paths.get(filePath));
+        OffHeapBuffer descriptions;
+        try {
+            long descriptionBytes = isClean(records) ? Math.max(records.getLong(ARENA_SIZE_OFFSET), 0) : 0;
+            descriptions = OffHeapBuffer.map(Paths.get(filePath + DESCRIPTIONS_SUFFIX), descriptionBytes);
+        } catch (IOException e) {
+            records.close();
+            throw e;
+        }
+        OffHeapTransactionColumns columns = new OffHeapTransactionColumns(records, descriptions, new CategoryTable(),
+                Paths.get(filePath + CATEGORIES_SUFFIX));
+        columns.readHeader();
+        columns.records.putInt(CLEAN_OFFSET, 0);
+        columns.records.putInt(0, MAGIC);
+        columns.records.putInt(4, VERSION);
+        columns.records.force();
+        return columns;
+    }
+
+    /**
+     * Reads the rows of a file that was closed by a checkpoint.
+     */
+    private void readHeader() {
+        if (!isClean(records)) {
+            return;
+        }
+        long rowCount = records.getLong(SIZE_OFFSET);
+        long descriptionBytes = records.getLong(ARENA_SIZE_OFFSET);
+        if (rowCount < 0 || rowCount > Integer.MAX_VALUE
+                || HEADER_SIZE + rowCount * RECORD_SIZE > records.getCapacity()
+                || descriptionBytes < 0 || descriptionBytes > descriptions.getCapacity()
+                || !readCategories()) {
+            return;
+        }
+        size = (int) rowCount;
+        arenaSize = descriptionBytes;
+        garbageSize = records.getLong(GARBAGE_SIZE_OFFSET);
+        checkpointGeneration = records.getLong(GENERATION_OFFSET);
+        checkpointState = new long[STATE_LENGTH];
+        for (int i = 0; i < STATE_LENGTH; i++) {
+            checkpointState[i] = records.getLong(STATE_OFFSET + i * Long.BYTES);
+        }
+    }
+
+    /**
+     * Checks whether the header of a file of records was marked as clean by a checkpoint.
+     */
+    private static boolean isClean(OffHeapBuffer records) {
+        return records.getCapacity() >= HEADER_SIZE && records.getInt(0) == MAGIC && records.getInt(4) == VERSION
+                && records.getInt(CLEAN_OFFSET) == 1;
+    }
+
+    private boolean readCategories() {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(categoriesFilePath, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return false;
+        }
+        for (String line : lines) {
+            int separatorIndex = line.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                categories.clear();
+                return false;
+            }
+            categories.add(new Category(line.substring(separatorIndex + SEPARATOR.length()),
+                    line.substring(0, separatorIndex)));
+        }
+        return true;
+    }
+
+    /**
+     * Writes all rows to the disk and marks the file as clean, so that it can be opened again without reading
+     * the save files. The descriptions are compacted first if enough of their bytes were left behind. The columns
+     * must be closed afterwards, since later changes would not be seen by the next open.
+     *
+     * @param generation Generation of the save file that the rows were loaded from.
+     * @param saveFileState State of the save files that the rows match.
+     * @throws IOException If the file cannot be written.
+     */
+    void checkpoint(long generation, long[] saveFileState) throws IOException {
+        assert categoriesFilePath != null : "only columns kept in a file can be checkpointed";
+        compactDescriptionsIfNeeded();
+        ArrayList<String> lines = new ArrayList<>(categories.size());
+        for (int id = 0; id < categories.size(); id++) {
+            Category category = categories.get(id);
+            lines.add(category.getType() + SEPARATOR + category.getName());
+        }
+        Path temporaryFile = Paths.get(categoriesFilePath + ".tmp");
+        Files.write(temporaryFile, lines, StandardCharsets.UTF_8);
+        Files.move(temporaryFile, categoriesFilePath, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        records.putLong(SIZE_OFFSET, size);
+        records.putLong(ARENA_SIZE_OFFSET, arenaSize);
+        records.putLong(GARBAGE_SIZE_OFFSET, garbageSize);
+        records.putLong(GENERATION_OFFSET, generation);
+        for (int i = 0; i < STATE_LENGTH; i++) {
+            records.putLong(STATE_OFFSET + i * Long.BYTES, saveFileState[i]);
+        }
+        descriptions.force();
+        records.force();
+        records.putInt(CLEAN_OFFSET, 1);
+        records.force();
+        checkpointGeneration = generation;
+        checkpointState = saveFileState.clone();
+    }
+
+    /**
+     * Gets the generation of the save file recorded by the checkpoint that the rows were opened from.
+     *
+     * @return Generation, or -1 if the rows were not opened from a checkpoint.
+     */
+    long getCheckpointGeneration() {
+        return checkpointGeneration;
+    }
+
+    /**
+     * Checks whether the rows were opened from a checkpoint of the given state of the save files.
+     */
+    boolean isCheckpointOf(long[] saveFileState) {
+        if (checkpointState == null || saveFileState.length != STATE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < STATE_LENGTH; i++) {
+            if (checkpointState[i] != saveFileState[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Closes the files of the columns. The columns must not be used afterwards.
+     *
+     * @throws IOException If the files cannot be closed.
+     */
+    void close() throws IOException {
+        records.close();
+        descriptions.close();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets a view of a row. The view reads and changes the row in place, and refers to another row once a row
+     * before it is added or removed.
+     */
+    @Override
+    public Transaction get(int index) {
+        TransactionColumns.checkIndex(index, size);
+        return records.getByte(getRecordPosition(index)) == INCOME ? new TransactionColumns.IncomeView(this, index)
+                : new TransactionColumns.ExpenseView(this, index);
+    }
+
+    /**
+     * Replaces a row with the values of a <code>Transaction</code> object.
+     *
+     * @return Copy of the previous values of the row.
+     */
+    @Override
+    public Transaction set(int index, Transaction transaction) {
+        TransactionColumns.checkIndex(index, size);
+        Transaction previous = copyRow(index);
+        garbageSize += getDescriptionLength(index);
+        writeRow(index, transaction);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Transaction transaction) {
+        TransactionColumns.checkIndex(index, size + 1);
+        ensureCapacity(records, getRecordPosition(size + 1));
+        records.copyTo(getRecordPosition(index), records, getRecordPosition(index + 1),
+                (long) (size - index) * RECORD_SIZE);
+        size++;
+        writeRow(index, transaction);
+        modCount++;
+    }
+
+    /**
+     * Removes a row.
+     *
+     * @return Copy of the values of the removed row.
+     */
+    @Override
+    public Transaction remove(int index) {
+        TransactionColumns.checkIndex(index, size);
+        Transaction removed = copyRow(index);
+        BitSet rows = new BitSet();
+        rows.set(index);
+        removeRows(rows);
+        return removed;
+    }
+
+    /**
+     * Removes rows in one pass, moving each run of remaining rows down once.
+     *
+     * @param rows Rows to be removed.
+     */
+    void removeRows(BitSet rows) {
+        int position = 0;
+        int row = 0;
+        while (row < size) {
+            if (rows.get(row)) {
+                garbageSize += getDescriptionLength(row);
+                row++;
+                continue;
+            }
+            int end = Math.min(size, rows.nextSetBit(row) < 0 ? size : rows.nextSetBit(row));
+            if (position != row) {
+                records.copyTo(getRecordPosition(row), records, getRecordPosition(position),
+                        (long) (end - row) * RECORD_SIZE);
+            }
+            position += end - row;
+            row = end;
+        }
+        size = position;
+        modCount++;
+        compactDescriptionsIfNeeded();
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        arenaSize = 0;
+        garbageSize = 0;
+        categories.clear();
+        modCount++;
+    }
+
+    /**
+     * Moves the id of a category that was renamed to its new key.
+     *
+     * @param type Type of the category, either INCOME or EXPENSE.
+     * @param currentName Previous name of the category.
+     * @param newName New name of the category.
+     */
+    void renameCategory(String type, String currentName, String newName) {
+        categories.rename(type, currentName, newName);
+    }
+
+    @Override
+    public long getAmountCents(int row) {
+        return records.getLong(getRecordPosition(row) + AMOUNT_FIELD);
+    }
+
+    @Override
+    public void setAmountCents(int row, long cents) {
+        records.putLong(getRecordPosition(row) + AMOUNT_FIELD, cents);
+    }
+
+    @Override
+    public LocalDate getDate(int row) {
+        return LocalDate.ofEpochDay(records.getInt(getRecordPosition(row) + EPOCH_DAY_FIELD));
+    }
+
+    @Override
+    public void setDate(int row, LocalDate date) {
+        records.putInt(getRecordPosition(row) + EPOCH_DAY_FIELD, (int) date.toEpochDay());
+    }
+
+    @Override
+    public Category getCategory(int row) {
+        return categories.get(records.getInt(getRecordPosition(row) + CATEGORY_ID_FIELD));
+    }
+
+    @Override
+    public void setCategory(int row, Category category) {
+        records.putInt(getRecordPosition(row) + CATEGORY_ID_FIELD, categories.getId(category));
+    }
+
+    @Override
+    public String getDescription(int row) {
+        int length = getDescriptionLength(row);
+        if (length == 0) {
+            return "";
+        }
+        byte[] bytes = new byte[length];
+        descriptions.getBytes(records.getLong(getRecordPosition(row) + DESCRIPTION_OFFSET_FIELD), bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void setDescription(int row, String description) {
+        garbageSize += getDescriptionLength(row);
+        appendDescription(row, description);
+    }
+
+    /**
+     * Writes the values of a <code>Transaction</code> object to a row. All values are read before the row is
+     * written, since the <code>Transaction</code> may be a view of this row.
+     */
+    private void writeRow(int row, Transaction transaction) {
+        byte type;
+        if (transaction instanceof Income) {
+            type = INCOME;
+        } else if (transaction instanceof Expense) {
+            type = EXPENSE;
+        } else {
+            throw new IllegalArgumentException("The type is invalid");
+        }
+        records.putByte(getRecordPosition(row), type);
+        setAmountCents(row, transaction.getAmountCents());
+        setDate(row, transaction.getLocalDate());
+        setCategory(row, transaction.getCategory());
+        appendDescription(row, transaction.getDescription());
+    }
+
+    private Transaction copyRow(int row) {
+        if (records.getByte(getRecordPosition(row)) == INCOME) {
+            return new Income(Money.toDollars(getAmountCents(row)), getDescription(row), getDate(row),
+                    getCategory(row).getName());
+        }
+        return new Expense(Money.toDollars(getAmountCents(row)), getDescription(row), getDate(row),
+                getCategory(row).getName());
+    }
+
+    private int getDescriptionLength(int row) {
+        return records.getInt(getRecordPosition(row) + DESCRIPTION_LENGTH_FIELD);
+    }
+
+    /**
+     * Appends a description to the end of the descriptions. The bytes of a replaced description are left behind.
+     */
+    private void appendDescription(int row, String description) {
+        byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(descriptions, arenaSize + bytes.length);
+        descriptions.putBytes(arenaSize, bytes, 0, bytes.length);
+        records.putLong(getRecordPosition(row) + DESCRIPTION_OFFSET_FIELD, arenaSize);
+        records.putInt(getRecordPosition(row) + DESCRIPTION_LENGTH_FIELD, bytes.length);
+        arenaSize += bytes.length;
+    }
+
+    /**
+     * Moves the descriptions of the rows together once at least half of the description bytes were left behind
+     * by replaced or removed descriptions. The descriptions are first copied in row order after the last
+     * description, and then back to the start as one block, so that no description is overwritten before it is
+     * copied and no copy of the descriptions is made on the heap.
+     */
+    private void compactDescriptionsIfNeeded() {
+        if (garbageSize < MIN_COMPACTION_GARBAGE || garbageSize < arenaSize / 2) {
+            return;
+        }
+        ensureCapacity(descriptions, 2 * arenaSize - garbageSize);
+        byte[] bytes = new byte[256];
+        long offset = 0;
+        for (int row = 0; row < size; row++) {
+            long position = getRecordPosition(row);
+            int length = getDescriptionLength(row);
+            if (length > bytes.length) {
+                bytes = new byte[length];
+            }
+            descriptions.getBytes(records.getLong(position + DESCRIPTION_OFFSET_FIELD), bytes, 0, length);
+            descriptions.putBytes(arenaSize + offset, bytes, 0, length);
+            records.putLong(position + DESCRIPTION_OFFSET_FIELD, offset);
+            offset += length;
+        }
+        descriptions.copyTo(arenaSize, descriptions, 0, offset);
+        arenaSize = offset;
+        garbageSize = 0;
+    }
+
+    private static long getRecordPosition(int row) {
+        return HEADER_SIZE + (long) row * RECORD_SIZE;
+    }
+
+    /**
+     * Grows a buffer, turning a failure to map more of the file into an unchecked exception, since rows are
+     * added through the <code>List</code> interface.
+     */
+    private static void ensureCapacity(OffHeapBuffer buffer, long capacity) {
+        try {
+            buffer.ensureCapacity(capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package moneytracker.transaction;
+
+import java.io.IOException;
+import java.util.BitSet;
+
+/**
+ * Represents a <code>TransactionList</code> that stores its transactions as fixed-width records outside the Java
+ * heap, either in direct memory or in a file mapped into memory. A list kept in a file can be reopened after a
+ * checkpoint without reading the save files again. Like the <code>ColumnarTransactionList</code>, the
+ * <code>Transaction</code> objects returned by it are views of its rows.
+ */
+public class OffHeapTransactionList extends TransactionList {
+    private final OffHeapTransactionColumns columns;
+
+    /**
+     * Initializes an empty <code>OffHeapTransactionList</code> object in direct memory.
+     */
+    public OffHeapTransactionList() {
+        this(new OffHeapTransactionColumns());
+    }
+
+    private OffHeapTransactionList(OffHeapTransactionColumns columns) {
+        super(columns);
+        this.columns = columns;
+    }
+
+    /**
+     * Opens an <code>OffHeapTransactionList</code> kept in a file. The list holds the transactions of the last
+     * checkpoint if the file was closed by one, and is empty otherwise.
+     *
+     * @param filePath Path of the file.
+     * @return List kept in the file.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static OffHeapTransactionList open(String filePath) throws IOException {
+        return new OffHeapTransactionList(OffHeapTransactionColumns.open(filePath));
+    }
+
+    /**
+     * Checks whether the transactions were opened from a checkpoint of the given state of the save files.
+     *
+     * @param saveFileState State of the save files, such as their sizes and modification times.
+     * @return Whether the transactions match the save files.
+     */
+    public boolean isCheckpointOf(long[] saveFileState) {
+        return columns.isCheckpointOf(saveFileState);
+    }
+
+    /**
+     * Gets the generation of the save file recorded by the checkpoint that the transactions were opened from.
+     *
+     * @return Generation, or -1 if the transactions were not opened from a checkpoint.
+     */
+    public long getCheckpointGeneration() {
+        return columns.getCheckpointGeneration();
+    }
+
+    /**
+     * Writes the transactions to the disk and records the state of the save files that they match, so that the
+     * file can be opened again without reading the save files. Rows that are marked as deleted are removed
+     * first.
+     *
+     * @param generation Generation of the save file.
+     * @param saveFileState State of the save files, such as their sizes and modification times.
+     * @throws IOException If the file cannot be written.
+     */
+    public void checkpoint(long generation, long[] saveFileState) throws IOException {
+        removeDeletedRows();
+        columns.checkpoint(generation, saveFileState);
+    }
+
+    /**
+     * Closes the file of the transactions. The list must not be used afterwards.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    public void close() throws IOException {
+        columns.close();
+    }
+
+    /**
+     * Renames a category of the rows in the <code>OffHeapTransactionList</code>, and moves the category id of
+     * the rows to the new name.
+     *
+     * @param currentName Current category name of <code>Transaction</code> objects.
+     * @param newName New category name of <code>Transaction</code> objects.
+     * @param type Type of the category, either INCOME or EXPENSE.
+     */
+    @Override
+    public void updateTransactionsCategory(String currentName, String newName, String type) {
+        super.updateTransactionsCategory(currentName, newName, type);
+        columns.renameCategory(type, currentName, newName);
+    }
+
+    /**
+     * Removes rows from the records in one pass, without reading the rows as objects.
+     *
+     * @param rows Rows to be removed.
+     */
+    @Override
+    protected void removeRows(BitSet rows) {
+        columns.removeRows(rows);
+    }
+}
@@ -0,0 +1,149 @@
+package moneytracker.transaction;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Maps each key, such as a month or a category, to the positions of the transactions with that key in a
+ * <code>TransactionList</code>. The positions of a key are kept in ascending order, so that the transactions
+ * of a key are visited in the order of the list. Positions of deleted transactions are kept until the list
+ * is compacted, and are skipped by the list, so that deleting a transaction does not change the index.
+ *
+ * @param <K> Type of the keys.
+ */
+class RowIndex<K> {
+    private static final int[] NO_ROWS = new int[0];
+    private final HashMap<K, RowList> rowsByKey = new HashMap<>();
+    private int rowCount = 0;
+
+    /**
+     * Adds the position of a transaction that was added to the end of the list.
+     *
+     * @param key Key of the transaction.
+     * @param row Position of the transaction.
+     */
+    void add(K key, int row) {
+        rowsByKey.computeIfAbsent(key, k -> new RowList()).insert(row);
+        rowCount++;
+    }
+
+    /**
+     * Changes the positions of the transactions after the list is compacted, and drops the positions of the
+     * deleted transactions.
+     *
+     * @param positions New position of each previous position, or -1 for a transaction that was deleted.
+     */
+    void remap(int[] positions) {
+        rowCount = 0;
+        rowsByKey.values().removeIf(keyRows -> {
+            int size = 0;
+            for (int i = 0; i < keyRows.size; i++) {
+                int row = positions[keyRows.rows[i]];
+                if (row >= 0) {
+                    keyRows.rows[size++] = row;
+                }
+            }
+            keyRows.size = size;
+            rowCount += size;
+            return size == 0;
+        });
+    }
+
+    /**
+     * Moves the position of a transaction whose key was changed.
+     *
+     * @param previousKey Previous key of the transaction.
+     * @param key New key of the transaction.
+     * @param row Position of the transaction.
+     */
+    void move(K previousKey, K key, int row) {
+        if (previousKey.equals(key)) {
+            return;
+        }
+        removeRow(previousKey, row);
+        rowsByKey.computeIfAbsent(key, k -> new RowList()).insert(row);
+    }
+
+    /**
+     * Moves the positions of all transactions of a key to another key. If the other key already has
+     * transactions, the positions of both keys are merged.
+     *
+     * @param previousKey Previous key of the transactions.
+     * @param key New key of the transactions.
+     */
+    void rename(K previousKey, K key) {
+        if (previousKey.equals(key)) {
+            return;
+        }
+        RowList rows = rowsByKey.remove(previousKey);
+        if (rows == null) {
+            return;
+        }
+        RowList keyRows = rowsByKey.putIfAbsent(key, rows);
+        if (keyRows != null) {
+            for (int i = 0; i < rows.size; i++) {
+                keyRows.insert(rows.rows[i]);
+            }
+        }
+    }
+
+    /**
+     * Gets the positions of the transactions of a key in ascending order.
+     *
+     * @param key Key of the transactions.
+     * @return Copy of the positions.
+     */
+    int[] getRows(K key) {
+        RowList rows = rowsByKey.get(key);
+        return rows == null ? NO_ROWS : Arrays.copyOf(rows.rows, rows.size);
+    }
+
+    private void removeRow(K key, int row) {
+        RowList rows = rowsByKey.get(key);
+        if (rows == null) {
+            return;
+        }
+        rows.remove(row);
+        if (rows.size == 0) {
+            rowsByKey.remove(key);
+        }
+    }
+
+    /**
+     * Gets the number of transactions in the index, including deleted transactions.
+     */
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Represents the sorted positions of the transactions of a key.
+     */
+    private static class RowList {
+        private int[] rows = new int[4];
+        private int size = 0;
+
+        private void insert(int row) {
+            int index = Arrays.binarySearch(rows, 0, size, row);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            System.arraycopy(rows, index, rows, index + 1, size - index);
+            rows[index] = row;
+            size++;
+        }
+
+        private void remove(int row) {
+            int index = Arrays.binarySearch(rows, 0, size, row);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(rows, index + 1, rows, index, size - index - 1);
+            size--;
+        }
+    }
+}
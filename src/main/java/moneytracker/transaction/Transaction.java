@@ -1,6 +1,7 @@
 package moneytracker.transaction;
 
 import moneytracker.exception.MoneyTrackerException;
+import moneytracker.helper.Money;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -13,7 +14,8 @@ import java.util.Locale;
  * subclasses with specific implementation of a transaction.
  */
 public abstract class Transaction {
-    private double amount;
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM", Locale.ENGLISH);
+    private long amountCents;
     private String description;
     private LocalDate date;
 
@@ -26,14 +28,42 @@ public abstract class Transaction {
      * @throws MoneyTrackerException If date format is invalid.
      */
     public Transaction(double amount, String description, String date) throws MoneyTrackerException {
-        this.amount = amount;
+        this.amountCents = Money.toCents(amount);
         this.description = description;
-        try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            this.date = LocalDate.parse(date, formatter);
-        } catch (DateTimeParseException e) {
-            throw new MoneyTrackerException("Date should be in yyyy-MM-dd format. E.g. 2020-12-25");
-        }
+        this.date = parseDate(date);
+    }
+
+    /**
+     * Initializes a <code>Transaction</code> object with a date that has already been parsed.
+     *
+     * @param amount Amount of money in a <code>Transaction</code>.
+     * @param description Description of a <code>Transaction</code>.
+     * @param date Date of a <code>Transaction</code>.
+     */
+    public Transaction(double amount, String description, LocalDate date) {
+        this.amountCents = Money.toCents(amount);
+        this.description = description;
+        this.date = date;
+    }
+
+    /**
+     * Initializes a <code>Transaction</code> object with an amount in cents and a date that have already been
+     * parsed.
+     *
+     * @param amountCents Amount of money in a <code>Transaction</code> in cents.
+     * @param description Description of a <code>Transaction</code>.
+     * @param date Date of a <code>Transaction</code>.
+     */
+    public Transaction(long amountCents, String description, LocalDate date) {
+        this.amountCents = amountCents;
+        this.description = description;
+        this.date = date;
+    }
+
+    /**
+     * Initializes a <code>Transaction</code> object whose values are kept by a subclass.
+     */
+    Transaction() {
     }
 
     /**
@@ -43,7 +73,7 @@ public abstract class Transaction {
      * @param description Description of a <code>Transaction</code>.
      */
     public Transaction(double amount, String description) {
-        this.amount = amount;
+        this.amountCents = Money.toCents(amount);
         this.description = description;
         this.date = LocalDate.now();
     }
@@ -54,26 +84,34 @@ public abstract class Transaction {
      * @return Amount of a <code>Transaction</code>.
      */
     public String getAmount() {
-        return String.valueOf(amount);
+        return String.valueOf(getAmountNumber());
     }
 
     /**
-     * Gets the typename of a <code>Transaction</code> object.
+     * Sets the amount of a <code>Transaction</code>.
      *
-     * @param description Description of a transaction.
-     * @return typename of a <code>Transaction</code> object.
+     * @param amount Amount of money in a <code>Transaction</code>.
      */
-    public String getTypeName(String description) {
-        return description.split(" ")[1];
+    public void setAmount(double amount) {
+        setAmountCents(Money.toCents(amount));
     }
 
     /**
-     * Sets the amount of a <code>Transaction</code>.
+     * Gets the amount of a <code>Transaction</code> in cents.
      *
-     * @param amount Amount of money in a <code>Transaction</code>.
+     * @return Amount of a <code>Transaction</code> in cents.
      */
-    public void setAmount(double amount) {
-        this.amount = amount;
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    /**
+     * Sets the amount of a <code>Transaction</code> in cents.
+     *
+     * @param amountCents Amount of money in a <code>Transaction</code> in cents.
+     */
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
     }
 
     /**
@@ -101,15 +139,30 @@ public abstract class Transaction {
      * @return Date of a <code>Transaction</code>.
      */
     public String getDate() {
-        return date.toString();
+        return getLocalDate().toString();
     }
 
     public LocalDate getLocalDate() {
         return date;
     }
 
+    /**
+     * Gets the category of a <code>Transaction</code>. Transactions of a <code>TransactionList</code> with the
+     * same category name share one <code>Category</code> object.
+     *
+     * @return Category of a <code>Transaction</code>.
+     */
+    public abstract Category getCategory();
+
+    /**
+     * Sets the category of a <code>Transaction</code>.
+     *
+     * @param category Category of a <code>Transaction</code>.
+     */
+    public abstract void setCategory(Category category);
+
     public double getAmountNumber() {
-        return amount;
+        return Money.toDollars(getAmountCents());
     }
     /**
      * Sets the date of a <code>Transaction</code>.
@@ -119,17 +172,27 @@ public abstract class Transaction {
      */
 
     public void setDate(String date) throws MoneyTrackerException {
+        this.date = parseDate(date);
+    }
+
+    /**
+     * Parses a date in the format used by user inputs and save files.
+     *
+     * @param date Date in yyyy-MM-dd format.
+     * @return Parsed date.
+     * @throws MoneyTrackerException If date format is invalid.
+     */
+    protected static LocalDate parseDate(String date) throws MoneyTrackerException {
         try {
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            this.date = LocalDate.parse(date, formatter);
+            return LocalDate.parse(date, formatter);
         } catch (DateTimeParseException e) {
             throw new MoneyTrackerException("Date should be in yyyy-MM-dd format. E.g. 2020-12-25");
         }
     }
 
     public String setMonth() {
-        DateTimeFormatter formattedMonth = DateTimeFormatter.ofPattern("yyyy-MM", Locale.ENGLISH);
-        return formattedMonth.format(this.date);
+        return MONTH_FORMATTER.format(getLocalDate());
     }
 
     /**
@@ -137,8 +200,9 @@ public abstract class Transaction {
      */
     @Override
     public String toString() {
-        String output = "$" + String.format("%.2f", amount) + " on "
-                + date.format(DateTimeFormatter.ofPattern("d MMM yyyy"));
+        String output = "$" + Money.format(getAmountCents()) + " on "
+                + getLocalDate().format(DateTimeFormatter.ofPattern("d MMM yyyy"));
+        String description = getDescription();
         if (description.isEmpty()) {
             return output;
         } else {
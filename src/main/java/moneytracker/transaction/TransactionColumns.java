@@ -0,0 +1,443 @@
+package moneytracker.transaction;
+
+import moneytracker.exception.MoneyTrackerException;
+import moneytracker.helper.Money;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Stores transactions column by column in primitive arrays. Amounts are kept in cents in a <code>long[]</code>,
+ * dates as epoch days in an <code>int[]</code> and categories as ids into a table of categories, while
+ * the descriptions of all rows share a single UTF-8 byte arena. Rows are read and changed through
+ * <code>Income</code> and <code>Expense</code> views that only hold the row index, so a row costs about
+ * 25 bytes plus its description instead of five objects.
+ */
+class TransactionColumns extends AbstractList<Transaction> implements RandomAccess, TransactionRows {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_ARENA_CAPACITY = 1 << 10;
+    private static final int MIN_COMPACTION_GARBAGE = 1 << 12;
+    private static final byte INCOME = 'I';
+    private static final byte EXPENSE = 'E';
+    private byte[] types;
+    private long[] amountCents;
+    private int[] epochDays;
+    private int[] categoryIds;
+    private int[] descriptionOffsets;
+    private int[] descriptionLengths;
+    private byte[] descriptionArena;
+    private int arenaSize = 0;
+    private int garbageSize = 0;
+    private int size = 0;
+    private final CategoryTable categories;
+
+    /**
+     * Initializes an empty <code>TransactionColumns</code> object.
+     */
+    TransactionColumns() {
+        types = new byte[INITIAL_CAPACITY];
+        amountCents = new long[INITIAL_CAPACITY];
+        epochDays = new int[INITIAL_CAPACITY];
+        categoryIds = new int[INITIAL_CAPACITY];
+        descriptionOffsets = new int[INITIAL_CAPACITY];
+        descriptionLengths = new int[INITIAL_CAPACITY];
+        descriptionArena = new byte[INITIAL_ARENA_CAPACITY];
+        categories = new CategoryTable();
+    }
+
+    /**
+     * Initializes a <code>TransactionColumns</code> object with a copy of the rows of another one.
+     *
+     * @param other Columns to be copied.
+     */
+    TransactionColumns(TransactionColumns other) {
+        int capacity = Math.max(other.size, INITIAL_CAPACITY);
+        types = Arrays.copyOf(other.types, capacity);
+        amountCents = Arrays.copyOf(other.amountCents, capacity);
+        epochDays = Arrays.copyOf(other.epochDays, capacity);
+        categoryIds = Arrays.copyOf(other.categoryIds, capacity);
+        descriptionOffsets = Arrays.copyOf(other.descriptionOffsets, capacity);
+        descriptionLengths = Arrays.copyOf(other.descriptionLengths, capacity);
+        descriptionArena = Arrays.copyOf(other.descriptionArena, Math.max(other.arenaSize, INITIAL_ARENA_CAPACITY));
+        arenaSize = other.arenaSize;
+        garbageSize = other.garbageSize;
+        size = other.size;
+        categories = new CategoryTable(other.categories);
+    }
+
+    /**
+     * Copies transactions into new columns with their own copies of the categories, so that the copy is not
+     * affected by later changes to the transactions, such as a category that is renamed.
+     *
+     * @param transactions Transactions to be copied.
+     * @return Copy of the transactions.
+     */
+    static TransactionColumns copyOf(List<Transaction> transactions) {
+        TransactionColumns copy = new TransactionColumns();
+        copy.ensureCapacity(transactions.size());
+        copy.addAll(transactions);
+        copy.categories.copyCategories();
+        return copy;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets a view of a row. The view reads and changes the row in place, and refers to another row once a row
+     * before it is added or removed.
+     */
+    @Override
+    public Transaction get(int index) {
+        checkIndex(index, size);
+        return types[index] == INCOME ? new IncomeView(this, index) : new ExpenseView(this, index);
+    }
+
+    /**
+     * Replaces a row with the values of a <code>Transaction</code> object.
+     *
+     * @return Copy of the previous values of the row.
+     */
+    @Override
+    public Transaction set(int index, Transaction transaction) {
+        checkIndex(index, size);
+        garbageSize += descriptionLengths[index];
+        Transaction previous = copyRow(index);
+        writeRow(index, transaction);
+        compactArenaIfNeeded();
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Transaction transaction) {
+        checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        shiftRows(index, index + 1, size - index);
+        size++;
+        writeRow(index, transaction);
+        modCount++;
+    }
+
+    /**
+     * Removes a row.
+     *
+     * @return Copy of the values of the removed row.
+     */
+    @Override
+    public Transaction remove(int index) {
+        checkIndex(index, size);
+        Transaction removed = copyRow(index);
+        deleteRow(index);
+        return removed;
+    }
+
+    /**
+     * Moves the rows after a row down over it and leaves the bytes of its description behind.
+     */
+    private void deleteRow(int index) {
+        garbageSize += descriptionLengths[index];
+        shiftRows(index + 1, index, size - index - 1);
+        size--;
+        modCount++;
+        compactArenaIfNeeded();
+    }
+
+    /**
+     * Removes rows in one pass, moving each remaining row down once.
+     *
+     * @param rows Rows to be removed.
+     */
+    void removeRows(BitSet rows) {
+        int position = 0;
+        for (int row = 0; row < size; row++) {
+            if (rows.get(row)) {
+                garbageSize += descriptionLengths[row];
+                continue;
+            }
+            if (position != row) {
+                types[position] = types[row];
+                amountCents[position] = amountCents[row];
+                epochDays[position] = epochDays[row];
+                categoryIds[position] = categoryIds[row];
+                descriptionOffsets[position] = descriptionOffsets[row];
+                descriptionLengths[position] = descriptionLengths[row];
+            }
+            position++;
+        }
+        size = position;
+        modCount++;
+        compactArenaIfNeeded();
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        arenaSize = 0;
+        garbageSize = 0;
+        categories.clear();
+        modCount++;
+    }
+
+    /**
+     * Increases the capacity of the columns, so that rows can be added without growing the arrays again.
+     *
+     * @param capacity Minimum number of rows.
+     */
+    void ensureCapacity(int capacity) {
+        if (capacity <= types.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, types.length + (types.length >> 1));
+        types = Arrays.copyOf(types, newCapacity);
+        amountCents = Arrays.copyOf(amountCents, newCapacity);
+        epochDays = Arrays.copyOf(epochDays, newCapacity);
+        categoryIds = Arrays.copyOf(categoryIds, newCapacity);
+        descriptionOffsets = Arrays.copyOf(descriptionOffsets, newCapacity);
+        descriptionLengths = Arrays.copyOf(descriptionLengths, newCapacity);
+    }
+
+    /**
+     * Moves the id of a category that was renamed to its new key.
+     *
+     * @param type Type of the category, either INCOME or EXPENSE.
+     * @param currentName Previous name of the category.
+     * @param newName New name of the category.
+     */
+    void renameCategory(String type, String currentName, String newName) {
+        categories.rename(type, currentName, newName);
+    }
+
+    @Override
+    public long getAmountCents(int row) {
+        return amountCents[row];
+    }
+
+    @Override
+    public void setAmountCents(int row, long cents) {
+        amountCents[row] = cents;
+    }
+
+    @Override
+    public LocalDate getDate(int row) {
+        return LocalDate.ofEpochDay(epochDays[row]);
+    }
+
+    @Override
+    public void setDate(int row, LocalDate date) {
+        epochDays[row] = (int) date.toEpochDay();
+    }
+
+    @Override
+    public Category getCategory(int row) {
+        return categories.get(categoryIds[row]);
+    }
+
+    @Override
+    public void setCategory(int row, Category category) {
+        categoryIds[row] = categories.getId(category);
+    }
+
+    @Override
+    public String getDescription(int row) {
+        return new String(descriptionArena, descriptionOffsets[row], descriptionLengths[row], StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void setDescription(int row, String description) {
+        garbageSize += descriptionLengths[row];
+        appendDescription(row, description);
+        compactArenaIfNeeded();
+    }
+
+    /**
+     * Writes the values of a <code>Transaction</code> object to a row. All values are read before the row is
+     * written, since the <code>Transaction</code> may be a view of this row.
+     */
+    private void writeRow(int row, Transaction transaction) {
+        byte type;
+        if (transaction instanceof Income) {
+            type = INCOME;
+        } else if (transaction instanceof Expense) {
+            type = EXPENSE;
+        } else {
+            throw new IllegalArgumentException("The type is invalid");
+        }
+        types[row] = type;
+        amountCents[row] = transaction.getAmountCents();
+        setDate(row, transaction.getLocalDate());
+        setCategory(row, transaction.getCategory());
+        appendDescription(row, transaction.getDescription());
+    }
+
+    private Transaction copyRow(int row) {
+        if (types[row] == INCOME) {
+            return new Income(Money.toDollars(amountCents[row]), getDescription(row), getDate(row),
+                    getCategory(row).getName());
+        }
+        return new Expense(Money.toDollars(amountCents[row]), getDescription(row), getDate(row),
+                getCategory(row).getName());
+    }
+
+    private void shiftRows(int from, int to, int count) {
+        System.arraycopy(types, from, types, to, count);
+        System.arraycopy(amountCents, from, amountCents, to, count);
+        System.arraycopy(epochDays, from, epochDays, to, count);
+        System.arraycopy(categoryIds, from, categoryIds, to, count);
+        System.arraycopy(descriptionOffsets, from, descriptionOffsets, to, count);
+        System.arraycopy(descriptionLengths, from, descriptionLengths, to, count);
+    }
+
+    /**
+     * Appends a description to the end of the arena. The bytes of a replaced description are left in the arena
+     * as garbage until the arena is compacted.
+     */
+    private void appendDescription(int row, String description) {
+        byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+        if (arenaSize + bytes.length > descriptionArena.length) {
+            int capacity = Math.max(arenaSize + bytes.length, descriptionArena.length + (descriptionArena.length >> 1));
+            descriptionArena = Arrays.copyOf(descriptionArena, capacity);
+        }
+        System.arraycopy(bytes, 0, descriptionArena, arenaSize, bytes.length);
+        descriptionOffsets[row] = arenaSize;
+        descriptionLengths[row] = bytes.length;
+        arenaSize += bytes.length;
+    }
+
+    /**
+     * Copies the descriptions of all rows to a new arena once more than half of the arena is garbage.
+     */
+    private void compactArenaIfNeeded() {
+        if (garbageSize < MIN_COMPACTION_GARBAGE || garbageSize < arenaSize / 2) {
+            return;
+        }
+        byte[] arena = new byte[Math.max(arenaSize - garbageSize, INITIAL_ARENA_CAPACITY)];
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(descriptionArena, descriptionOffsets[i], arena, offset, descriptionLengths[i]);
+            descriptionOffsets[i] = offset;
+            offset += descriptionLengths[i];
+        }
+        descriptionArena = arena;
+        arenaSize = offset;
+        garbageSize = 0;
+    }
+
+    static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bound);
+        }
+    }
+
+    /**
+     * Represents an income row of a store of transaction rows.
+     */
+    static final class IncomeView extends Income {
+        private final TransactionRows columns;
+        private final int row;
+
+        IncomeView(TransactionRows columns, int row) {
+            this.columns = columns;
+            this.row = row;
+        }
+
+        @Override
+        public long getAmountCents() {
+            return columns.getAmountCents(row);
+        }
+
+        @Override
+        public void setAmountCents(long amountCents) {
+            columns.setAmountCents(row, amountCents);
+        }
+
+        @Override
+        public String getDescription() {
+            return columns.getDescription(row);
+        }
+
+        @Override
+        public void setDescription(String description) {
+            columns.setDescription(row, description);
+        }
+
+        @Override
+        public LocalDate getLocalDate() {
+            return columns.getDate(row);
+        }
+
+        @Override
+        public void setDate(String date) throws MoneyTrackerException {
+            columns.setDate(row, parseDate(date));
+        }
+
+        @Override
+        public Category getCategory() {
+            return columns.getCategory(row);
+        }
+
+        @Override
+        public void setCategory(Category category) {
+            columns.setCategory(row, category);
+        }
+    }
+
+    /**
+     * Represents an expense row of a store of transaction rows.
+     */
+    static final class ExpenseView extends Expense {
+        private final TransactionRows columns;
+        private final int row;
+
+        ExpenseView(TransactionRows columns, int row) {
+            this.columns = columns;
+            this.row = row;
+        }
+
+        @Override
+        public long getAmountCents() {
+            return columns.getAmountCents(row);
+        }
+
+        @Override
+        public void setAmountCents(long amountCents) {
+            columns.setAmountCents(row, amountCents);
+        }
+
+        @Override
+        public String getDescription() {
+            return columns.getDescription(row);
+        }
+
+        @Override
+        public void setDescription(String description) {
+            columns.setDescription(row, description);
+        }
+
+        @Override
+        public LocalDate getLocalDate() {
+            return columns.getDate(row);
+        }
+
+        @Override
+        public void setDate(String date) throws MoneyTrackerException {
+            columns.setDate(row, parseDate(date));
+        }
+
+        @Override
+        public Category getCategory() {
+            return columns.getCategory(row);
+        }
+
+        @Override
+        public void setCategory(Category category) {
+            columns.setCategory(row, category);
+        }
+    }
+}
@@ -2,19 +2,56 @@ package moneytracker.transaction;
 
 import moneytracker.exception.MoneyTrackerException;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.AbstractList;
 import java.util.ArrayList;
-
-import static moneytracker.helper.Helper.getTransactionType;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manages the in-memory transaction list. It contains an ArrayList that stores
  * individual <code>Transaction</code> objects and methods to perform operations
- * such as adding and deleting transactions.
+ * such as adding and deleting transactions. It also keeps an index of the transactions of each month, of each
+ * category and by date. Each index is built separately on its first use, and is then updated when transactions
+ * are added or edited, so that looking up one of them does not build the others.
+ * Transactions with the same category name share one <code>Category</code> object, so that a category is
+ * renamed by renaming that object instead of every transaction. The totals of each month are kept in a
+ * <code>MonthlyRollup</code> that is updated in the same way, so that they are looked up without visiting the
+ * transactions.
+ *
+ * <p>Each transaction also gets an id that does not change while the program runs. Ids are given to the rows in
+ * order and are not stored for each row, only the ids of removed rows are kept. Deleting a transaction only
+ * marks its row as deleted, and deleted rows are removed in one pass when more than half of the rows are
+ * deleted, so that a deletion does not shift the list or the indexes. Until then, the indexes keep the rows of
+ * deleted transactions, which are skipped when the rows are converted to indexes of the list.</p>
+ *
+ * <p>The list has a version that changes whenever a transaction is added, edited or deleted, or a category is
+ * renamed, so that results computed from the transactions can be reused until then. Versions are never shared
+ * by two lists or two states of a list.</p>
  */
 public class TransactionList {
-    private ArrayList<Transaction> transactions = new ArrayList<>();
-    private final ArrayList<Integer> searchResultIndexes = new ArrayList<>();
+    private static final AtomicLong versions = new AtomicLong();
+    private List<Transaction> transactions = new ArrayList<>();
+    private final ArrayList<Integer> searchResultIds = new ArrayList<>();
     private boolean isInitialized = false;
+    private RowIndex<YearMonth> monthIndex;
+    private RowIndex<String> categoryIndex;
+    private DateIndex dateIndex;
+    private final HashMap<String, Category> categoriesByKey = new HashMap<>();
+    private int sharedCategoryCount = 0;
+    private int firstId = 0;
+    private int[] removedIds = new int[0];
+    private final DeletedRows deletedRows = new DeletedRows();
+    private final List<Transaction> remainingTransactions = new RemainingTransactions();
+    private MonthlyRollup rollup;
+    private long version = versions.incrementAndGet();
 
     /**
      * Initializes an empty <code>TransactionList</code> object.
@@ -27,7 +64,7 @@ public class TransactionList {
      *
      * @param transactions List of <code>Transaction</code> objects.
      */
-    public TransactionList(ArrayList<Transaction> transactions) {
+    public TransactionList(List<Transaction> transactions) {
         this.transactions = transactions;
     }
 
@@ -38,7 +75,28 @@ public class TransactionList {
      * @return <code>Transaction</code> object.
      */
     public Transaction getTransaction(int index) {
-        return transactions.get(index);
+        return transactions.get(getRowOfIndex(index));
+    }
+
+    /**
+     * Gets the id of a <code>Transaction</code> object in the <code>TransactionList</code>.
+     *
+     * @param index Index of <code>Transaction</code> in the <code>TransactionList</code>.
+     * @return Id of the <code>Transaction</code>.
+     */
+    public int getTransactionId(int index) {
+        return getId(getRowOfIndex(index));
+    }
+
+    /**
+     * Gets the current index of a <code>Transaction</code> object from its id.
+     *
+     * @param id Id of the <code>Transaction</code>.
+     * @return Index of the <code>Transaction</code>, or -1 if it has been deleted.
+     */
+    public int getTransactionIndex(int id) {
+        int row = getRow(id);
+        return row < 0 ? -1 : getIndexOfRow(row);
     }
 
     /**
@@ -53,13 +111,34 @@ public class TransactionList {
         if (transaction instanceof Income) {
             category = ((Income) transaction).getIncomeCategory();
             type = "INCOME";
-            categories.checkIfCategoryExists(category, type);
         } else {
             category = ((Expense) transaction).getExpenseCategory();
             type = "EXPENSE";
         }
         if (categories.checkIfCategoryExists(category, type)) {
+            ensureSharedCategories();
+            String key = transaction.getCategory().getKey();
+            Category sharedCategory = categoriesByKey.get(key);
+            if (sharedCategory != null) {
+                transaction.setCategory(sharedCategory);
+            }
             transactions.add(transaction);
+            int row = transactions.size() - 1;
+            if (sharedCategory == null) {
+                categoriesByKey.put(key, transactions.get(row).getCategory());
+            }
+            sharedCategoryCount = transactions.size();
+            if (monthIndex != null) {
+                monthIndex.add(YearMonth.from(transaction.getLocalDate()), row);
+            }
+            if (categoryIndex != null) {
+                categoryIndex.add(key, row);
+            }
+            if (dateIndex != null) {
+                dateIndex.add(transaction.getLocalDate(), row);
+            }
+            addToRollup(transactions.get(row));
+            changeVersion();
         } else {
             throw new MoneyTrackerException("The category \"" + category + "\" does not exist.");
         }
@@ -73,18 +152,479 @@ public class TransactionList {
      */
     public void removeTransaction(int index) throws MoneyTrackerException {
         try {
-            transactions.remove(transactions.get(index));
+            removeTransactionById(getTransactionId(index));
         } catch (IndexOutOfBoundsException e) {
             throw new MoneyTrackerException("Invalid index");
         }
     }
 
+    /**
+     * Remove a <code>Transaction</code> object from the <code>TransactionList</code> by its id. The row of the
+     * <code>Transaction</code> is only marked as deleted, so the other transactions keep their rows.
+     *
+     * @param id Id of a <code>Transaction</code> in <code>TransactionList</code>.
+     * @throws MoneyTrackerException If id is invalid.
+     */
+    public void removeTransactionById(int id) throws MoneyTrackerException {
+        int row = getRow(id);
+        if (row < 0) {
+            throw new MoneyTrackerException("Invalid index");
+        }
+        removeFromRollup(transactions.get(row));
+        deletedRows.delete(row);
+        changeVersion();
+        if (deletedRows.getCount() > transactions.size() / 2) {
+            removeDeletedRows();
+        }
+    }
+
+    /**
+     * Gets the row of a <code>Transaction</code> from its id. Ids are not stored for each row: the rows hold
+     * consecutive ids starting from the first id, except for the ids of the rows that were removed.
+     *
+     * @return Row of the <code>Transaction</code>, or -1 if it has been deleted.
+     */
+    private int getRow(int id) {
+        if (id < firstId) {
+            return -1;
+        }
+        int removedBefore = Arrays.binarySearch(removedIds, id);
+        if (removedBefore >= 0) {
+            return -1;
+        }
+        int row = id - firstId - (-removedBefore - 1);
+        return row < transactions.size() && !deletedRows.isDeleted(row) ? row : -1;
+    }
+
+    /**
+     * Gets the id of the <code>Transaction</code> in a row, which is the id of the row after the ids of the rows
+     * that were removed before it.
+     */
+    private int getId(int row) {
+        int low = 0;
+        int high = removedIds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (removedIds[middle] - middle <= firstId + row) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return firstId + row + low;
+    }
+
+    /**
+     * Gets the row of a <code>Transaction</code> from its index, skipping the rows that are marked as deleted.
+     *
+     * @throws IndexOutOfBoundsException If the index is invalid.
+     */
+    private int getRowOfIndex(int index) {
+        if (index < 0 || index >= getSize()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + getSize());
+        }
+        return deletedRows.getCount() == 0 ? index : deletedRows.findRow(index);
+    }
+
+    /**
+     * Gets the index of a <code>Transaction</code> from its row, which is not marked as deleted.
+     */
+    private int getIndexOfRow(int row) {
+        return deletedRows.getCount() == 0 ? row : row - deletedRows.countBefore(row);
+    }
+
+    /**
+     * Converts rows of an index to indexes of the <code>TransactionList</code>, skipping the rows that are marked
+     * as deleted.
+     *
+     * @param rows Rows of the transactions, which are replaced by their indexes.
+     * @return Indexes of the transactions.
+     */
+    private int[] getIndexesOfRows(int[] rows) {
+        if (deletedRows.getCount() == 0) {
+            return rows;
+        }
+        int count = 0;
+        for (int row : rows) {
+            if (!deletedRows.isDeleted(row)) {
+                rows[count++] = getIndexOfRow(row);
+            }
+        }
+        return count == rows.length ? rows : Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Removes the rows that are marked as deleted in one pass, records their ids as removed, and moves the
+     * indexes of the remaining rows to their new positions.
+     */
+    void removeDeletedRows() {
+        if (deletedRows.getCount() == 0) {
+            return;
+        }
+        BitSet rows = deletedRows.toBitSet();
+        removeIds(rows);
+        int size = transactions.size();
+        int remainingCount = size - deletedRows.getCount();
+        if (monthIndex != null || categoryIndex != null || dateIndex != null) {
+            int[] positions = new int[size];
+            int position = 0;
+            for (int row = 0; row < size; row++) {
+                positions[row] = rows.get(row) ? -1 : position++;
+            }
+            if (monthIndex != null) {
+                monthIndex.remap(positions);
+            }
+            if (categoryIndex != null) {
+                categoryIndex.remap(positions);
+            }
+            if (dateIndex != null) {
+                dateIndex.remap(positions);
+            }
+        }
+        removeRows(rows);
+        sharedCategoryCount = Math.min(sharedCategoryCount, remainingCount);
+        deletedRows.clear();
+    }
+
+    /**
+     * Merges the ids of rows that are about to be removed into the sorted ids of the removed rows.
+     */
+    private void removeIds(BitSet rows) {
+        int[] ids = new int[removedIds.length + rows.cardinality()];
+        int count = 0;
+        int i = 0;
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            int id = getId(row);
+            while (i < removedIds.length && removedIds[i] < id) {
+                ids[count++] = removedIds[i++];
+            }
+            ids[count++] = id;
+        }
+        while (i < removedIds.length) {
+            ids[count++] = removedIds[i++];
+        }
+        removedIds = ids;
+    }
+
+    /**
+     * Gets the rows that are marked as deleted but not removed yet.
+     *
+     * @return Copy of the deleted rows.
+     */
+    BitSet getDeletedRows() {
+        return deletedRows.toBitSet();
+    }
+
+    /**
+     * Removes rows from the list of <code>Transaction</code> objects in one pass.
+     *
+     * @param rows Rows to be removed.
+     */
+    protected void removeRows(BitSet rows) {
+        int size = transactions.size();
+        int position = 0;
+        for (int row = 0; row < size; row++) {
+            if (!rows.get(row)) {
+                if (position != row) {
+                    transactions.set(position, transactions.get(row));
+                }
+                position++;
+            }
+        }
+        transactions.subList(position, size).clear();
+    }
+
+    /**
+     * Changes the date of a <code>Transaction</code> object in the <code>TransactionList</code>. Dates of
+     * transactions in the list are changed through this method, so that the month index stays up to date.
+     *
+     * @param index Index of a <code>Transaction</code> in <code>TransactionList</code>.
+     * @param date New date of the <code>Transaction</code>.
+     * @throws MoneyTrackerException If date format is invalid.
+     */
+    public void updateTransactionDate(int index, String date) throws MoneyTrackerException {
+        int row = getRowOfIndex(index);
+        Transaction transaction = transactions.get(row);
+        LocalDate previousDate = transaction.getLocalDate();
+        removeFromRollup(transaction);
+        try {
+            transaction.setDate(date);
+        } finally {
+            addToRollup(transaction);
+        }
+        changeVersion();
+        if (monthIndex != null) {
+            monthIndex.move(YearMonth.from(previousDate), YearMonth.from(transaction.getLocalDate()), row);
+        }
+        if (dateIndex != null) {
+            dateIndex.move(previousDate, transaction.getLocalDate(), row);
+        }
+    }
+
+    /**
+     * Changes the amount of a <code>Transaction</code> object in the <code>TransactionList</code>. Amounts of
+     * transactions in the list are changed through this method, so that the monthly totals stay up to date.
+     *
+     * @param index Index of a <code>Transaction</code> in <code>TransactionList</code>.
+     * @param amount New amount of the <code>Transaction</code>.
+     */
+    public void updateTransactionAmount(int index, double amount) {
+        Transaction transaction = getTransaction(index);
+        removeFromRollup(transaction);
+        transaction.setAmount(amount);
+        addToRollup(transaction);
+        changeVersion();
+    }
+
+    /**
+     * Changes the description of a <code>Transaction</code> object in the <code>TransactionList</code>.
+     * Descriptions of transactions in the list are changed through this method, so that the version of the list
+     * changes.
+     *
+     * @param index Index of a <code>Transaction</code> in <code>TransactionList</code>.
+     * @param description New description of the <code>Transaction</code>.
+     */
+    public void updateTransactionDescription(int index, String description) {
+        getTransaction(index).setDescription(description);
+        changeVersion();
+    }
+
+    /**
+     * Changes the category of a <code>Transaction</code> object in the <code>TransactionList</code>. Categories
+     * of transactions in the list are changed through this method, so that the category index stays up to date.
+     *
+     * @param index Index of a <code>Transaction</code> in <code>TransactionList</code>.
+     * @param categoryName Name of the new category of the <code>Transaction</code>.
+     */
+    public void updateTransactionCategory(int index, String categoryName) {
+        ensureSharedCategories();
+        int row = getRowOfIndex(index);
+        Transaction transaction = transactions.get(row);
+        String previousKey = transaction.getCategory().getKey();
+        Category category = new Category(categoryName, transaction.getCategory().getType());
+        String key = category.getKey();
+        Category sharedCategory = categoriesByKey.get(key);
+        removeFromRollup(transaction);
+        transaction.setCategory(sharedCategory == null ? category : sharedCategory);
+        if (sharedCategory == null) {
+            categoriesByKey.put(key, transactions.get(row).getCategory());
+        }
+        addToRollup(transaction);
+        if (categoryIndex != null) {
+            categoryIndex.move(previousKey, key, row);
+        }
+        changeVersion();
+    }
+
+    /**
+     * Gets the indexes of the <code>Transaction</code> objects of a month in ascending order.
+     *
+     * @param month Month of the transactions.
+     * @return Indexes of the transactions in the <code>TransactionList</code>.
+     */
+    public int[] getTransactionIndexesInMonth(YearMonth month) {
+        ensureMonthIndex();
+        return getIndexesOfRows(monthIndex.getRows(month));
+    }
+
+    /**
+     * Gets the indexes of the <code>Transaction</code> objects of a month in ascending order.
+     *
+     * @param month Month of the transactions in yyyy-MM format.
+     * @return Indexes of the transactions, or no indexes if the month is invalid.
+     */
+    public int[] getTransactionIndexesInMonth(String month) {
+        try {
+            return getTransactionIndexesInMonth(YearMonth.parse(month));
+        } catch (DateTimeParseException e) {
+            return new int[0];
+        }
+    }
+
+    /**
+     * Gets the indexes of the <code>Transaction</code> objects of a category in ascending order, so that
+     * a category is looked up in time proportional to its number of transactions.
+     *
+     * @param categoryName Name of the category.
+     * @param type Type of the category, either INCOME or EXPENSE.
+     * @return Indexes of the transactions in the <code>TransactionList</code>.
+     */
+    public int[] getTransactionIndexesInCategory(String categoryName, String type) {
+        ensureCategoryIndex();
+        return getIndexesOfRows(categoryIndex.getRows(Category.getKey(type, categoryName)));
+    }
+
+    /**
+     * Gets the indexes of the <code>Transaction</code> objects between two dates, ordered by date. Transactions
+     * of the same date are in the order of the list.
+     *
+     * @param from First date, inclusive.
+     * @param to Last date, inclusive.
+     * @return Indexes of the transactions in the <code>TransactionList</code>.
+     */
+    public int[] getTransactionIndexesBetween(LocalDate from, LocalDate to) {
+        ensureDateIndex();
+        return getIndexesOfRows(dateIndex.getRows(from, to));
+    }
+
+    /**
+     * Gets the <code>Transaction</code> objects between two dates, ordered by date. If the date index has not
+     * been built, the list is scanned instead of building the index, so that a single lookup, such as the
+     * reminders shown at startup, does not sort the whole list.
+     *
+     * @param from First date, inclusive.
+     * @param to Last date, inclusive.
+     * @return List of the transactions.
+     */
+    public List<Transaction> between(LocalDate from, LocalDate to) {
+        ArrayList<Transaction> transactionsBetween = new ArrayList<>();
+        if (dateIndex == null || dateIndex.getRowCount() != transactions.size()) {
+            for (Transaction transaction : getTransactions()) {
+                LocalDate date = transaction.getLocalDate();
+                if (!date.isBefore(from) && !date.isAfter(to)) {
+                    transactionsBetween.add(transaction);
+                }
+            }
+            transactionsBetween.sort(Comparator.comparing(Transaction::getLocalDate));
+            return transactionsBetween;
+        }
+        for (int row : dateIndex.getRows(from, to)) {
+            if (!deletedRows.isDeleted(row)) {
+                transactionsBetween.add(transactions.get(row));
+            }
+        }
+        return transactionsBetween;
+    }
+
+    /**
+     * Builds the month index if it has not been built yet or if transactions were added or removed without
+     * going through the <code>TransactionList</code>. The rows of deleted transactions are indexed too, so that
+     * the index keeps referring to the rows of the list.
+     */
+    private void ensureMonthIndex() {
+        if (monthIndex != null && monthIndex.getRowCount() == transactions.size()) {
+            return;
+        }
+        monthIndex = new RowIndex<>();
+        for (int row = 0; row < transactions.size(); row++) {
+            monthIndex.add(YearMonth.from(transactions.get(row).getLocalDate()), row);
+        }
+    }
+
+    /**
+     * Builds the category index in the same way as the month index.
+     */
+    private void ensureCategoryIndex() {
+        if (categoryIndex != null && categoryIndex.getRowCount() == transactions.size()) {
+            return;
+        }
+        categoryIndex = new RowIndex<>();
+        for (int row = 0; row < transactions.size(); row++) {
+            categoryIndex.add(transactions.get(row).getCategory().getKey(), row);
+        }
+    }
+
+    /**
+     * Builds the date index in the same way as the month index.
+     */
+    private void ensureDateIndex() {
+        if (dateIndex == null || dateIndex.getRowCount() != transactions.size()) {
+            dateIndex = DateIndex.of(transactions);
+        }
+    }
+
+    /**
+     * Makes the transactions with the same category name share one <code>Category</code> object. Only the
+     * rows that were added since the last call, such as the rows loaded from the save file, are visited.
+     */
+    private void ensureSharedCategories() {
+        int size = transactions.size();
+        if (sharedCategoryCount > size) {
+            categoriesByKey.clear();
+            sharedCategoryCount = 0;
+        }
+        for (int row = sharedCategoryCount; row < size; row++) {
+            Transaction transaction = transactions.get(row);
+            Category category = transaction.getCategory();
+            Category sharedCategory = categoriesByKey.putIfAbsent(category.getKey(), category);
+            if (sharedCategory != null && sharedCategory != category) {
+                transaction.setCategory(sharedCategory);
+            }
+        }
+        sharedCategoryCount = size;
+    }
+
+    /**
+     * Gets the total amount of the <code>Transaction</code> objects of a type in a month.
+     *
+     * @param month Month of the transactions.
+     * @param type Type of the transactions, either INCOME or EXPENSE.
+     * @return Total amount in cents.
+     */
+    public long getTotalCents(YearMonth month, String type) {
+        return getMonthlyRollup().getTotalCents(month, type);
+    }
+
+    /**
+     * Gets the total amount of the <code>Transaction</code> objects of a category in a month.
+     *
+     * @param month Month of the transactions.
+     * @param categoryName Name of the category.
+     * @param type Type of the category, either INCOME or EXPENSE.
+     * @return Total amount in cents.
+     */
+    public long getCategoryTotalCents(YearMonth month, String categoryName, String type) {
+        return getMonthlyRollup().getCategoryTotalCents(month, type, categoryName);
+    }
+
+    /**
+     * Gets the totals of each month of the <code>TransactionList</code>. The totals are built from the
+     * transactions if they have not been built or set yet, or if transactions were added or removed without
+     * going through the <code>TransactionList</code>.
+     *
+     * @return Totals of each month.
+     */
+    public MonthlyRollup getMonthlyRollup() {
+        if (rollup != null && rollup.getTransactionCount() == getSize()) {
+            return rollup;
+        }
+        rollup = new MonthlyRollup();
+        for (Transaction transaction : getTransactions()) {
+            addToRollup(transaction);
+        }
+        return rollup;
+    }
+
+    /**
+     * Sets the totals of each month, such as the totals saved with the transactions, so that they do not have
+     * to be built from the transactions.
+     *
+     * @param rollup Totals of each month of the transactions in the list.
+     */
+    public void setMonthlyRollup(MonthlyRollup rollup) {
+        this.rollup = rollup;
+    }
+
+    private void addToRollup(Transaction transaction) {
+        if (rollup != null) {
+            rollup.add(YearMonth.from(transaction.getLocalDate()), transaction.getCategory(),
+                    transaction.getAmountCents());
+        }
+    }
+
+    private void removeFromRollup(Transaction transaction) {
+        if (rollup != null) {
+            rollup.remove(YearMonth.from(transaction.getLocalDate()), transaction.getCategory(),
+                    transaction.getAmountCents());
+        }
+    }
+
     /**
      * Gets the size of a <code>TransactionList</code>.
      * @return Size of a <code>TransactionList</code>.
      */
     public int getSize() {
-        return transactions.size();
+        return transactions.size() - deletedRows.getCount();
     }
 
     /**
@@ -102,33 +642,48 @@ public class TransactionList {
     }
 
     /**
-     * Adds index for a particular transaction listed by the list command.
+     * Adds index for a particular transaction listed by the list command. The id of the transaction is kept,
+     * so that the result still refers to the same transaction after the list is changed.
      * @param searchResultIndex Index of transaction listed by the list command.
      */
     public void addSearchResultIndex(int searchResultIndex) {
-        searchResultIndexes.add(searchResultIndex);
+        searchResultIds.add(getTransactionId(searchResultIndex));
     }
 
     /**
      * Clears the indexes from the list command.
      */
     public void clearSearchResultIndexes() {
-        searchResultIndexes.clear();
+        searchResultIds.clear();
     }
 
     /**
-     * Gets the indexes from the list command.
+     * Gets the ids of the transactions listed by the list command.
      */
-    public ArrayList<Integer> getSearchResultIndexes() {
-        return searchResultIndexes;
+    public ArrayList<Integer> getSearchResultIds() {
+        return searchResultIds;
+    }
+
+    /**
+     * Gets the id for a particular <code>Transaction</code> listed by the list command.
+     * @param resultIndex Index of the result of the list command.
+     */
+    public int getSearchResultId(int resultIndex) {
+        return searchResultIds.get(resultIndex);
     }
 
     /**
      * Gets the index for a particular <code>Transaction</code> listed by the list command.
-     * @param resultIndex Index of <code>Transaction</code> in the <code>TransactionList</code>.
+     * @param resultIndex Index of the result of the list command.
+     * @return Index of the <code>Transaction</code> in the <code>TransactionList</code>.
+     * @throws IndexOutOfBoundsException If the result index is invalid or the transaction has been deleted.
      */
     public int getSearchResultIndex(int resultIndex) {
-        return searchResultIndexes.get(resultIndex);
+        int index = getTransactionIndex(searchResultIds.get(resultIndex));
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("The transaction has been deleted.");
+        }
+        return index;
     }
 
     /**
@@ -136,34 +691,106 @@ public class TransactionList {
      */
 
     public void clearTransactions() {
+        firstId += removedIds.length + transactions.size();
+        removedIds = new int[0];
         transactions.clear();
+        deletedRows.clear();
+        monthIndex = null;
+        categoryIndex = null;
+        dateIndex = null;
+        categoriesByKey.clear();
+        sharedCategoryCount = 0;
+        rollup = null;
+        changeVersion();
     }
 
-    public ArrayList<Transaction> getTransactions() {
-        return transactions;
+    /**
+     * Gets the <code>Transaction</code> objects of the <code>TransactionList</code>. If some transactions are
+     * marked as deleted, a read-only view that skips them is returned, so that the list is not compacted.
+     *
+     * @return List of <code>Transaction</code> objects.
+     */
+    public List<Transaction> getTransactions() {
+        return deletedRows.getCount() == 0 ? transactions : remainingTransactions;
+    }
+
+    /**
+     * Copies the <code>Transaction</code> objects of the <code>TransactionList</code>, so that they can be
+     * read by another thread while the <code>TransactionList</code> is changed. The transactions are copied
+     * into columns with their own categories, since the <code>Transaction</code> and <code>Category</code>
+     * objects of the list are changed in place, such as when a category is renamed.
+     *
+     * @return Copy of the list of <code>Transaction</code> objects.
+     */
+    public List<Transaction> copyTransactions() {
+        return TransactionColumns.copyOf(getTransactions());
     }
 
     /**
-     * Updates the category name of <code>Transaction</code> objects in the <code>TransactionList</code>.
+     * Renames a category of <code>Transaction</code> objects in the <code>TransactionList</code>. The shared
+     * <code>Category</code> object of the transactions is renamed, so the transactions are not visited unless
+     * they are merged into another category that already has the new name.
      *
      * @param currentName Current category name of <code>Transaction</code> objects.
      * @param newName New category name of <code>Transaction</code> objects.
+     * @param type Type of the category, either INCOME or EXPENSE.
      */
-
-    public void updateTransactionsCategory(String currentName, String newName,String type)
-            throws MoneyTrackerException {
-        for (Transaction transaction : transactions) {
-            String transactionType = getTransactionType(transaction);
-            if (transactionType.equals(type)
-                    && transaction instanceof Income
-                    && ((Income) transaction).getIncomeCategory().equals(currentName)) {
-                ((Income) transaction).setIncomeCategory(newName);
-            }
-            if (transactionType.equals(type)
-                    && transaction instanceof Expense
-                    && ((Expense) transaction).getExpenseCategory().equals(currentName)) {
-                ((Expense) transaction).setExpenseCategory(newName);
+    public void updateTransactionsCategory(String currentName, String newName, String type) {
+        ensureSharedCategories();
+        String currentKey = Category.getKey(type, currentName);
+        String newKey = Category.getKey(type, newName);
+        if (currentKey.equals(newKey)) {
+            return;
+        }
+        Category category = categoriesByKey.remove(currentKey);
+        if (category == null) {
+            return;
+        }
+        if (rollup != null) {
+            rollup.renameCategory(type, currentName, newName);
+        }
+        Category existingCategory = categoriesByKey.get(newKey);
+        if (existingCategory == null) {
+            category.setName(newName);
+            categoriesByKey.put(newKey, category);
+        } else {
+            ensureCategoryIndex();
+            for (int row : categoryIndex.getRows(currentKey)) {
+                transactions.get(row).setCategory(existingCategory);
             }
         }
+        if (categoryIndex != null) {
+            categoryIndex.rename(currentKey, newKey);
+        }
+        changeVersion();
+    }
+
+    /**
+     * Gets the version of the <code>TransactionList</code>, which changes whenever a transaction is added,
+     * edited or deleted, or a category is renamed.
+     *
+     * @return Version of the transactions.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    private void changeVersion() {
+        version = versions.incrementAndGet();
+    }
+
+    /**
+     * Represents a read-only view of the <code>Transaction</code> objects that are not marked as deleted.
+     */
+    private class RemainingTransactions extends AbstractList<Transaction> implements RandomAccess {
+        @Override
+        public Transaction get(int index) {
+            return getTransaction(index);
+        }
+
+        @Override
+        public int size() {
+            return getSize();
+        }
     }
-}
\ No newline at end of file
+}
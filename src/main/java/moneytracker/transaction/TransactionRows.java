@@ -0,0 +1,25 @@
+package moneytracker.transaction;
+
+import java.time.LocalDate;
+
+/**
+ * Represents a store of transaction rows that are read and changed field by field through
+ * <code>Income</code> and <code>Expense</code> views, instead of being kept as separate objects.
+ */
+interface TransactionRows {
+    long getAmountCents(int row);
+
+    void setAmountCents(int row, long cents);
+
+    LocalDate getDate(int row);
+
+    void setDate(int row, LocalDate date);
+
+    Category getCategory(int row);
+
+    void setCategory(int row, Category category);
+
+    String getDescription(int row);
+
+    void setDescription(int row, String description);
+}
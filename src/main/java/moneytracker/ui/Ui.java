@@ -1,7 +1,10 @@
 package moneytracker.ui;
 
 import moneytracker.summary.Budget;
+import moneytracker.summary.MonthlyReport;
+import moneytracker.summary.TrendReport;
 import moneytracker.exception.MoneyTrackerException;
+import moneytracker.helper.Money;
 import moneytracker.parser.Parser;
 import moneytracker.transaction.TransactionList;
 import moneytracker.transaction.Transaction;
@@ -15,6 +18,7 @@ import java.time.format.TextStyle;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Scanner;
 
 
@@ -54,12 +58,12 @@ public class Ui {
         printLine();
     }
 
-    public void printSummary(double exp, double inc) {
+    public void printSummary(long expCents, long incCents) {
         System.out.println(
                 "Your total income for " + LocalDate.now().getMonth().getDisplayName(TextStyle.SHORT, Locale.US)
-                + " " + LocalDate.now().getYear() + ": $" + String.format("%.2f", inc)
+                + " " + LocalDate.now().getYear() + ": $" + Money.format(incCents)
                 + "\nYour total expense for " + LocalDate.now().getMonth().getDisplayName(TextStyle.SHORT, Locale.US)
-                + " " + LocalDate.now().getYear() + ": $" + String.format("%.2f", exp));
+                + " " + LocalDate.now().getYear() + ": $" + Money.format(expCents));
     }
 
     public void printAddTransaction(TransactionList transactions) throws MoneyTrackerException {
@@ -121,8 +125,7 @@ public class Ui {
      */
 
     public void printBudget(Budget budget) {
-        double amount = budget.getAmount();
-        String amountString = String.format("%.2f", amount);
+        String amountString = Money.format(budget.getAmountCents());
         System.out.println("Got it! I have set your monthly budget to this amount:");
         printIndentation();
         System.out.println("$" + amountString);
@@ -133,8 +136,8 @@ public class Ui {
      * Print the percentage of the budget that has been exceeded.
      */
 
-    public void printPctOfBudget(String str, double amount) {
-        System.out.println("You have exceeded " + str + " of your budget of $" + String.format("%.2f", amount) + " for "
+    public void printPctOfBudget(String str, long amountCents) {
+        System.out.println("You have exceeded " + str + " of your budget of $" + Money.format(amountCents) + " for "
                 + LocalDate.now().getMonth().getDisplayName(TextStyle.SHORT, Locale.US)
                 + " " + LocalDate.now().getYear() + ".");
     }
@@ -211,7 +214,7 @@ public class Ui {
      *
      * @param filteredTransaction ArrayList of <code>Transaction</code> objects.
      */
-    public void printMyFilteredTransactions(ArrayList<Transaction> filteredTransaction) {
+    public void printMyFilteredTransactions(List<Transaction> filteredTransaction) {
         System.out.println("Here are your transactions:");
         for (int i = 0; i < filteredTransaction.size(); i++) {
             printIndentation();
@@ -301,12 +304,12 @@ public class Ui {
     }
 
     /**
-     * Gets transaction/category  Month report from user's full input string.
+     * Displays the transaction/category report of a month.
      *
      * @param transactions List of <code>Transaction</code> objects.
-     * @param date month of <code>Transaction</code> objects.
+     * @param report Report of the month.
      */
-    public void printReportByMonth(TransactionList transactions, String date) {
+    public void printReportByMonth(TransactionList transactions, MonthlyReport report) {
         transactions.setIsInitialized(true);
         transactions.clearSearchResultIndexes();
 
@@ -314,53 +317,68 @@ public class Ui {
         if (transactions.getSize() == 0) {
             System.out.println("Sorry, there is no transactions in your list.");
         } else {
-            System.out.println("Here is your transactions for " + date + " :");
+            System.out.println("Here is your transactions for " + report.getMonth() + " :");
+            System.out.println("Total Income: $" + Money.format(report.getTotalIncomeCents()));
+            System.out.println("Total Expense: $" + Money.format(report.getTotalExpenseCents()));
+            System.out.println("Balance: $" + Money.format(report.getBalanceCents()));
 
-            double totalIncome = Parser.getTotalIncome(transactions,date);
-            System.out.printf("Total Income: $%.2f\n",(totalIncome));
-
-            double totalExpense = Parser.getTotalExpense(transactions,date);
-            System.out.printf("Total Expense: $%.2f\n",(totalExpense));
-
-            double balance = totalIncome - totalExpense;
-            System.out.printf("Balance: $%.2f\n",(balance));
-
-            double average = totalExpense / Parser.getDaysOfMonth(date);
-            System.out.println("\nThis month has " + Parser.getDaysOfMonth(date) + " days.");
+            double average = Money.toDollars(report.getTotalExpenseCents()) / report.getDaysOfMonth();
+            System.out.println("\nThis month has " + report.getDaysOfMonth() + " days.");
             System.out.printf("Average Expense Per Day: $%.2f\n",(average));
             System.out.println("");
 
-            String highestIncomeTrans = Parser.getHighestIncome(transactions,date);
-            System.out.println("Highest Income transaction: \n" + "  " + highestIncomeTrans);
+            String highestIncome = report.getHighestIncome();
+            System.out.println("Highest Income transaction: \n" + "  " + (highestIncome == null
+                    ? "  Sorry, Cannot find any Income record in this Month." : highestIncome));
             System.out.println("");
 
-            String highestExpTrans = Parser.getHighestExpense(transactions,date);
-            System.out.println("Highest Expense transaction: \n" + "  " + highestExpTrans);
+            String highestExpense = report.getHighestExpense();
+            System.out.println("Highest Expense transaction: \n" + "  " + (highestExpense == null
+                    ? "  Sorry, Cannot find any Expense record in this Month." : highestExpense));
             System.out.println("");
 
             System.out.println("Income Category by Frequency:");
-            Parser.getInCatFreq(transactions,date);
+            printCategoryFrequency(report.getIncomeCategoryFrequency(), "[I]", "Income");
 
             System.out.println("\nExpense Category by Frequency:");
-            Parser.getExpCatFreq(transactions,date);
+            printCategoryFrequency(report.getExpenseCategoryFrequency(), "[E]", "Expense");
 
             System.out.println("\nIncome Category by Amount:");
-            Parser.getInCatAmount(transactions,date);
+            printCategoryAmounts(report.getIncomeCategoryAmounts(), "[I]", "Income");
 
             System.out.println("\nExpense Category by Amount:");
-            Parser.getExpCatAmount(transactions,date);
+            printCategoryAmounts(report.getExpenseCategoryAmounts(), "[E]", "Expense");
 
             printLine();
         }
     }
 
+    private void printCategoryFrequency(Map<String, Integer> frequency, String symbol, String typeName) {
+        if (frequency.isEmpty()) {
+            System.out.println("  Sorry, Cannot find any " + typeName + " Category record in this Month.");
+        }
+        for (Map.Entry<String, Integer> entry : frequency.entrySet()) {
+            System.out.println("  " + symbol + " " + entry.getKey() + ": " + entry.getValue());
+        }
+    }
+
+    private void printCategoryAmounts(List<MonthlyReport.CategoryTotal> amounts, String symbol, String typeName) {
+        if (amounts.isEmpty()) {
+            System.out.println("  Sorry, Cannot find any " + typeName + " Category record in this Month.");
+        }
+        for (MonthlyReport.CategoryTotal total : amounts) {
+            System.out.println("  " + symbol + " " + total.getCategoryName() + " $"
+                    + Money.toDollars(total.getAmountCents()));
+        }
+    }
+
     /**
-     * Gets transaction/category last 6 Month report from user's full input string.
+     * Displays the total income and expense of the months of a trend report, each from highest to lowest.
      *
      * @param transactions List of <code>Transaction</code> objects.
-     * @param dates month list of <code>Transaction</code> objects.
+     * @param report Trend report of the last months.
      */
-    public void printReport(TransactionList transactions, List<String> dates) {
+    public void printTrendReport(TransactionList transactions, TrendReport report) {
         transactions.setIsInitialized(true);
         transactions.clearSearchResultIndexes();
 
@@ -370,13 +388,15 @@ public class Ui {
         } else {
             System.out.println("Here is your report:");
 
-            var lastSixIncome = Parser.getSixMonIncome(transactions, dates);
-            System.out.println("Income for last 6 months (Highest to lowest):");
-            Parser.printInHelper(lastSixIncome);
+            System.out.println("Income for last " + report.getMonthCount() + " months (Highest to lowest):");
+            for (int i : report.getMonthsByIncome()) {
+                System.out.println("  [I] " + report.getMonth(i) + " $" + Money.toDollars(report.getIncomeCents(i)));
+            }
 
-            var lastSixExpense = Parser.getSixMonExpense(transactions, dates);
-            System.out.println("\nIncome for last 6 months (Highest to lowest):");
-            Parser.printExpHelper(lastSixExpense);
+            System.out.println("\nExpense for last " + report.getMonthCount() + " months (Highest to lowest):");
+            for (int i : report.getMonthsByExpense()) {
+                System.out.println("  [E] " + report.getMonth(i) + " $" + Money.toDollars(report.getExpenseCents(i)));
+            }
 
             printLine();
         }
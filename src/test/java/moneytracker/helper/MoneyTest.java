@@ -0,0 +1,46 @@
+package moneytracker.helper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * JUnit tests for Money class.
+ */
+class MoneyTest {
+
+    /**
+     * Tests that amounts are rounded half up to the nearest cent.
+     */
+    @Test
+    public void testToCents() {
+        assertEquals(1234, Money.toCents(12.34));
+        assertEquals(10, Money.toCents(0.1));
+        assertEquals(456, Money.toCents(4.555));
+        assertEquals(-550, Money.toCents(-5.5));
+        assertEquals(12.34, Money.toDollars(1234));
+    }
+
+    /**
+     * Tests that sums of cents do not drift like sums of doubles.
+     */
+    @Test
+    public void testSumWithoutDrift() {
+        long total = 0;
+        for (int i = 0; i < 10; i++) {
+            total += Money.toCents(0.1);
+        }
+        assertEquals(1.0, Money.toDollars(total));
+    }
+
+    /**
+     * Tests that amounts are formatted with two decimal places.
+     */
+    @Test
+    public void testFormat() {
+        assertEquals("0.00", Money.format(0));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("5000.00", Money.format(500000));
+        assertEquals("-12.30", Money.format(-1230));
+    }
+}
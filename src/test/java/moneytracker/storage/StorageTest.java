@@ -0,0 +1,628 @@
+package moneytracker.storage;
+
+import moneytracker.exception.MoneyTrackerException;
+import moneytracker.summary.Budget;
+import moneytracker.transaction.Category;
+import moneytracker.transaction.CategoryList;
+import moneytracker.transaction.Expense;
+import moneytracker.transaction.Income;
+import moneytracker.transaction.OffHeapTransactionList;
+import moneytracker.transaction.Transaction;
+import moneytracker.transaction.TransactionList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JUnit tests for Storage class.
+ */
+class StorageTest {
+    private Path dataDirectory;
+    private CategoryList categories;
+
+    @BeforeEach
+    public void init() throws IOException, MoneyTrackerException {
+        dataDirectory = Files.createTempDirectory("moneytracker");
+        categories = new CategoryList();
+        categories.addCategory(new Category("SALARY", "INCOME"));
+        categories.addCategory(new Category("FOOD", "EXPENSE"));
+    }
+
+    @AfterEach
+    public void destroy() {
+        File[] files = dataDirectory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dataDirectory.toFile().delete();
+    }
+
+    private Storage createStorage() {
+        return createStorage(new StorageSettings());
+    }
+
+    private Storage createStorage(StorageSettings settings) {
+        return new Storage(dataDirectory.resolve("transactions.txt").toString(),
+                dataDirectory.resolve("categories.txt").toString(),
+                dataDirectory.resolve("budget.txt").toString(), settings);
+    }
+
+    private TransactionList load(Storage storage) throws MoneyTrackerException {
+        return new TransactionList(storage.loadTransactions(dataDirectory.resolve("transactions.txt").toString()));
+    }
+
+    /**
+     * Tests that journaled changes are replayed on top of the save file.
+     */
+    @Test
+    public void testLoadTransactionsWithJournal() throws MoneyTrackerException {
+        Storage storage = createStorage();
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        storage.saveTransactions(transactions);
+
+        storage = createStorage();
+        transactions = load(storage);
+        transactions.addTransaction(new Expense(5.5, "lunch", "2020-12-26", "FOOD"), categories);
+        storage.saveAddedTransaction(transactions);
+        transactions.addTransaction(new Expense(4.5, "", "2020-12-27", "FOOD"), categories);
+        storage.saveAddedTransaction(transactions);
+        transactions.getTransaction(1).setAmount(6.5);
+        storage.saveEditedTransaction(transactions, 1);
+        transactions.removeTransaction(0);
+        storage.saveDeletedTransaction(transactions, 0);
+        transactions.updateTransactionsCategory("FOOD", "MEALS", "EXPENSE");
+        storage.saveRenamedCategory(transactions, "EXPENSE", "FOOD", "MEALS");
+
+        TransactionList loaded = load(createStorage());
+        assertEquals(transactions.getTransactions().toString(), loaded.getTransactions().toString());
+        assertEquals("[[E] MEALS $6.50 on 26 Dec 2020 (lunch), [E] MEALS $4.50 on 27 Dec 2020]",
+                loaded.getTransactions().toString());
+    }
+
+    /**
+     * Tests that a journal written for an older save file is not replayed.
+     */
+    @Test
+    public void testLoadTransactionsWithStaleJournal() throws MoneyTrackerException {
+        Storage storage = createStorage();
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        storage.saveTransactions(transactions);
+        transactions.addTransaction(new Expense(5.5, "lunch", "2020-12-26", "FOOD"), categories);
+        storage.saveAddedTransaction(transactions);
+        storage.saveTransactions(transactions);
+
+        assertEquals(2, load(createStorage()).getSize());
+    }
+
+    /**
+     * Tests that the journal is folded into the save file by a compaction.
+     */
+    @Test
+    public void testCompactJournal() throws MoneyTrackerException, IOException {
+        StorageSettings settings = new StorageSettings();
+        settings.set("compaction.ratio", "0");
+        settings.set("compaction.minJournalSize", "0");
+        Storage storage = createStorage(settings);
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        storage.saveTransactions(transactions);
+        for (int i = 1; i <= 20; i++) {
+            transactions.addTransaction(new Expense(i, "", "2020-12-26", "FOOD"), categories);
+            storage.saveAddedTransaction(transactions);
+            if (i % 5 == 0) {
+                transactions.removeTransaction(0);
+                storage.saveDeletedTransaction(transactions, 0);
+            }
+        }
+        storage.awaitCompaction();
+
+        long savedLines = Files.readAllLines(dataDirectory.resolve("transactions.txt")).size();
+        assertTrue(savedLines > 1);
+        assertEquals(transactions.getTransactions().toString(),
+                load(createStorage()).getTransactions().toString());
+    }
+
+    /**
+     * Tests that a compaction that failed is retried by a later save instead of leaving the journal to grow.
+     */
+    @Test
+    public void testRetryFailedCompaction() throws MoneyTrackerException, IOException {
+        StorageSettings settings = new StorageSettings();
+        settings.set("compaction.ratio", "0");
+        settings.set("compaction.minJournalSize", "0");
+        settings.set("compaction.retryDelay", "0");
+        Storage storage = createStorage(settings);
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        storage.saveTransactions(transactions);
+
+        Path ledger = dataDirectory.resolve("transactions.txt");
+        Path movedLedger = dataDirectory.resolve("transactions.moved");
+        Files.move(ledger, movedLedger);
+        Files.createDirectory(ledger);
+        transactions.addTransaction(new Expense(1, "", "2020-12-26", "FOOD"), categories);
+        storage.saveAddedTransaction(transactions);
+        storage.awaitCompaction();
+        assertTrue(Files.exists(dataDirectory.resolve("transactions.journal.compacting")));
+
+        Files.delete(ledger);
+        Files.move(movedLedger, ledger);
+        transactions.addTransaction(new Expense(2, "", "2020-12-26", "FOOD"), categories);
+        storage.saveAddedTransaction(transactions);
+        storage.awaitCompaction();
+        assertFalse(Files.exists(dataDirectory.resolve("transactions.journal.compacting")));
+        assertEquals(transactions.getTransactions().toString(),
+                load(createStorage()).getTransactions().toString());
+    }
+
+    /**
+     * Tests that a text save file is converted when the data directory uses the binary format.
+     */
+    @Test
+    public void testLoadTransactionsWithBinaryFormat() throws MoneyTrackerException {
+        Storage storage = createStorage();
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        transactions.addTransaction(new Expense(5.5, "", "2020-12-26", "FOOD"), categories);
+        storage.saveTransactions(transactions);
+
+        StorageSettings settings = new StorageSettings();
+        settings.set("format", "binary");
+        storage = createStorage(settings);
+        TransactionList loaded = load(storage);
+        assertTrue(Files.exists(dataDirectory.resolve("transactions.bin")));
+        assertEquals(transactions.getTransactions().toString(), loaded.getTransactions().toString());
+
+        loaded.addTransaction(new Expense(4.5, "dinner", "2020-12-27", "FOOD"), categories);
+        storage.saveTransactions(loaded);
+        assertEquals(loaded.getTransactions().toString(), load(createStorage(settings)).getTransactions().toString());
+    }
+
+    /**
+     * Tests that a binary save file of version 2, which holds the amounts in dollars, is still read.
+     */
+    @Test
+    public void testLoadTransactionsWithBinaryVersion2() throws MoneyTrackerException, IOException {
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(recordBytes);
+        record.writeByte('E');
+        record.writeDouble(5.55);
+        record.writeInt((int) LocalDate.of(2020, 12, 26).toEpochDay());
+        record.writeInt(0);
+        record.writeInt(5);
+        record.writeBytes("lunch");
+        CRC32C checksum = new CRC32C();
+        checksum.update(recordBytes.toByteArray());
+
+        ByteArrayOutputStream ledgerBytes = new ByteArrayOutputStream();
+        DataOutputStream ledger = new DataOutputStream(ledgerBytes);
+        ledger.writeInt(BinaryLedgerFormat.MAGIC);
+        ledger.writeShort(2);
+        ledger.writeLong(1);
+        ledger.writeInt(1);
+        ledger.writeInt(4);
+        ledger.writeBytes("FOOD");
+        ledger.writeInt(1);
+        recordBytes.writeTo(ledger);
+        ledger.writeInt((int) checksum.getValue());
+        Files.write(dataDirectory.resolve("transactions.bin"), ledgerBytes.toByteArray());
+
+        StorageSettings settings = new StorageSettings();
+        settings.set("format", "binary");
+        TransactionList loaded = load(createStorage(settings));
+        assertEquals("[[E] FOOD $5.55 on 26 Dec 2020 (lunch)]", loaded.getTransactions().toString());
+        assertEquals(555, loaded.getTransaction(0).getAmountCents());
+    }
+
+    /**
+     * Tests that memory mapped save files of both formats are read like streamed save files.
+     */
+    @Test
+    public void testLoadTransactionsMemoryMapped() throws MoneyTrackerException {
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        transactions.addTransaction(new Expense(5.5, "", "2020-12-26", "FOOD"), categories);
+        transactions.addTransaction(new Expense(4.5, "dinner", "2020-12-27", "FOOD"), categories);
+        createStorage().saveTransactions(transactions);
+
+        StorageSettings settings = new StorageSettings();
+        settings.set("load.mmapThreshold", "0");
+        assertEquals(transactions.getTransactions().toString(),
+                load(createStorage(settings)).getTransactions().toString());
+
+        settings.set("format", "binary");
+        assertEquals(transactions.getTransactions().toString(),
+                load(createStorage(settings)).getTransactions().toString());
+    }
+
+    /**
+     * Tests that descriptions outside ASCII are saved as UTF-8, so that they pass their checksums and read back
+     * the same whether the save file is streamed or memory mapped.
+     */
+    @Test
+    public void testSaveTransactionsAsUtf8() throws MoneyTrackerException, IOException {
+        String accented = "caf" + (char) 0xE9 + " cr" + (char) 0xE8 + "me";
+        String ideographs = String.valueOf(new char[] {0x62C9, 0x9762});
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Expense(5.5, accented, "2020-12-26", "FOOD"), categories);
+        transactions.addTransaction(new Expense(4.5, ideographs, "2020-12-27", "FOOD"), categories);
+        createStorage().saveTransactions(transactions);
+        String content = new String(Files.readAllBytes(dataDirectory.resolve("transactions.txt")),
+                StandardCharsets.UTF_8);
+        assertTrue(content.contains(accented) && content.contains(ideographs));
+
+        assertEquals(transactions.getTransactions().toString(), load(createStorage()).getTransactions().toString());
+        StorageSettings settings = new StorageSettings();
+        settings.set("load.mmapThreshold", "0");
+        assertEquals(transactions.getTransactions().toString(),
+                load(createStorage(settings)).getTransactions().toString());
+    }
+
+    /**
+     * Tests that a save file parsed in parallel chunks keeps the order of its transactions, and that a save file
+     * much larger than the write buffer is converted to the binary format and read back the same.
+     */
+    @Test
+    public void testLoadTransactionsInParallel() throws MoneyTrackerException {
+        ArrayList<Transaction> list = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            list.add(new Expense(i % 1000, "lunch " + i, "2020-12-26", "FOOD"));
+        }
+        TransactionList transactions = new TransactionList(list);
+        createStorage().saveTransactions(transactions);
+
+        StorageSettings settings = new StorageSettings();
+        settings.set("load.mmapThreshold", "0");
+        settings.set("load.parallelism", "4");
+        assertEquals(transactions.getTransactions().toString(),
+                load(createStorage(settings)).getTransactions().toString());
+
+        settings.set("format", "binary");
+        assertEquals(transactions.getTransactions().toString(),
+                load(createStorage(settings)).getTransactions().toString());
+    }
+
+    /**
+     * Tests that a complete temporary save file left behind by a crash replaces an older save file,
+     * and that an incomplete one is discarded.
+     */
+    @Test
+    public void testRecoverLedger() throws MoneyTrackerException, IOException {
+        Storage storage = createStorage();
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        storage.saveTransactions(transactions);
+
+        Path temporaryFile = dataDirectory.resolve("transactions.txt.tmp");
+        transactions.addTransaction(new Expense(5.5, "lunch", "2020-12-26", "FOOD"), categories);
+        transactions.addTransaction(new Expense(4.5, "dinner", "2020-12-26", "FOOD"), categories);
+        TextLedgerFormat format = new TextLedgerFormat(new StorageSettings());
+        format.write(temporaryFile.toString(), transactions.getTransactions(), 5);
+        String content = new String(Files.readAllBytes(temporaryFile));
+        Files.write(temporaryFile, content.substring(0, content.lastIndexOf("E |")).getBytes());
+        assertEquals("[[I] SALARY $5000.00 on 25 Dec 2020 (bonus)]",
+                load(createStorage()).getTransactions().toString());
+        assertTrue(Files.notExists(temporaryFile));
+
+        format.write(temporaryFile.toString(), transactions.getTransactions(), 5);
+        assertEquals(transactions.getTransactions().toString(), load(createStorage()).getTransactions().toString());
+        assertTrue(Files.notExists(temporaryFile));
+    }
+
+    /**
+     * Tests that changes queued in write-behind mode are written together when flushed.
+     */
+    @Test
+    public void testWriteBehind() throws MoneyTrackerException, IOException {
+        StorageSettings settings = new StorageSettings();
+        settings.set("writeBehind", "true");
+        settings.set("writeBehind.maxStaleness", "60000");
+        Storage storage = createStorage(settings);
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        storage.saveTransactions(transactions);
+        for (int i = 1; i <= 10; i++) {
+            transactions.addTransaction(new Expense(i, "lunch", "2020-12-26", "FOOD"), categories);
+            storage.saveAddedTransaction(transactions);
+        }
+        storage.saveCategories(categories);
+        assertTrue(Files.notExists(dataDirectory.resolve("transactions.txt")));
+
+        storage.flush();
+        assertEquals(2, Files.readAllLines(dataDirectory.resolve("transactions.txt")).size());
+        assertEquals(2, Files.readAllLines(dataDirectory.resolve("categories.txt")).size());
+        assertEquals(transactions.getTransactions().toString(),
+                load(createStorage()).getTransactions().toString());
+    }
+
+    /**
+     * Tests that the transactions are saved in full on close after a commit of queued changes failed.
+     */
+    @Test
+    public void testCloseAfterFailedCommit() throws MoneyTrackerException, IOException {
+        StorageSettings settings = new StorageSettings();
+        settings.set("writeBehind", "true");
+        settings.set("writeBehind.maxStaleness", "60000");
+        Storage storage = createStorage(settings);
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        storage.saveTransactions(transactions);
+        storage.flush();
+
+        Path journal = dataDirectory.resolve("transactions.journal");
+        Files.deleteIfExists(journal);
+        Files.createDirectory(journal);
+        transactions.addTransaction(new Expense(5.5, "lunch", "2020-12-26", "FOOD"), categories);
+        storage.saveAddedTransaction(transactions);
+        assertThrows(MoneyTrackerException.class, storage::flush);
+        Files.delete(journal);
+
+        storage.close(transactions);
+        assertEquals(transactions.getTransactions().toString(), load(createStorage()).getTransactions().toString());
+    }
+
+    /**
+     * Tests that a full save of transactions kept off the heap is written from the list in write-behind mode,
+     * after the changes queued before it, instead of being queued with a copy of the transactions.
+     */
+    @Test
+    public void testWriteBehindOffHeapTransactions() throws MoneyTrackerException, IOException {
+        StorageSettings settings = new StorageSettings();
+        settings.set("offHeap", "true");
+        settings.set("writeBehind", "true");
+        settings.set("writeBehind.maxStaleness", "60000");
+        Storage storage = createStorage(settings);
+        TransactionList transactions = storage.createTransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        storage.saveCategories(categories);
+        storage.saveTransactions(transactions);
+        assertEquals(2, Files.readAllLines(dataDirectory.resolve("transactions.txt")).size());
+        assertEquals(2, Files.readAllLines(dataDirectory.resolve("categories.txt")).size());
+        assertEquals(transactions.getTransactions().toString(),
+                load(createStorage()).getTransactions().toString());
+        storage.close(transactions);
+    }
+
+    /**
+     * Tests that records with a wrong checksum are skipped and quarantined instead of failing the load.
+     */
+    @Test
+    public void testLoadTransactionsWithDamagedRecords() throws MoneyTrackerException, IOException {
+        Storage storage = createStorage();
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        transactions.addTransaction(new Expense(5.5, "lunch", "2020-12-26", "FOOD"), categories);
+        storage.saveTransactions(transactions);
+        transactions.addTransaction(new Expense(4.5, "dinner", "2020-12-26", "FOOD"), categories);
+        storage.saveAddedTransaction(transactions);
+        transactions.addTransaction(new Expense(3.5, "snack", "2020-12-26", "FOOD"), categories);
+        storage.saveAddedTransaction(transactions);
+
+        Path ledger = dataDirectory.resolve("transactions.txt");
+        Files.write(ledger, new String(Files.readAllBytes(ledger)).replace("5.5", "9.5").getBytes());
+        Path journal = dataDirectory.resolve("transactions.journal");
+        Files.write(journal, new String(Files.readAllBytes(journal)).replace("dinner", "dimmer").getBytes());
+
+        storage = createStorage();
+        TransactionList loaded = load(storage);
+        assertEquals(3, storage.getQuarantinedCount());
+        assertEquals("[[I] SALARY $5000.00 on 25 Dec 2020 (bonus)]", loaded.getTransactions().toString());
+        assertEquals(6, Files.readAllLines(Paths.get(storage.getQuarantineFilePath())).size());
+        assertEquals(loaded.getTransactions().toString(), load(createStorage()).getTransactions().toString());
+    }
+
+    /**
+     * Tests that binary records with a wrong checksum are skipped and quarantined instead of failing the load.
+     */
+    @Test
+    public void testLoadTransactionsWithDamagedBinaryRecord() throws MoneyTrackerException, IOException {
+        StorageSettings settings = new StorageSettings();
+        settings.set("format", "binary");
+        Storage storage = createStorage(settings);
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        transactions.addTransaction(new Expense(5.5, "lunch", "2020-12-26", "FOOD"), categories);
+        storage.saveTransactions(transactions);
+
+        Path ledger = dataDirectory.resolve("transactions.bin");
+        byte[] bytes = Files.readAllBytes(ledger);
+        bytes[bytes.length - 6] ^= 1;
+        Files.write(ledger, bytes);
+
+        storage = createStorage(settings);
+        assertEquals("[[I] SALARY $5000.00 on 25 Dec 2020 (bonus)]", load(storage).getTransactions().toString());
+        assertEquals(1, storage.getQuarantinedCount());
+    }
+
+    /**
+     * Tests that a binary record with a damaged description length is skipped and quarantined, and that the
+     * records after it are still read, both from a stream and from a memory mapping.
+     */
+    @Test
+    public void testLoadTransactionsWithDamagedBinaryLength() throws MoneyTrackerException, IOException {
+        StorageSettings settings = new StorageSettings();
+        settings.set("format", "binary");
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        transactions.addTransaction(new Expense(5.5, "lunch", "2020-12-26", "FOOD"), categories);
+        transactions.addTransaction(new Expense(4.5, "dinner", "2020-12-26", "FOOD"), categories);
+        createStorage(settings).saveTransactions(transactions);
+
+        Path ledger = dataDirectory.resolve("transactions.bin");
+        byte[] bytes = Files.readAllBytes(ledger);
+        int lengthEnd = new String(bytes, StandardCharsets.ISO_8859_1).indexOf("lunch");
+        for (String threshold : new String[] {"1073741824", "0"}) {
+            for (int lengthByte : new int[] {lengthEnd - 1, lengthEnd - 4}) {
+                byte[] damaged = bytes.clone();
+                damaged[lengthByte] ^= 1;
+                Files.write(ledger, damaged);
+                settings.set("load.mmapThreshold", threshold);
+                Storage storage = createStorage(settings);
+                assertEquals("[[I] SALARY $5000.00 on 25 Dec 2020 (bonus), [E] FOOD $4.50 on 26 Dec 2020 (dinner)]",
+                        load(storage).getTransactions().toString());
+                assertEquals(1, storage.getQuarantinedCount());
+            }
+        }
+    }
+
+    /**
+     * Tests that the records of a save file that was cut off are kept, and that the save file is copied before
+     * it is replaced.
+     */
+    @Test
+    public void testLoadTransactionsWithMissingRecords() throws MoneyTrackerException, IOException {
+        Storage storage = createStorage();
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        transactions.addTransaction(new Expense(5.5, "lunch", "2020-12-26", "FOOD"), categories);
+        storage.saveTransactions(transactions);
+
+        Path ledger = dataDirectory.resolve("transactions.txt");
+        String content = new String(Files.readAllBytes(ledger));
+        String truncated = content.substring(0, content.lastIndexOf("E |"));
+        Files.write(ledger, truncated.getBytes());
+
+        storage = createStorage();
+        TransactionList loaded = load(storage);
+        assertEquals("[[I] SALARY $5000.00 on 25 Dec 2020 (bonus)]", loaded.getTransactions().toString());
+        assertEquals(1, storage.getQuarantinedCount());
+        assertEquals(truncated, new String(Files.readAllBytes(dataDirectory.resolve("transactions.txt.bak"))));
+        assertEquals(loaded.getTransactions().toString(), load(createStorage()).getTransactions().toString());
+    }
+
+    /**
+     * Tests that a save file that cannot be loaded is copied before the next full save replaces it.
+     */
+    @Test
+    public void testBackUpLedgerAfterFailedLoad() throws MoneyTrackerException, IOException {
+        StorageSettings settings = new StorageSettings();
+        settings.set("format", "binary");
+        Path ledger = dataDirectory.resolve("transactions.bin");
+        String damaged = "not a binary save file";
+        Files.write(ledger, damaged.getBytes());
+
+        Storage storage = createStorage(settings);
+        assertThrows(MoneyTrackerException.class, () -> load(storage));
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        storage.saveAddedTransaction(transactions);
+        assertEquals(damaged, new String(Files.readAllBytes(dataDirectory.resolve("transactions.bin.bak"))));
+        assertEquals(transactions.getTransactions().toString(),
+                load(createStorage(settings)).getTransactions().toString());
+    }
+
+    /**
+     * Tests that a snapshot replaces all save files together, and that an interrupted snapshot is discarded
+     * unless its manifest file was written.
+     */
+    @Test
+    public void testSaveSnapshot() throws MoneyTrackerException, IOException {
+        StorageSettings settings = new StorageSettings();
+        settings.set("snapshot", "true");
+        Storage storage = createStorage(settings);
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        storage.saveSnapshot(transactions, categories, new Budget(300.0));
+        assertFalse(Files.exists(dataDirectory.resolve(Storage.SNAPSHOT_MANIFEST_FILE_NAME)));
+
+        Path budgetFile = dataDirectory.resolve("budget.txt");
+        Files.write(Paths.get(budgetFile + ".snapshot"), "100.0".getBytes());
+        storage = createStorage(settings);
+        assertEquals(300.0, (double) storage.loadBudget(budgetFile.toString()));
+        assertFalse(Files.exists(Paths.get(budgetFile + ".snapshot")));
+
+        Path categoriesFile = dataDirectory.resolve("categories.txt");
+        Files.write(Paths.get(categoriesFile + ".snapshot"), "I | SALARY".getBytes());
+        Files.write(Paths.get(budgetFile + ".snapshot"), "100.0".getBytes());
+        Files.write(dataDirectory.resolve(Storage.SNAPSHOT_MANIFEST_FILE_NAME), "2".getBytes());
+        storage = createStorage(settings);
+        assertEquals(1, storage.loadCategories(categoriesFile.toString()).size());
+        assertEquals(100.0, (double) storage.loadBudget(budgetFile.toString()));
+        assertEquals("[[I] SALARY $5000.00 on 25 Dec 2020 (bonus)]", load(storage).getTransactions().toString());
+        assertFalse(Files.exists(dataDirectory.resolve(Storage.SNAPSHOT_MANIFEST_FILE_NAME)));
+    }
+
+    /**
+     * Tests that the monthly totals saved with the transactions are used after a load, unless the save file or
+     * the journal was changed after they were saved.
+     */
+    @Test
+    public void testLoadMonthlyRollup() throws MoneyTrackerException, IOException {
+        Storage storage = createStorage();
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        storage.saveTransactions(transactions);
+        transactions.addTransaction(new Expense(5.5, "lunch", "2020-12-26", "FOOD"), categories);
+        storage.saveAddedTransaction(transactions);
+        Path rollupFile = dataDirectory.resolve("transactions.rollup");
+        assertFalse(Files.exists(rollupFile));
+        storage.close(transactions);
+
+        String rollup = Files.readString(rollupFile);
+        Files.writeString(rollupFile, rollup.replace("| 550 |", "| 650 |"));
+        storage = createStorage();
+        TransactionList loaded = load(storage);
+        storage.loadMonthlyRollup(loaded);
+        assertEquals(650, loaded.getTotalCents(YearMonth.of(2020, 12), "EXPENSE"));
+
+        Files.writeString(rollupFile, rollup.replace("| 550 |", "| 650 |").replace("# rollup 1 ", "# rollup 0 "));
+        storage = createStorage();
+        loaded = load(storage);
+        storage.loadMonthlyRollup(loaded);
+        assertEquals(550, loaded.getTotalCents(YearMonth.of(2020, 12), "EXPENSE"));
+    }
+
+    /**
+     * Tests that transactions kept off the heap are reopened after a clean exit, and loaded from the save files
+     * after changes that were saved without a checkpoint.
+     */
+    @Test
+    public void testReopenOffHeapTransactions() throws MoneyTrackerException {
+        StorageSettings settings = new StorageSettings();
+        settings.set("offHeap", "true");
+        Storage storage = createStorage(settings);
+        TransactionList transactions = storage.createTransactionList();
+        assertTrue(transactions instanceof OffHeapTransactionList);
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        storage.saveTransactions(transactions);
+        storage.close(transactions);
+
+        String filePath = dataDirectory.resolve("transactions.txt").toString();
+        storage = createStorage(settings);
+        OffHeapTransactionList reopened = (OffHeapTransactionList) storage.createTransactionList();
+        storage.loadTransactions(filePath, reopened);
+        assertEquals(1, reopened.getCheckpointGeneration());
+        assertEquals(1, reopened.getSize());
+        reopened.addTransaction(new Expense(5.5, "lunch", "2020-12-26", "FOOD"), categories);
+        storage.saveAddedTransaction(reopened);
+
+        storage = createStorage(settings);
+        TransactionList loaded = storage.createTransactionList();
+        storage.loadTransactions(filePath, loaded);
+        assertEquals("[[I] SALARY $5000.00 on 25 Dec 2020 (bonus), [E] FOOD $5.50 on 26 Dec 2020 (lunch)]",
+                loaded.getTransactions().toString());
+        storage.close(loaded);
+    }
+}
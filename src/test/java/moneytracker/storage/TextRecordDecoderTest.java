@@ -0,0 +1,71 @@
+package moneytracker.storage;
+
+import moneytracker.exception.MoneyTrackerException;
+import moneytracker.transaction.Transaction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * JUnit tests for TextRecordDecoder class.
+ */
+class TextRecordDecoderTest {
+
+    private void assertDecodedLikeParsed(String line) throws MoneyTrackerException {
+        Transaction expected = TextLedgerFormat.parseTransaction(line);
+        Transaction actual = TextRecordDecoder.decode(line);
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(expected.getAmountNumber(), actual.getAmountNumber());
+        assertEquals(expected.getAmountCents(), actual.getAmountCents());
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(TextLedgerFormat.formatTransaction(expected), TextLedgerFormat.formatTransaction(actual));
+    }
+
+    /**
+     * Tests that lines are decoded into the same transactions as the original parser.
+     */
+    @Test
+    public void testDecode() throws MoneyTrackerException {
+        assertDecodedLikeParsed("I | 4000.0 | 2020-06-01 | Too little! | SALARY");
+        assertDecodedLikeParsed("E | 200.0 | 2020-06-20 |  | FOOD");
+        assertDecodedLikeParsed("E|0.1|2020-12-31|lunch|FOOD");
+        assertDecodedLikeParsed("E | 123456789.123 | 2020-01-01 | a | FOOD");
+        assertDecodedLikeParsed("E | 12345678901234567.89 | 2020-01-01 | a | FOOD");
+        assertDecodedLikeParsed("E | 1e3 | 2020-01-01 | a | FOOD");
+        assertDecodedLikeParsed("E | 5. | 2020-01-01 | a | FOOD | extra");
+        assertDecodedLikeParsed("I | 10.5 | 2020-02-30 | leap | SALARY");
+        assertDecodedLikeParsed("E | 0.29 | 2020-01-01 | a | FOOD");
+        assertDecodedLikeParsed("E | 1.005 | 2020-01-01 | a | FOOD");
+        assertDecodedLikeParsed("E | 999999999999.99 | 2020-01-01 | a | FOOD");
+    }
+
+    /**
+     * Tests that invalid lines fail like in the original parser.
+     */
+    @Test
+    public void testDecodeInvalidLine() {
+        assertThrows(MoneyTrackerException.class, () -> TextRecordDecoder.decode("X | 1.0 | 2020-01-01 | a | FOOD"));
+        assertThrows(MoneyTrackerException.class, () -> TextRecordDecoder.decode("E | 1.0 | 2020/01/01 | a | FOOD"));
+        assertThrows(NumberFormatException.class, () -> TextRecordDecoder.decode("E | abc | 2020-01-01 | a | FOOD"));
+    }
+
+    /**
+     * Tests that lines decoded with the same dictionary share their categories and descriptions.
+     */
+    @Test
+    public void testDecodeWithDictionary() throws MoneyTrackerException {
+        LoadDictionary dictionary = new LoadDictionary(true);
+        Transaction first = TextRecordDecoder.decode("E | 5.0 | 2020-06-20 | lunch | FOOD", dictionary);
+        Transaction second = TextRecordDecoder.decode("E | 6.0 | 2020-06-21 | lunch | FOOD", dictionary);
+        Transaction third = TextRecordDecoder.decode("I | 6.0 | 2020-06-21 | lunch | FOOD", dictionary);
+        assertSame(first.getCategory(), second.getCategory());
+        assertSame(first.getDescription(), second.getDescription());
+        assertNotSame(first.getCategory(), third.getCategory());
+        assertEquals(2, dictionary.getCategoryCount());
+        assertEquals(1, dictionary.getDescriptionCount());
+        assertEquals(3, dictionary.getSharedCount());
+    }
+}
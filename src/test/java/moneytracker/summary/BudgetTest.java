@@ -26,7 +26,7 @@ public class BudgetTest {
          */
         double amount = 2000.00;
         Budget b = new Budget(amount);
-        String str1 = b.calPercentage(1000.00);
+        String str1 = b.calPercentage(100000);
         assertEquals("You have exceeded 50% of your budget of $2000.00 for "
                 + LocalDate.now().getMonth().getDisplayName(TextStyle.SHORT, Locale.US)
                 + " " + LocalDate.now().getYear()
@@ -39,7 +39,7 @@ public class BudgetTest {
         /**
          * Tests expense exceeded 75 percent.
          */
-        String str2 = b.calPercentage(1751.00);
+        String str2 = b.calPercentage(175100);
         assertEquals("You have exceeded 75% of your budget of $2000.00 for "
                 + LocalDate.now().getMonth().getDisplayName(TextStyle.SHORT, Locale.US)
                 + " " + LocalDate.now().getYear()
@@ -52,7 +52,7 @@ public class BudgetTest {
         /**
          * Tests the expense exceeded 100 percent.
          */
-        String str3 = b.calPercentage(2500.10);
+        String str3 = b.calPercentage(250010);
         assertEquals("You have exceeded 100% of your budget of $2000.00 for "
                 + LocalDate.now().getMonth().getDisplayName(TextStyle.SHORT, Locale.US)
                 + " " + LocalDate.now().getYear()
@@ -61,4 +61,19 @@ public class BudgetTest {
                 + LocalDate.now().getMonth().getDisplayName(TextStyle.SHORT, Locale.US)
                 + " " + LocalDate.now().getYear() + ".");
     }
+
+    /**
+     * Tests that an expense of exactly a step of the budget reaches that step.
+     */
+
+    @Test
+    public void budgetStepTest() {
+        Budget b = new Budget(0.03);
+        assertEquals("0", b.calPercentage(1));
+        assertEquals("50%", b.calPercentage(2));
+        assertEquals("100%", b.calPercentage(3));
+        b = new Budget(2000.00);
+        assertEquals("75%", b.calPercentage(150000));
+        assertEquals("75%", b.calPercentage(199999));
+    }
 }
@@ -0,0 +1,108 @@
+package moneytracker.summary;
+
+import moneytracker.exception.MoneyTrackerException;
+import moneytracker.transaction.Category;
+import moneytracker.transaction.CategoryList;
+import moneytracker.transaction.Expense;
+import moneytracker.transaction.Income;
+import moneytracker.transaction.TransactionList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * JUnit tests for MonthlyReport class.
+ */
+class MonthlyReportTest {
+    private final TransactionList transactions = new TransactionList();
+    private final CategoryList categories = new CategoryList();
+
+    @BeforeEach
+    public void init() throws MoneyTrackerException {
+        categories.addCategory(new Category("SALARY", "INCOME"));
+        categories.addCategory(new Category("FOOD", "EXPENSE"));
+        categories.addCategory(new Category("RENT", "EXPENSE"));
+        transactions.addTransaction(new Income(5000, "Bonus", "2020-12-25", "SALARY"), categories);
+        transactions.addTransaction(new Income(1000, "Pay", "2020-12-01", "SALARY"), categories);
+        transactions.addTransaction(new Expense(5.5, "Lunch", "2020-12-25", "FOOD"), categories);
+        transactions.addTransaction(new Expense(4.5, "Dinner", "2020-12-26", "FOOD"), categories);
+        transactions.addTransaction(new Expense(8, "Deposit", "2020-12-02", "RENT"), categories);
+        transactions.addTransaction(new Expense(900, "Rent", "2021-12-02", "RENT"), categories);
+    }
+
+    /**
+     * Tests that all figures of a month are computed from the transactions of that month only.
+     */
+    @Test
+    public void testReportOfMonth() {
+        MonthlyReport report = MonthlyReport.of(transactions, YearMonth.of(2020, 12));
+        assertEquals(600000, report.getTotalIncomeCents());
+        assertEquals(1800, report.getTotalExpenseCents());
+        assertEquals(598200, report.getBalanceCents());
+        assertEquals(31, report.getDaysOfMonth());
+        assertEquals("[I] SALARY $5000.00 on 25 Dec 2020 (Bonus)", report.getHighestIncome());
+        assertEquals("[E] RENT $8.00 on 2 Dec 2020 (Deposit)", report.getHighestExpense());
+        assertEquals("{SALARY=2}", report.getIncomeCategoryFrequency().toString());
+        assertEquals("{FOOD=2, RENT=1}", report.getExpenseCategoryFrequency().toString());
+        List<MonthlyReport.CategoryTotal> amounts = report.getExpenseCategoryAmounts();
+        assertEquals("FOOD", amounts.get(0).getCategoryName());
+        assertEquals(1000, amounts.get(0).getAmountCents());
+        assertEquals(2, amounts.get(0).getCount());
+        assertEquals("RENT", amounts.get(1).getCategoryName());
+    }
+
+    /**
+     * Tests that categories are taken from the transactions as they are, including names with spaces.
+     */
+    @Test
+    public void testCategoryWithSpaces() throws MoneyTrackerException {
+        categories.addCategory(new Category("FAST FOOD", "EXPENSE"));
+        transactions.addTransaction(new Expense(12, "Burger", "2020-12-03", "FAST FOOD"), categories);
+        transactions.addTransaction(new Expense(3, "Fries", "2020-12-04", "FAST FOOD"), categories);
+        MonthlyReport report = MonthlyReport.of(transactions, YearMonth.of(2020, 12));
+        assertEquals("{FAST FOOD=2, FOOD=2, RENT=1}", report.getExpenseCategoryFrequency().toString());
+        assertEquals("FAST FOOD", report.getExpenseCategoryAmounts().get(0).getCategoryName());
+        assertEquals(1500, report.getExpenseCategoryAmounts().get(0).getAmountCents());
+    }
+
+    /**
+     * Tests the report of a month without transactions.
+     */
+    @Test
+    public void testReportOfEmptyMonth() {
+        MonthlyReport report = MonthlyReport.of(transactions, YearMonth.of(2020, 11));
+        assertEquals(0, report.getTotalIncomeCents());
+        assertNull(report.getHighestIncome());
+        assertNull(report.getHighestExpense());
+        assertEquals(0, report.getIncomeCategoryFrequency().size());
+        assertEquals(0, report.getExpenseCategoryAmounts().size());
+    }
+
+    /**
+     * Tests that a report aggregated by several threads matches the report aggregated by one, including which of
+     * the transactions with the highest amount is shown.
+     */
+    @Test
+    public void testParallelReport() throws MoneyTrackerException {
+        for (int i = 0; i < 2000; i++) {
+            transactions.addTransaction(new Expense(i % 97, "Item " + i, String.format("2020-12-%02d", i % 28 + 1),
+                    i % 3 == 0 ? "RENT" : "FOOD"), categories);
+        }
+        MonthlyReport sequential = MonthlyReport.of(transactions, YearMonth.of(2020, 12));
+        MonthlyReport parallel = MonthlyReport.of(transactions, YearMonth.of(2020, 12), 1);
+        assertEquals(sequential.getTotalExpenseCents(), parallel.getTotalExpenseCents());
+        assertEquals(sequential.getHighestIncome(), parallel.getHighestIncome());
+        assertEquals("[E] RENT $96.00 on 13 Dec 2020 (Item 96)", sequential.getHighestExpense());
+        assertEquals(sequential.getHighestExpense(), parallel.getHighestExpense());
+        assertEquals(sequential.getExpenseCategoryFrequency(), parallel.getExpenseCategoryFrequency());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(sequential.getExpenseCategoryAmounts().get(i).getAmountCents(),
+                    parallel.getExpenseCategoryAmounts().get(i).getAmountCents());
+        }
+    }
+}
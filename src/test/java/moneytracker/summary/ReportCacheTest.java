@@ -0,0 +1,42 @@
+package moneytracker.summary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * JUnit tests for ReportCache class.
+ */
+class ReportCacheTest {
+
+    /**
+     * Tests that a report is reused for the same query and version only.
+     */
+    @Test
+    public void testGetWithVersion() {
+        ReportCache<String> cache = new ReportCache<>(2);
+        AtomicInteger computed = new AtomicInteger();
+        assertEquals("a1", cache.get("a", 1, () -> "a" + computed.incrementAndGet()));
+        assertEquals("a1", cache.get("a", 1, () -> "a" + computed.incrementAndGet()));
+        assertEquals("a2", cache.get("a", 2, () -> "a" + computed.incrementAndGet()));
+        assertEquals(2, computed.get());
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * Tests that the least recently used report is dropped when the cache is full.
+     */
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        ReportCache<String> cache = new ReportCache<>(2);
+        cache.get("a", 1, () -> "a");
+        cache.get("b", 1, () -> "b");
+        cache.get("a", 1, () -> "not used");
+        cache.get("c", 1, () -> "c");
+        assertEquals(2, cache.size());
+        assertEquals("a", cache.get("a", 1, () -> "not used"));
+        assertEquals("b again", cache.get("b", 1, () -> "b again"));
+    }
+}
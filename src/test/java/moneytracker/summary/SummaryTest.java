@@ -1,6 +1,6 @@
 package moneytracker.summary;
 
-import moneytracker.exception.MoneyTrackerException;
+import moneytracker.helper.Money;
 import moneytracker.transaction.Income;
 import moneytracker.transaction.Expense;
 import moneytracker.transaction.Transaction;
@@ -30,23 +30,18 @@ public class SummaryTest {
 
         ArrayList<Transaction> t = new ArrayList<>();
 
-        try {
-            Expense expense1 = new Expense(300, "dinner", "2020-11-10", "FOOD");
-            t.add(expense1);
-
-            Expense expense2 = new Expense(200.87, "snack", "2020-11-08", "FOOD");
-            t.add(expense2);
-            TransactionList transactions = new TransactionList(t);
-            double exp = Summary.calExpSummary(transactions);
-            assertEquals("Your total expense for "
-                    + LocalDate.now().getMonth().getDisplayName(TextStyle.SHORT, Locale.US)
-                    + " " + LocalDate.now().getYear() + ": $500.87", "Your total expense for "
-                    + LocalDate.now().getMonth().getDisplayName(TextStyle.SHORT, Locale.US)
-                    + " " + LocalDate.now().getYear() + ": $" + String.format("%.2f", exp));
-
-        } catch (MoneyTrackerException e) {
-            System.out.print(e.getMessage());
-        }
+        Expense expense1 = new Expense(300, "dinner", LocalDate.now(), "FOOD");
+        t.add(expense1);
+
+        Expense expense2 = new Expense(200.87, "snack", LocalDate.now().withDayOfMonth(1), "FOOD");
+        t.add(expense2);
+        TransactionList transactions = new TransactionList(t);
+        long exp = Summary.calExpSummary(transactions);
+        assertEquals("Your total expense for "
+                + LocalDate.now().getMonth().getDisplayName(TextStyle.SHORT, Locale.US)
+                + " " + LocalDate.now().getYear() + ": $500.87", "Your total expense for "
+                + LocalDate.now().getMonth().getDisplayName(TextStyle.SHORT, Locale.US)
+                + " " + LocalDate.now().getYear() + ": $" + Money.format(exp));
     }
 
     /**
@@ -58,22 +53,32 @@ public class SummaryTest {
 
         ArrayList<Transaction> i = new ArrayList<>();
 
-        try {
-            Income income1 = new Income(1000, "fulltime", "2020-11-10", "SALARY");
-            i.add(income1);
-
-            Income income2 = new Income(200.87, "parttime", "2020-11-08", "SALARY");
-            i.add(income2);
-            TransactionList transactions = new TransactionList(i);
-            double inc = Summary.calIncSummary(transactions);
-            assertEquals("Your total income for "
-                    + LocalDate.now().getMonth().getDisplayName(TextStyle.SHORT, Locale.US)
-                    + " " + LocalDate.now().getYear() + ": $1200.87", "Your total income for "
-                    + LocalDate.now().getMonth().getDisplayName(TextStyle.SHORT, Locale.US)
-                    + " " + LocalDate.now().getYear() + ": $" + String.format("%.2f", inc));
-
-        } catch (MoneyTrackerException e) {
-            System.out.print(e.getMessage());
-        }
+        Income income1 = new Income(1000, "fulltime", LocalDate.now(), "SALARY");
+        i.add(income1);
+
+        Income income2 = new Income(200.87, "parttime", LocalDate.now().withDayOfMonth(1), "SALARY");
+        i.add(income2);
+        TransactionList transactions = new TransactionList(i);
+        long inc = Summary.calIncSummary(transactions);
+        assertEquals("Your total income for "
+                + LocalDate.now().getMonth().getDisplayName(TextStyle.SHORT, Locale.US)
+                + " " + LocalDate.now().getYear() + ": $1200.87", "Your total income for "
+                + LocalDate.now().getMonth().getDisplayName(TextStyle.SHORT, Locale.US)
+                + " " + LocalDate.now().getYear() + ": $" + Money.format(inc));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that the Summary only counts transactions of the current month of the current year.
+     */
+
+    @Test
+    public void summaryIgnoresOtherYearsTest() {
+        ArrayList<Transaction> t = new ArrayList<>();
+        t.add(new Expense(300, "dinner", LocalDate.now(), "FOOD"));
+        t.add(new Expense(50, "lunch", LocalDate.now().minusYears(1), "FOOD"));
+        t.add(new Income(1000, "fulltime", LocalDate.now().minusYears(2), "SALARY"));
+        TransactionList transactions = new TransactionList(t);
+        assertEquals(30000, Summary.calExpSummary(transactions));
+        assertEquals(0, Summary.calIncSummary(transactions));
+    }
+}
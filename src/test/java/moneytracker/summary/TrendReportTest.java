@@ -0,0 +1,77 @@
+package moneytracker.summary;
+
+import moneytracker.exception.MoneyTrackerException;
+import moneytracker.transaction.Category;
+import moneytracker.transaction.CategoryList;
+import moneytracker.transaction.Expense;
+import moneytracker.transaction.Income;
+import moneytracker.transaction.TransactionList;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * JUnit tests for TrendReport class.
+ */
+class TrendReportTest {
+
+    /**
+     * Tests that each transaction in the window is added to the bucket of its month, and that months are
+     * ordered by amount with ties in month order.
+     */
+    @Test
+    public void testTrendReport() throws MoneyTrackerException {
+        CategoryList categories = new CategoryList();
+        categories.addCategory(new Category("SALARY", "INCOME"));
+        categories.addCategory(new Category("FOOD", "EXPENSE"));
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Income(5000, "Bonus", "2020-12-25", "SALARY"), categories);
+        transactions.addTransaction(new Income(1000, "Pay", "2020-11-30", "SALARY"), categories);
+        transactions.addTransaction(new Expense(5.5, "Lunch", "2021-01-01", "FOOD"), categories);
+        transactions.addTransaction(new Expense(4.5, "Dinner", "2020-12-31", "FOOD"), categories);
+        transactions.addTransaction(new Income(700, "Old", "2020-10-31", "SALARY"), categories);
+        transactions.addTransaction(new Income(900, "New", "2021-02-01", "SALARY"), categories);
+
+        TrendReport report = TrendReport.of(transactions, YearMonth.of(2021, 1), 3);
+        assertEquals(3, report.getMonthCount());
+        assertEquals(YearMonth.of(2020, 11), report.getMonth(0));
+        assertEquals(100000, report.getIncomeCents(0));
+        assertEquals(500000, report.getIncomeCents(1));
+        assertEquals(0, report.getIncomeCents(2));
+        assertEquals(450, report.getExpenseCents(1));
+        assertEquals(550, report.getExpenseCents(2));
+        assertEquals(List.of(1, 0, 2), report.getMonthsByIncome());
+        assertEquals(List.of(2, 1, 0), report.getMonthsByExpense());
+
+        report = TrendReport.of(transactions, YearMonth.of(2021, 12), 24);
+        assertEquals(YearMonth.of(2020, 1), report.getMonth(0));
+        assertEquals(70000, report.getIncomeCents(9));
+        assertEquals(90000, report.getIncomeCents(13));
+    }
+
+    /**
+     * Tests that totals aggregated by several threads match the totals aggregated by one.
+     */
+    @Test
+    public void testParallelTrendReport() throws MoneyTrackerException {
+        CategoryList categories = new CategoryList();
+        categories.addCategory(new Category("SALARY", "INCOME"));
+        categories.addCategory(new Category("FOOD", "EXPENSE"));
+        TransactionList transactions = new TransactionList();
+        for (int i = 0; i < 2000; i++) {
+            String date = (2019 + i % 3) + "-" + String.format("%02d", i % 12 + 1) + "-15";
+            transactions.addTransaction(i % 2 == 0 ? new Income(i, "Pay", date, "SALARY")
+                    : new Expense(i, "Lunch", date, "FOOD"), categories);
+        }
+        TrendReport sequential = TrendReport.of(transactions, YearMonth.of(2021, 12), 24);
+        TrendReport parallel = TrendReport.of(transactions, YearMonth.of(2021, 12), 24, 1);
+        for (int i = 0; i < 24; i++) {
+            assertEquals(sequential.getIncomeCents(i), parallel.getIncomeCents(i));
+            assertEquals(sequential.getExpenseCents(i), parallel.getExpenseCents(i));
+        }
+        assertEquals(sequential.getMonthsByIncome(), parallel.getMonthsByIncome());
+    }
+}
@@ -45,4 +45,26 @@ public class CategoryListTest {
         assertFalse(categories.checkIfCategoryExists("SALARY", "EXPENSE"));
         assertFalse(categories.checkIfCategoryExists("FOOD", "INCOME"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that the existence check follows renamed and removed categories.
+     */
+    @Test
+    public void testCheckIfCategoryExistsAfterChanges() throws MoneyTrackerException {
+        CategoryList categories = new CategoryList();
+        Category testCategory = new Category("FOOD", "EXPENSE");
+        categories.addCategory(new Category("SALARY", "INCOME"));
+        categories.addCategory(testCategory);
+        assertTrue(categories.checkIfCategoryExists("food", "expense"));
+
+        categories.renameCategory(testCategory, "MEALS");
+        assertFalse(categories.checkIfCategoryExists("FOOD", "EXPENSE"));
+        assertTrue(categories.checkIfCategoryExists("Meals", "EXPENSE"));
+
+        categories.removeCategory(1);
+        assertFalse(categories.checkIfCategoryExists("MEALS", "EXPENSE"));
+        assertTrue(categories.checkIfCategoryExists("SALARY", "INCOME"));
+        categories.clearCategories();
+        assertFalse(categories.checkIfCategoryExists("SALARY", "INCOME"));
+    }
+}
@@ -0,0 +1,96 @@
+package moneytracker.transaction;
+
+import moneytracker.exception.MoneyTrackerException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JUnit tests for ColumnarTransactionList class.
+ */
+class ColumnarTransactionListTest {
+    private final ColumnarTransactionList transactions = new ColumnarTransactionList();
+    private final CategoryList categories = new CategoryList();
+
+    @BeforeEach
+    public void init() throws MoneyTrackerException {
+        categories.addCategory(new Category("SALARY", "INCOME"));
+        categories.addCategory(new Category("FOOD", "EXPENSE"));
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        transactions.addTransaction(new Expense(5.5, "lunch", "2020-12-26", "FOOD"), categories);
+        transactions.addTransaction(new Expense(4.5, "", "2020-12-27", "FOOD"), categories);
+    }
+
+    /**
+     * Tests that the rows are read back as the transactions that were added.
+     */
+    @Test
+    public void testGetTransaction() {
+        assertEquals(3, transactions.getSize());
+        assertTrue(transactions.getTransaction(0) instanceof Income);
+        assertTrue(transactions.getTransaction(1) instanceof Expense);
+        assertEquals("[[I] SALARY $5000.00 on 25 Dec 2020 (bonus), [E] FOOD $5.50 on 26 Dec 2020 (lunch), "
+                + "[E] FOOD $4.50 on 27 Dec 2020]", transactions.getTransactions().toString());
+    }
+
+    /**
+     * Tests that changes made through the views and the list are stored in the rows.
+     */
+    @Test
+    public void testEditAndRemoveTransaction() throws MoneyTrackerException {
+        Transaction transaction = transactions.getTransaction(1);
+        transaction.setAmount(6.5);
+        transaction.setDescription("dinner");
+        transaction.setDate("2021-01-02");
+        ((Expense) transaction).setExpenseCategory("MEALS");
+        transactions.removeTransaction(0);
+        assertEquals("[E] MEALS $6.50 on 2 Jan 2021 (dinner)", transactions.getTransaction(0).toString());
+        assertEquals("2021-01", transactions.getTransaction(0).setMonth());
+        assertEquals(2, transactions.getSize());
+    }
+
+    /**
+     * Tests that a category is only renamed in the rows of its type.
+     */
+    @Test
+    public void testUpdateTransactionsCategory() throws MoneyTrackerException {
+        categories.addCategory(new Category("FOOD", "INCOME"));
+        transactions.addTransaction(new Income(10, "refund", "2020-12-28", "FOOD"), categories);
+        transactions.updateTransactionsCategory("FOOD", "MEALS", "EXPENSE");
+        assertEquals("MEALS", ((Expense) transactions.getTransaction(1)).getExpenseCategory());
+        assertEquals("MEALS", ((Expense) transactions.getTransaction(2)).getExpenseCategory());
+        assertEquals("FOOD", ((Income) transactions.getTransaction(3)).getIncomeCategory());
+    }
+
+    /**
+     * Tests that a copy of the transactions is not affected by later changes.
+     */
+    @Test
+    public void testCopyTransactions() throws MoneyTrackerException {
+        List<Transaction> copy = transactions.copyTransactions();
+        transactions.getTransaction(0).setDescription("changed");
+        transactions.removeTransaction(1);
+        assertEquals(3, copy.size());
+        assertEquals("bonus", copy.get(0).getDescription());
+        assertEquals("lunch", copy.get(1).getDescription());
+    }
+
+    /**
+     * Tests that deleted rows are removed from the columns before the rows are read again.
+     */
+    @Test
+    public void testRemoveTransactionById() throws MoneyTrackerException {
+        int firstId = transactions.getTransactionId(0);
+        int secondId = transactions.getTransactionId(1);
+        int lastId = transactions.getTransactionId(2);
+        transactions.removeTransactionById(firstId);
+        transactions.removeTransactionById(secondId);
+        assertEquals(0, transactions.getTransactionIndex(lastId));
+        assertEquals(1, transactions.getSize());
+        assertEquals("[[E] FOOD $4.50 on 27 Dec 2020]", transactions.getTransactions().toString());
+    }
+}
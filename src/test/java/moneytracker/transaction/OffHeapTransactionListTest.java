@@ -0,0 +1,194 @@
+package moneytracker.transaction;
+
+import moneytracker.exception.MoneyTrackerException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JUnit tests for OffHeapTransactionList class.
+ */
+class OffHeapTransactionListTest {
+    private final OffHeapTransactionList transactions = new OffHeapTransactionList();
+    private final CategoryList categories = new CategoryList();
+
+    @BeforeEach
+    public void init() throws MoneyTrackerException {
+        categories.addCategory(new Category("SALARY", "INCOME"));
+        categories.addCategory(new Category("FOOD", "EXPENSE"));
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        transactions.addTransaction(new Expense(5.5, "lunch", "2020-12-26", "FOOD"), categories);
+        transactions.addTransaction(new Expense(4.5, "", "2020-12-27", "FOOD"), categories);
+    }
+
+    /**
+     * Tests that the rows are read back as the transactions that were added.
+     */
+    @Test
+    public void testGetTransaction() {
+        assertEquals(3, transactions.getSize());
+        assertTrue(transactions.getTransaction(0) instanceof Income);
+        assertTrue(transactions.getTransaction(1) instanceof Expense);
+        assertEquals("[[I] SALARY $5000.00 on 25 Dec 2020 (bonus), [E] FOOD $5.50 on 26 Dec 2020 (lunch), "
+                + "[E] FOOD $4.50 on 27 Dec 2020]", transactions.getTransactions().toString());
+    }
+
+    /**
+     * Tests that changes made through the views and the list are stored in the rows.
+     */
+    @Test
+    public void testEditAndRemoveTransaction() throws MoneyTrackerException {
+        Transaction transaction = transactions.getTransaction(1);
+        transaction.setAmount(6.5);
+        transaction.setDescription("dinner");
+        transaction.setDate("2021-01-02");
+        ((Expense) transaction).setExpenseCategory("MEALS");
+        transactions.removeTransaction(0);
+        assertEquals("[E] MEALS $6.50 on 2 Jan 2021 (dinner)", transactions.getTransaction(0).toString());
+        assertEquals("2021-01", transactions.getTransaction(0).setMonth());
+        assertEquals(2, transactions.getSize());
+    }
+
+    /**
+     * Tests that a category is only renamed in the rows of its type.
+     */
+    @Test
+    public void testUpdateTransactionsCategory() throws MoneyTrackerException {
+        categories.addCategory(new Category("FOOD", "INCOME"));
+        transactions.addTransaction(new Income(10, "refund", "2020-12-28", "FOOD"), categories);
+        transactions.updateTransactionsCategory("FOOD", "MEALS", "EXPENSE");
+        assertEquals("MEALS", ((Expense) transactions.getTransaction(1)).getExpenseCategory());
+        assertEquals("MEALS", ((Expense) transactions.getTransaction(2)).getExpenseCategory());
+        assertEquals("FOOD", ((Income) transactions.getTransaction(3)).getIncomeCategory());
+    }
+
+    /**
+     * Tests that a copy of the transactions is not affected by later changes.
+     */
+    @Test
+    public void testCopyTransactions() throws MoneyTrackerException {
+        List<Transaction> copy = transactions.copyTransactions();
+        transactions.getTransaction(0).setDescription("changed");
+        transactions.removeTransaction(1);
+        assertEquals(3, copy.size());
+        assertEquals("bonus", copy.get(0).getDescription());
+        assertEquals("lunch", copy.get(1).getDescription());
+    }
+
+    /**
+     * Tests that deleted rows are removed from the columns before the rows are read again.
+     */
+    @Test
+    public void testRemoveTransactionById() throws MoneyTrackerException {
+        int firstId = transactions.getTransactionId(0);
+        int secondId = transactions.getTransactionId(1);
+        int lastId = transactions.getTransactionId(2);
+        transactions.removeTransactionById(firstId);
+        transactions.removeTransactionById(secondId);
+        assertEquals(0, transactions.getTransactionIndex(lastId));
+        assertEquals(1, transactions.getSize());
+        assertEquals("[[E] FOOD $4.50 on 27 Dec 2020]", transactions.getTransactions().toString());
+    }
+
+    /**
+     * Tests that a list kept in a file is reopened with its rows after a checkpoint, and empty after it was
+     * changed without one.
+     */
+    @Test
+    public void testReopenAfterCheckpoint() throws MoneyTrackerException, IOException {
+        Path directory = Files.createTempDirectory("moneytracker");
+        String filePath = directory.resolve("transactions.offheap").toString();
+        long[] state = {1, 2, 3, 4};
+        try {
+            OffHeapTransactionList list = OffHeapTransactionList.open(filePath);
+            assertEquals(0, list.getSize());
+            list.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+            list.addTransaction(new Expense(5.5, "lunch", "2020-12-26", "FOOD"), categories);
+            list.addTransaction(new Expense(4.5, "", "2020-12-27", "FOOD"), categories);
+            list.removeTransaction(0);
+            list.updateTransactionsCategory("FOOD", "MEALS", "EXPENSE");
+            list.checkpoint(7, state);
+            list.close();
+
+            list = OffHeapTransactionList.open(filePath);
+            assertTrue(list.isCheckpointOf(state));
+            assertFalse(list.isCheckpointOf(new long[] {1, 2, 3, 5}));
+            assertEquals(7, list.getCheckpointGeneration());
+            assertEquals("[[E] MEALS $5.50 on 26 Dec 2020 (lunch), [E] MEALS $4.50 on 27 Dec 2020]",
+                    list.getTransactions().toString());
+            categories.addCategory(new Category("MEALS", "EXPENSE"));
+            list.addTransaction(new Expense(3, "snack", "2020-12-28", "MEALS"), categories);
+            list.close();
+
+            list = OffHeapTransactionList.open(filePath);
+            assertFalse(list.isCheckpointOf(state));
+            assertEquals(0, list.getSize());
+            list.close();
+        } finally {
+            File[] files = directory.toFile().listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            directory.toFile().delete();
+        }
+    }
+
+    /**
+     * Tests that the bytes of replaced descriptions are reclaimed by a checkpoint, and that the file of the
+     * descriptions is shrunk to the bytes in use when it is opened again.
+     */
+    @Test
+    public void testCompactDescriptionsAtCheckpoint() throws MoneyTrackerException, IOException {
+        Path directory = Files.createTempDirectory("moneytracker");
+        Path filePath = directory.resolve("transactions.offheap");
+        Path descriptionsFilePath = Paths.get(filePath + OffHeapTransactionColumns.DESCRIPTIONS_SUFFIX);
+        try {
+            OffHeapTransactionList list = OffHeapTransactionList.open(filePath.toString());
+            int descriptionBytes = 0;
+            for (int i = 0; i < 100; i++) {
+                list.addTransaction(new Expense(1, "x".repeat(100) + i, "2020-12-26", "FOOD"), categories);
+                list.updateTransactionDescription(i, "meal " + i);
+                descriptionBytes += ("meal " + i).length();
+            }
+            list.checkpoint(1, new long[] {1, 2, 3, 4});
+            list.close();
+            try (DataInputStream header = new DataInputStream(Files.newInputStream(filePath))) {
+                header.skipBytes(24);
+                assertEquals(descriptionBytes, header.readLong());
+                assertEquals(0, header.readLong());
+            }
+            try (RandomAccessFile file = new RandomAccessFile(descriptionsFilePath.toFile(), "rw")) {
+                file.setLength(3L * OffHeapBuffer.MAPPED_SEGMENT_SIZE);
+            }
+
+            list = OffHeapTransactionList.open(filePath.toString());
+            assertEquals(OffHeapBuffer.MAPPED_SEGMENT_SIZE, Files.size(descriptionsFilePath));
+            assertEquals(100, list.getSize());
+            assertEquals("meal 0", list.getTransaction(0).getDescription());
+            assertEquals("meal 99", list.getTransaction(99).getDescription());
+            list.close();
+        } finally {
+            File[] files = directory.toFile().listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            directory.toFile().delete();
+        }
+    }
+}
@@ -3,6 +3,13 @@ package moneytracker.transaction;
 import moneytracker.exception.MoneyTrackerException;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -97,4 +104,282 @@ class TransactionListTest {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * Tests that the month index follows added, edited and removed transactions.
+     */
+    @Test
+    void getTransactionIndexesInMonth() throws MoneyTrackerException {
+        CategoryList categories = new CategoryList();
+        categories.addCategory(new Category("SALARY", "INCOME"));
+        categories.addCategory(new Category("FOOD", "EXPENSE"));
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        transactions.addTransaction(new Expense(5.5, "lunch", "2020-11-26", "FOOD"), categories);
+        assertEquals("[0]", Arrays.toString(transactions.getTransactionIndexesInMonth("2020-12")));
+
+        transactions.addTransaction(new Expense(4.5, "dinner", "2020-12-27", "FOOD"), categories);
+        transactions.updateTransactionDate(1, "2020-12-01");
+        assertEquals("[0, 1, 2]", Arrays.toString(transactions.getTransactionIndexesInMonth("2020-12")));
+
+        transactions.removeTransaction(0);
+        transactions.updateTransactionDate(1, "2021-01-01");
+        assertEquals("[0]", Arrays.toString(transactions.getTransactionIndexesInMonth(YearMonth.of(2020, 12))));
+        assertEquals("[1]", Arrays.toString(transactions.getTransactionIndexesInMonth("2021-01")));
+        assertEquals("[]", Arrays.toString(transactions.getTransactionIndexesInMonth("2021-1")));
+    }
+
+    /**
+     * Tests that the category index follows edited transactions and renamed categories.
+     */
+    @Test
+    void getTransactionIndexesInCategory() throws MoneyTrackerException {
+        CategoryList categories = new CategoryList();
+        categories.addCategory(new Category("FOOD", "INCOME"));
+        categories.addCategory(new Category("FOOD", "EXPENSE"));
+        categories.addCategory(new Category("MEALS", "EXPENSE"));
+        transactions.addTransaction(new Expense(5.5, "lunch", "2020-12-26", "FOOD"), categories);
+        transactions.addTransaction(new Income(10, "refund", "2020-12-27", "FOOD"), categories);
+        transactions.addTransaction(new Expense(4.5, "dinner", "2020-12-27", "FOOD"), categories);
+        assertEquals("[0, 2]", Arrays.toString(transactions.getTransactionIndexesInCategory("FOOD", "EXPENSE")));
+        assertEquals("[1]", Arrays.toString(transactions.getTransactionIndexesInCategory("FOOD", "INCOME")));
+
+        transactions.updateTransactionCategory(0, "MEALS");
+        transactions.updateTransactionsCategory("FOOD", "SNACKS", "EXPENSE");
+        assertEquals("[2]", Arrays.toString(transactions.getTransactionIndexesInCategory("SNACKS", "EXPENSE")));
+        assertEquals("SNACKS", ((Expense) transactions.getTransaction(2)).getExpenseCategory());
+        assertEquals("FOOD", ((Income) transactions.getTransaction(1)).getIncomeCategory());
+
+        transactions.updateTransactionsCategory("MEALS", "SNACKS", "EXPENSE");
+        assertEquals("[0, 2]", Arrays.toString(transactions.getTransactionIndexesInCategory("SNACKS", "EXPENSE")));
+        assertEquals("SNACKS", ((Expense) transactions.getTransaction(0)).getExpenseCategory());
+        assertEquals("[]", Arrays.toString(transactions.getTransactionIndexesInCategory("MEALS", "EXPENSE")));
+    }
+
+    /**
+     * Tests that ids keep referring to the same transactions after other transactions are deleted.
+     */
+    @Test
+    void removeTransactionById() throws MoneyTrackerException {
+        CategoryList categories = new CategoryList();
+        categories.addCategory(new Category("FOOD", "EXPENSE"));
+        for (int i = 1; i <= 5; i++) {
+            transactions.addTransaction(new Expense(i, "meal " + i, "2020-12-0" + i, "FOOD"), categories);
+        }
+        transactions.clearSearchResultIndexes();
+        for (int i = 0; i < transactions.getSize(); i++) {
+            transactions.addSearchResultIndex(i);
+        }
+        int lastId = transactions.getTransactionId(4);
+
+        transactions.removeTransactionById(transactions.getTransactionId(1));
+        int firstId = transactions.getTransactionId(0);
+        transactions.removeTransaction(0);
+        assertEquals(2, transactions.getTransactionIndex(lastId));
+        assertEquals(-1, transactions.getTransactionIndex(firstId));
+        assertEquals(3, transactions.getSize());
+        assertEquals(2, transactions.getSearchResultIndex(4));
+        assertEquals("meal 5", transactions.getTransaction(transactions.getSearchResultIndex(4)).getDescription());
+        assertEquals("[0, 1, 2]", Arrays.toString(transactions.getTransactionIndexesInMonth("2020-12")));
+        assertEquals("[0, 1, 2]", Arrays.toString(transactions.getTransactionIndexesInCategory("FOOD", "EXPENSE")));
+
+        String errorMessage = "";
+        try {
+            transactions.removeTransactionById(firstId);
+        } catch (MoneyTrackerException e) {
+            errorMessage = e.getMessage();
+        }
+        assertEquals("Invalid index", errorMessage);
+    }
+
+    /**
+     * Tests that deleted transactions are skipped by lookups, indexes and edits while their rows are kept, until
+     * more than half of the rows are deleted.
+     */
+    @Test
+    void removeTransactionWithoutCompacting() throws MoneyTrackerException {
+        CategoryList categories = new CategoryList();
+        categories.addCategory(new Category("FOOD", "EXPENSE"));
+        categories.addCategory(new Category("RENT", "EXPENSE"));
+        ArrayList<String> remaining = new ArrayList<>();
+        ArrayList<Integer> remainingIds = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String date = "2020-" + (i % 2 == 0 ? "11" : "12") + "-" + String.format("%02d", i % 28 + 1);
+            transactions.addTransaction(new Expense(i, "item " + i, date, i % 5 == 0 ? "RENT" : "FOOD"), categories);
+            remaining.add("item " + i);
+            remainingIds.add(transactions.getTransactionId(i));
+        }
+        assertEquals(150, transactions.getTransactionIndexesInMonth("2020-12").length);
+        for (int i = 297; i >= 0; i -= 3) {
+            transactions.removeTransaction(i);
+            remaining.remove(i);
+            remainingIds.remove(i);
+        }
+        transactions.updateTransactionDate(1, "2020-12-31");
+        transactions.updateTransactionCategory(2, "RENT");
+        assertEquals(200, transactions.getTransactions().size());
+        assertEquals(remaining, transactions.getTransactions().stream().map(Transaction::getDescription)
+                .collect(Collectors.toList()));
+        for (int i = 0; i < remaining.size(); i++) {
+            assertEquals(remaining.get(i), transactions.getTransaction(i).getDescription());
+            assertEquals((int) remainingIds.get(i), transactions.getTransactionId(i));
+            assertEquals(i, transactions.getTransactionIndex(remainingIds.get(i)));
+        }
+        int[] december = transactions.getTransactionIndexesInMonth("2020-12");
+        assertEquals(101, december.length);
+        for (int index : december) {
+            assertEquals(YearMonth.of(2020, 12), YearMonth.from(transactions.getTransaction(index).getLocalDate()));
+        }
+        int[] rent = transactions.getTransactionIndexesInCategory("RENT", "EXPENSE");
+        assertEquals(41, rent.length);
+        assertEquals(2, rent[0]);
+        LocalDate lastDay = LocalDate.of(2020, 12, 31);
+        assertEquals("[1]", Arrays.toString(transactions.getTransactionIndexesBetween(lastDay, lastDay)));
+
+        for (int i = 0; i < 51; i++) {
+            transactions.removeTransaction(0);
+        }
+        assertEquals(149, transactions.getSize());
+        assertEquals(remaining.get(51), transactions.getTransaction(0).getDescription());
+        assertEquals(149, transactions.getTransactionIndexesInMonth("2020-11").length
+                + transactions.getTransactionIndexesInMonth("2020-12").length);
+        for (int i = 0; i < transactions.getSize(); i++) {
+            assertEquals((int) remainingIds.get(i + 51), transactions.getTransactionId(i));
+            assertEquals(i, transactions.getTransactionIndex(remainingIds.get(i + 51)));
+        }
+        assertEquals(-1, transactions.getTransactionIndex(remainingIds.get(50)));
+
+        int lastId = remainingIds.get(remainingIds.size() - 1);
+        transactions.clearTransactions();
+        transactions.addTransaction(new Expense(1, "new", "2020-12-01", "FOOD"), categories);
+        assertTrue(transactions.getTransactionId(0) > lastId);
+        assertEquals(-1, transactions.getTransactionIndex(lastId));
+    }
+
+    /**
+     * Tests that the monthly totals are updated when transactions are added, edited and deleted, and when
+     * a category is renamed.
+     */
+    @Test
+    void getTotalCents() throws MoneyTrackerException {
+        CategoryList categories = new CategoryList();
+        categories.addCategory(new Category("SALARY", "INCOME"));
+        categories.addCategory(new Category("FOOD", "EXPENSE"));
+        categories.addCategory(new Category("MEALS", "EXPENSE"));
+        transactions.addTransaction(new Income(5000, "bonus", "2020-12-25", "SALARY"), categories);
+        transactions.addTransaction(new Expense(5.5, "lunch", "2020-12-26", "FOOD"), categories);
+        YearMonth december = YearMonth.of(2020, 12);
+        assertEquals(500000, transactions.getTotalCents(december, "INCOME"));
+        assertEquals(550, transactions.getTotalCents(december, "EXPENSE"));
+
+        transactions.addTransaction(new Expense(4.5, "dinner", "2020-12-27", "MEALS"), categories);
+        transactions.updateTransactionAmount(1, 6.25);
+        transactions.updateTransactionDate(0, "2021-01-05");
+        assertEquals(0, transactions.getTotalCents(december, "INCOME"));
+        assertEquals(500000, transactions.getTotalCents(YearMonth.of(2021, 1), "INCOME"));
+        assertEquals(1075, transactions.getTotalCents(december, "EXPENSE"));
+
+        transactions.updateTransactionsCategory("MEALS", "FOOD", "EXPENSE");
+        assertEquals(1075, transactions.getCategoryTotalCents(december, "FOOD", "EXPENSE"));
+        assertEquals(0, transactions.getCategoryTotalCents(december, "MEALS", "EXPENSE"));
+
+        transactions.removeTransaction(1);
+        assertEquals(450, transactions.getTotalCents(december, "EXPENSE"));
+        assertEquals(2, transactions.getMonthlyRollup().getTransactionCount());
+    }
+
+    /**
+     * Tests that the transactions between two dates are found in date order after transactions are added out
+     * of order, edited and deleted.
+     */
+    @Test
+    void getTransactionIndexesBetween() throws MoneyTrackerException {
+        CategoryList categories = new CategoryList();
+        categories.addCategory(new Category("FOOD", "EXPENSE"));
+        transactions.addTransaction(new Expense(1, "a", "2020-12-10", "FOOD"), categories);
+        transactions.addTransaction(new Expense(2, "b", "2020-12-01", "FOOD"), categories);
+        transactions.addTransaction(new Expense(3, "c", "2020-12-20", "FOOD"), categories);
+        transactions.addTransaction(new Expense(4, "d", "2020-12-10", "FOOD"), categories);
+        LocalDate from = LocalDate.of(2020, 12, 1);
+        LocalDate to = LocalDate.of(2020, 12, 10);
+        assertEquals("[1, 0, 3]", Arrays.toString(transactions.getTransactionIndexesBetween(from, to)));
+
+        transactions.updateTransactionDate(2, "2020-12-05");
+        transactions.removeTransaction(0);
+        assertEquals("[b, c, d]", transactions.between(from, to).stream().map(Transaction::getDescription)
+                .collect(Collectors.toList()).toString());
+        assertEquals("[]", Arrays.toString(transactions.getTransactionIndexesBetween(to, from)));
+    }
+
+    /**
+     * Tests that the transactions between two dates are found in date order by a scan of the list before the
+     * date index is built, and by the index afterwards.
+     */
+    @Test
+    void between() throws MoneyTrackerException {
+        CategoryList categories = new CategoryList();
+        categories.addCategory(new Category("FOOD", "EXPENSE"));
+        transactions.addTransaction(new Expense(1, "a", "2020-12-10", "FOOD"), categories);
+        transactions.addTransaction(new Expense(2, "b", "2020-12-01", "FOOD"), categories);
+        transactions.addTransaction(new Expense(3, "c", "2020-12-20", "FOOD"), categories);
+        transactions.addTransaction(new Expense(4, "d", "2020-12-10", "FOOD"), categories);
+        transactions.removeTransaction(3);
+        LocalDate from = LocalDate.of(2020, 12, 1);
+        LocalDate to = LocalDate.of(2020, 12, 15);
+        assertEquals("[b, a]", transactions.between(from, to).stream().map(Transaction::getDescription)
+                .collect(Collectors.toList()).toString());
+
+        assertEquals("[1, 0]", Arrays.toString(transactions.getTransactionIndexesBetween(from, to)));
+        transactions.addTransaction(new Expense(5, "e", "2020-12-05", "FOOD"), categories);
+        assertEquals("[b, e, a]", transactions.between(from, to).stream().map(Transaction::getDescription)
+                .collect(Collectors.toList()).toString());
+    }
+
+    /**
+     * Tests that a copy of the transactions is not changed when the transactions are edited or their category
+     * is renamed afterwards.
+     */
+    @Test
+    void copyTransactions() throws MoneyTrackerException {
+        CategoryList categories = new CategoryList();
+        categories.addCategory(new Category("FOOD", "EXPENSE"));
+        transactions.addTransaction(new Expense(5.5, "lunch", "2020-12-25", "FOOD"), categories);
+        transactions.addTransaction(new Expense(4.5, "dinner", "2020-12-26", "FOOD"), categories);
+        transactions.removeTransaction(0);
+        List<Transaction> copy = transactions.copyTransactions();
+        transactions.updateTransactionsCategory("FOOD", "MEALS", "EXPENSE");
+        transactions.updateTransactionAmount(0, 7);
+        assertEquals("[[E] FOOD $4.50 on 26 Dec 2020 (dinner)]", copy.toString());
+        assertEquals("[[E] MEALS $7.00 on 26 Dec 2020 (dinner)]", transactions.getTransactions().toString());
+    }
+
+    /**
+     * Tests that the version changes with every change to the transactions, and is not shared with another list.
+     */
+    @Test
+    void getVersion() throws MoneyTrackerException {
+        CategoryList categories = new CategoryList();
+        categories.addCategory(new Category("SALARY", "INCOME"));
+        categories.addCategory(new Category("BONUS", "INCOME"));
+        long version = transactions.getVersion();
+        assertTrue(version != new TransactionList().getVersion());
+        transactions.addTransaction(new Income(5000, "pay", "2020-12-25", "SALARY"), categories);
+        transactions.addTransaction(new Income(100, "gift", "2020-12-26", "SALARY"), categories);
+        assertTrue(version != transactions.getVersion());
+
+        long[] versions = new long[6];
+        versions[0] = transactions.getVersion();
+        transactions.updateTransactionDescription(0, "salary");
+        versions[1] = transactions.getVersion();
+        transactions.updateTransactionAmount(0, 5100);
+        versions[2] = transactions.getVersion();
+        transactions.updateTransactionCategory(1, "BONUS");
+        versions[3] = transactions.getVersion();
+        transactions.updateTransactionsCategory("BONUS", "GIFT", "INCOME");
+        versions[4] = transactions.getVersion();
+        transactions.removeTransaction(1);
+        versions[5] = transactions.getVersion();
+        assertEquals(6, Arrays.stream(versions).distinct().count());
+        assertEquals("salary", transactions.getTransaction(0).getDescription());
+        transactions.getTransaction(0);
+        assertEquals(versions[5], transactions.getVersion());
+    }
+}